@@ -0,0 +1,72 @@
+package com.flr.engine;
+
+import com.flr.FlrConstant;
+import com.flr.command.util.FlrAssetIdAllocator;
+import com.flr.command.util.FlrAssetUtil;
+import com.flr.command.util.FlrCodeUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+* asset_id 分配和 flutter assets 合并的基准测试
+*
+* legacyGenerateAssetIds 逐个调用 FlrCodeUtil.generateAssetId，并在已使用的asset_id数组中线性查找，
+* 作为 FlrAssetIdAllocator 的对比基线
+* */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@SuppressWarnings("unchecked")
+public class FlrAssetBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class AssetState {
+        public List<String> nonSvgImageAssetArray;
+        public List<String> newAssetArray;
+        public List<String> oldAssetArray;
+
+        @Setup(Level.Trial)
+        public void setUp(FlrWorkspaceState workspaceState) {
+            FlrEngine.AssetResult assetResult = workspaceState.mainAssetResult;
+            nonSvgImageAssetArray = assetResult.nonSvgImageAssetArray;
+
+            newAssetArray = new ArrayList<String>(assetResult.imageAssetArray);
+            newAssetArray.addAll(assetResult.textAssetArray);
+
+            // 旧的assets包含一半的新asset，以及工作区 pubspec.yaml 中已有的html资源、失效资源和第三方package资源
+            Map<String, Object> pubspecConfig = workspaceState.loadMainPubspecConfig();
+            Map<String, Object> flutterConfig = (Map<String, Object>)pubspecConfig.get("flutter");
+            oldAssetArray = new ArrayList<String>(newAssetArray.subList(0, newAssetArray.size() / 2));
+            oldAssetArray.addAll((List<String>)flutterConfig.get("assets"));
+        }
+    }
+
+    @Benchmark
+    public void generateAssetIds(AssetState state, Blackhole blackhole) {
+        FlrAssetIdAllocator allocator = new FlrAssetIdAllocator(FlrConstant.PRIOR_NON_SVG_IMAGE_FILE_TYPE);
+        for (String asset : state.nonSvgImageAssetArray) {
+            blackhole.consume(allocator.allocate(asset));
+        }
+    }
+
+    @Benchmark
+    public void legacyGenerateAssetIds(AssetState state, Blackhole blackhole) {
+        List<String> usedAssetIdArray = new ArrayList<String>();
+        for (String asset : state.nonSvgImageAssetArray) {
+            String assetId = FlrCodeUtil.generateAssetId(asset, usedAssetIdArray, FlrConstant.PRIOR_NON_SVG_IMAGE_FILE_TYPE);
+            usedAssetIdArray.add(assetId);
+            blackhole.consume(assetId);
+        }
+    }
+
+    @Benchmark
+    public List<String> mergeFlutterAssets(AssetState state, FlrWorkspaceState workspaceState) {
+        // mergeFlutterAssets 会向 newAssetArray 追加需要保留的旧asset，因此每次都传入副本
+        List<String> newAssetArray = new ArrayList<String>(state.newAssetArray);
+        return FlrAssetUtil.mergeFlutterAssets(workspaceState.mainProjectRootDir, workspaceState.mainPackageName, newAssetArray, state.oldAssetArray, FlrNioFileSystem.getInstance());
+    }
+}
@@ -0,0 +1,64 @@
+package com.flr.engine;
+
+import com.flr.FlrConstant;
+import com.flr.command.util.FlrResourceClassifier;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/*
+* 资源文件分类的基准测试
+*
+* legacyClassify 复现预计算扩展名表之前的实现（每次调用编译正则表达式、截取扩展名、在扩展名数组中线性查找），
+* 作为 FlrResourceClassifier 的对比基线
+* */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FlrClassifierBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ClassifierState {
+        public List<String> filePathArray;
+
+        @Setup(Level.Trial)
+        public void setUp(FlrWorkspaceState workspaceState) {
+            filePathArray = workspaceState.getMainResourceFilePaths();
+        }
+    }
+
+    @Benchmark
+    public void classify(ClassifierState state, Blackhole blackhole) {
+        for (String filePath : state.filePathArray) {
+            blackhole.consume(FlrResourceClassifier.getFileType(filePath));
+            blackhole.consume(FlrResourceClassifier.isLegalFileName(filePath));
+        }
+    }
+
+    @Benchmark
+    public void legacyClassify(ClassifierState state, Blackhole blackhole) {
+        for (String filePath : state.filePathArray) {
+            String fileName = filePath.substring(filePath.lastIndexOf('/') + 1);
+            int dotIndex = fileName.lastIndexOf('.');
+            String fileExtName = dotIndex >= 0 ? fileName.substring(dotIndex).toLowerCase() : "";
+            String fileBasenameWithoutExtension = dotIndex >= 0 ? fileName.substring(0, dotIndex) : fileName;
+
+            FlrResourceClassifier.FileType fileType = FlrResourceClassifier.FileType.other;
+            if(FlrConstant.NON_SVG_IMAGE_FILE_TYPES.contains(fileExtName)) {
+                fileType = FlrResourceClassifier.FileType.nonSvgImage;
+            } else if(FlrConstant.SVG_IMAGE_FILE_TYPES.contains(fileExtName)) {
+                fileType = FlrResourceClassifier.FileType.svgImage;
+            } else if(FlrConstant.TEXT_FILE_TYPES.contains(fileExtName)) {
+                fileType = FlrResourceClassifier.FileType.text;
+            } else if(FlrConstant.FONT_FILE_TYPES.contains(fileExtName)) {
+                fileType = FlrResourceClassifier.FileType.font;
+            }
+            blackhole.consume(fileType);
+
+            Pattern pattern = Pattern.compile("^[a-zA-Z0-9_\\+\\-\\.·!@&$￥]+$");
+            blackhole.consume(pattern.matcher(fileBasenameWithoutExtension).matches());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.flr.engine;
+
+import com.flr.FlrConstant;
+import com.flr.command.util.FlrAssetIdAllocator;
+import com.flr.command.util.FlrCodeUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+* r.g.dart 代码生成的基准测试
+*
+* 每个 append__R_* 基准测试对应 generateRDartFileContent 中的一个步骤，generateRDartFileContent 度量生成整个文件的开销；
+* dartfmtLineLength 为0时按原模板生成代码，为80时生成符合dartfmt格式的代码
+* */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FlrCodeUtilBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class CodeState {
+        @Param({"0", "80"})
+        public int dartfmtLineLength;
+
+        public String packageName;
+        public FlrEngine.AssetResult assetResult;
+        public Map<String, String> nonSvgImageAssetIdDict;
+        public Map<String, String> svgImageAssetIdDict;
+        public Map<String, String> textAssetIdDict;
+
+        @Setup(Level.Trial)
+        public void setUp(FlrWorkspaceState workspaceState) {
+            packageName = workspaceState.mainPackageName;
+            assetResult = workspaceState.mainAssetResult;
+            nonSvgImageAssetIdDict = allocateAssetIds(assetResult.nonSvgImageAssetArray, FlrConstant.PRIOR_NON_SVG_IMAGE_FILE_TYPE);
+            svgImageAssetIdDict = allocateAssetIds(assetResult.svgImageAssetArray, FlrConstant.PRIOR_SVG_IMAGE_FILE_TYPE);
+            textAssetIdDict = allocateAssetIds(assetResult.textAssetArray, FlrConstant.PRIOR_TEXT_FILE_TYPE);
+        }
+
+        private static Map<String, String> allocateAssetIds(List<String> assetArray, String priorAssetType) {
+            Map<String, String> assetIdDict = new HashMap<String, String>();
+            FlrAssetIdAllocator allocator = new FlrAssetIdAllocator(priorAssetType);
+            for (String asset : assetArray) {
+                assetIdDict.put(asset, allocator.allocate(asset));
+            }
+            return assetIdDict;
+        }
+    }
+
+    @Benchmark
+    public String generate_R_class(CodeState state) {
+        return FlrCodeUtil.generate_R_class(state.packageName);
+    }
+
+    @Benchmark
+    public String generate_AssetResource_class(CodeState state) {
+        return FlrCodeUtil.generate_AssetResource_class(state.packageName, true, state.dartfmtLineLength);
+    }
+
+    @Benchmark
+    public StringBuilder append__R_Image_AssetResource_class(CodeState state) {
+        StringBuilder code = new StringBuilder();
+        FlrCodeUtil.append__R_Image_AssetResource_class(code, state.assetResult.nonSvgImageAssetArray, state.nonSvgImageAssetIdDict, state.packageName, false, state.dartfmtLineLength);
+        return code;
+    }
+
+    @Benchmark
+    public StringBuilder append__R_Svg_AssetResource_class(CodeState state) {
+        StringBuilder code = new StringBuilder();
+        FlrCodeUtil.append__R_Svg_AssetResource_class(code, state.assetResult.svgImageAssetArray, state.svgImageAssetIdDict, state.packageName, false, state.dartfmtLineLength);
+        return code;
+    }
+
+    @Benchmark
+    public StringBuilder append__R_Text_AssetResource_class(CodeState state) {
+        StringBuilder code = new StringBuilder();
+        FlrCodeUtil.append__R_Text_AssetResource_class(code, state.assetResult.textAssetArray, state.textAssetIdDict, state.packageName, false, state.dartfmtLineLength);
+        return code;
+    }
+
+    @Benchmark
+    public StringBuilder append__R_Image_class(CodeState state) {
+        StringBuilder code = new StringBuilder();
+        FlrCodeUtil.append__R_Image_class(code, state.assetResult.nonSvgImageAssetArray, state.nonSvgImageAssetIdDict, state.packageName, state.dartfmtLineLength);
+        return code;
+    }
+
+    @Benchmark
+    public StringBuilder append__R_Svg_class(CodeState state) {
+        StringBuilder code = new StringBuilder();
+        FlrCodeUtil.append__R_Svg_class(code, state.assetResult.svgImageAssetArray, state.svgImageAssetIdDict, state.packageName, true, state.dartfmtLineLength);
+        return code;
+    }
+
+    @Benchmark
+    public StringBuilder append__R_Text_class(CodeState state) {
+        StringBuilder code = new StringBuilder();
+        FlrCodeUtil.append__R_Text_class(code, state.assetResult.textAssetArray, state.textAssetIdDict, state.packageName, state.dartfmtLineLength);
+        return code;
+    }
+
+    @Benchmark
+    public StringBuilder append__R_FontFamily_class(CodeState state) {
+        StringBuilder code = new StringBuilder();
+        FlrCodeUtil.append__R_FontFamily_class(code, state.assetResult.fontFamilyConfigArray, state.packageName, state.dartfmtLineLength);
+        return code;
+    }
+
+    @Benchmark
+    public String generateRDartFileContent(CodeState state) {
+        FlrEngine.AssetResult assetResult = state.assetResult;
+        return FlrCodeUtil.generateRDartFileContent(state.packageName, false, true, assetResult.nonSvgImageAssetArray, assetResult.svgImageAssetArray, assetResult.textAssetArray, assetResult.fontFamilyConfigArray, state.dartfmtLineLength);
+    }
+}
@@ -0,0 +1,50 @@
+package com.flr.engine;
+
+import com.flr.command.util.FlrResourceScanner;
+import com.flr.command.util.FlrScanIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+* 扫描资源目录、生成asset，以及完整执行一次generate的基准测试
+*
+* 工作区已处于稳定状态，generateWorkspace 度量的是“没有资源变化时重新generate”的开销，
+* 即每次保存文件后自动generate的典型场景；
+* 扫描使用的是插件与引擎共用的 FlrResourceScanner，scanWithIndex 度量的是资源目录都没有变化时基于扫描索引的扫描；
+* AssetResult 是包内可见的类，JMH生成的代码位于其他包中，因此基准测试方法以 Object 返回它
+* */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FlrScanBenchmark {
+
+    @Benchmark
+    public FlrResourceScanner.Result scan(FlrWorkspaceState state) {
+        String flutterProjectRootDir = state.mainProjectRootDir;
+        return FlrResourceScanner.scan(FlrNioFileSystem.getInstance(), FlrWorkspaceState.getAssetsResourceDirs(flutterProjectRootDir), FlrWorkspaceState.getFontsResourceDirs(flutterProjectRootDir));
+    }
+
+    @Benchmark
+    public FlrResourceScanner.Result scanWithIndex(FlrWorkspaceState state) {
+        String flutterProjectRootDir = state.mainProjectRootDir;
+        return FlrResourceScanner.scan(FlrNioFileSystem.getInstance(), FlrWorkspaceState.getAssetsResourceDirs(flutterProjectRootDir), FlrWorkspaceState.getFontsResourceDirs(flutterProjectRootDir), FlrScanIndex.getIndex(flutterProjectRootDir));
+    }
+
+    @Benchmark
+    public Object generateAssets(FlrWorkspaceState state) {
+        return state.engine.generateAssets(state.mainProjectRootDir, state.mainPackageName, state.mainScanResult);
+    }
+
+    @Benchmark
+    public int generateWorkspace(FlrWorkspaceState state) {
+        int warningCount = 0;
+        for (String flutterProjectRootDir : state.flutterProjectRootDirArray) {
+            FlrEngine.Result result = state.engine.generate(flutterProjectRootDir);
+            if(result.isPubspecChanged || result.isRDartFileChanged) {
+                throw new IllegalStateException("workspace is not in steady state: " + flutterProjectRootDir);
+            }
+            warningCount += result.warningCount;
+        }
+        return warningCount;
+    }
+}
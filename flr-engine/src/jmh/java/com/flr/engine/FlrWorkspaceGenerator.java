@@ -0,0 +1,193 @@
+package com.flr.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/*
+* 基准测试使用的flutter工作区生成器
+*
+* 生成一个主工程和 subProjectCount 个子工程，每个工程包含：
+* - lib/assets/images：imageCount 个图片文件，分散在10个分组目录中；
+*   文件名按 imageCount / 2 取模，因此不同分组目录中存在同名文件（生成重名的assetId）；
+*   每10个图片中有1个SVG图片、1个JPG图片，其余为PNG图片；每隔1个非SVG图片带有 2.0x、3.0x 倍率变体；
+* - lib/assets/texts：textCount 个文本文件（.json、.yaml、.txt）；
+* - lib/assets/fonts：fontFamilyCount 个字体家族目录，每个目录包含 Regular、Bold、Italic 3个字体文件；
+* - illegalFileCount 个文件名非法（包含空格）的图片文件；
+* - lib/assets/htmls：不会被扫描的HTML文件，pubspec.yaml 中已有它们的资源声明（合并时需要保留），
+*   以及已经不存在的图片资源声明和第三方package的资源声明（合并时分别需要移除和保留）。
+*
+* === Examples
+* List<String> flutterProjectRootDirArray = new FlrWorkspaceGenerator(2, 500, 50, 4, 5).generate(new File("/tmp/flr_workspace"))
+* flutterProjectRootDirArray => ["/tmp/flr_workspace/flutter_main", "/tmp/flr_workspace/flutter_main/modules/flutter_sub_0", "/tmp/flr_workspace/flutter_main/modules/flutter_sub_1"]
+* */
+public class FlrWorkspaceGenerator {
+
+    private static final int IMAGE_GROUP_COUNT = 10;
+    private static final int HTML_FILE_COUNT = 10;
+    private static final int STALE_ASSET_COUNT = 10;
+
+    private final int subProjectCount;
+    private final int imageCount;
+    private final int textCount;
+    private final int fontFamilyCount;
+    private final int illegalFileCount;
+
+    public FlrWorkspaceGenerator(int subProjectCount, int imageCount, int textCount, int fontFamilyCount, int illegalFileCount) {
+        this.subProjectCount = subProjectCount;
+        this.imageCount = imageCount;
+        this.textCount = textCount;
+        this.fontFamilyCount = fontFamilyCount;
+        this.illegalFileCount = illegalFileCount;
+    }
+
+    /*
+    * 命令行入口，用于手动生成工作区：
+    * FlrWorkspaceGenerator <workspace_dir> [sub_project_count] [image_count] [text_count] [font_family_count] [illegal_file_count]
+    * */
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1) {
+            System.err.println("usage: FlrWorkspaceGenerator <workspace_dir> [sub_project_count] [image_count] [text_count] [font_family_count] [illegal_file_count]");
+            System.exit(2);
+        }
+
+        FlrWorkspaceGenerator generator = new FlrWorkspaceGenerator(
+                args.length > 1 ? Integer.parseInt(args[1]) : 2,
+                args.length > 2 ? Integer.parseInt(args[2]) : 500,
+                args.length > 3 ? Integer.parseInt(args[3]) : 50,
+                args.length > 4 ? Integer.parseInt(args[4]) : 4,
+                args.length > 5 ? Integer.parseInt(args[5]) : 5);
+        for (String flutterProjectRootDir : generator.generate(new File(args[0]))) {
+            System.out.println(flutterProjectRootDir);
+        }
+    }
+
+    /*
+    * 在 workspaceDir 中生成工作区（若 workspaceDir 已存在，则先删除），返回所有flutter工程的根目录，主工程在前
+    * */
+    public List<String> generate(@NotNull File workspaceDir) throws IOException {
+        deleteRecursively(workspaceDir.toPath());
+
+        List<String> flutterProjectRootDirArray = new ArrayList<String>();
+        String workspacePath = workspaceDir.getAbsolutePath().replace(File.separatorChar, '/');
+
+        String mainProjectRootDir = workspacePath + "/flutter_main";
+        generateProject(mainProjectRootDir, "flutter_main", "app");
+        flutterProjectRootDirArray.add(mainProjectRootDir);
+
+        for (int i = 0; i < subProjectCount; i++) {
+            String packageName = "flutter_sub_" + i;
+            String subProjectRootDir = mainProjectRootDir + "/modules/" + packageName;
+            generateProject(subProjectRootDir, packageName, "package");
+            flutterProjectRootDirArray.add(subProjectRootDir);
+        }
+
+        return flutterProjectRootDirArray;
+    }
+
+    private void generateProject(@NotNull String flutterProjectRootDir, @NotNull String packageName, @NotNull String projectType) throws IOException {
+        String imagesDir = flutterProjectRootDir + "/lib/assets/images";
+        int basenameCount = Math.max(imageCount / 2, 1);
+        for (int i = 0; i < imageCount; i++) {
+            String groupDir = imagesDir + "/group_" + (i % IMAGE_GROUP_COUNT);
+            String basename = "image_" + (i % basenameCount);
+            if(i % 10 == 9) {
+                writeFile(groupDir + "/" + basename + ".svg", "<svg xmlns=\"http://www.w3.org/2000/svg\"/>");
+                continue;
+            }
+
+            String fileName = basename + (i % 10 == 8 ? ".jpg" : ".png");
+            writeFile(groupDir + "/" + fileName, "");
+            if(i % 2 == 0) {
+                writeFile(groupDir + "/2.0x/" + fileName, "");
+                writeFile(groupDir + "/3.0x/" + fileName, "");
+            }
+        }
+
+        for (int i = 0; i < illegalFileCount; i++) {
+            writeFile(imagesDir + "/illegal image " + i + ".png", "");
+        }
+
+        String[] textExtNames = {".json", ".yaml", ".txt"};
+        for (int i = 0; i < textCount; i++) {
+            writeFile(flutterProjectRootDir + "/lib/assets/texts/text_" + i + textExtNames[i % textExtNames.length], "{}");
+        }
+
+        String[] fontStyles = {"Regular", "Bold", "Italic"};
+        for (int i = 0; i < fontFamilyCount; i++) {
+            String fontFamilyName = "Family" + i;
+            for (String fontStyle : fontStyles) {
+                writeFile(flutterProjectRootDir + "/lib/assets/fonts/" + fontFamilyName + "/" + fontFamilyName + "-" + fontStyle + ".ttf", "");
+            }
+        }
+
+        for (int i = 0; i < HTML_FILE_COUNT; i++) {
+            writeFile(flutterProjectRootDir + "/lib/assets/htmls/page_" + i + ".html", "<html/>");
+        }
+
+        writeFile(flutterProjectRootDir + "/.metadata", "version:\n  revision: 0\n  channel: stable\n\nproject_type: " + projectType + "\n");
+        writeFile(flutterProjectRootDir + "/pubspec.yaml", generatePubspecContent(packageName));
+    }
+
+    private String generatePubspecContent(@NotNull String packageName) {
+        StringBuilder content = new StringBuilder();
+        content.append("name: ").append(packageName).append("\n");
+        content.append("description: A generated flutter project for flr benchmarks.\n");
+        content.append("\n");
+        content.append("environment:\n");
+        content.append("  sdk: \">=2.12.0 <3.0.0\"\n");
+        content.append("\n");
+        content.append("dependencies:\n");
+        content.append("  flutter:\n");
+        content.append("    sdk: flutter\n");
+        content.append("  r_dart_library: \">=0.1.1 <0.2.0\"\n");
+        content.append("\n");
+        content.append("flutter:\n");
+        content.append("  uses-material-design: true\n");
+        content.append("  assets:\n");
+        for (int i = 0; i < HTML_FILE_COUNT; i++) {
+            content.append("    - packages/").append(packageName).append("/assets/htmls/page_").append(i).append(".html\n");
+        }
+        for (int i = 0; i < STALE_ASSET_COUNT; i++) {
+            content.append("    - packages/").append(packageName).append("/assets/images/removed_").append(i).append(".png\n");
+        }
+        content.append("    - packages/third_party/assets/images/logo.png\n");
+        content.append("\n");
+        content.append("flr:\n");
+        content.append("  core_version: 3.2.0\n");
+        content.append("  dartfmt_line_length: 80\n");
+        content.append("  assets:\n");
+        content.append("    - lib/assets/images\n");
+        content.append("    - lib/assets/texts\n");
+        content.append("  fonts:\n");
+        content.append("    - lib/assets/fonts\n");
+        return content.toString();
+    }
+
+    private static void writeFile(@NotNull String filePath, @NotNull String content) throws IOException {
+        Path path = new File(filePath).toPath();
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void deleteRecursively(@NotNull Path path) throws IOException {
+        if(Files.exists(path) == false) {
+            return;
+        }
+        try (Stream<Path> stream = Files.walk(path)) {
+            List<Path> pathArray = new ArrayList<Path>();
+            stream.sorted(Comparator.reverseOrder()).forEach(pathArray::add);
+            for (Path subPath : pathArray) {
+                Files.delete(subPath);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.flr.engine;
+
+import com.flr.command.util.FlrResourceScanner;
+import org.openjdk.jmh.annotations.*;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/*
+* 基准测试共用的工作区状态
+*
+* 每轮基准测试（Level.Trial）开始前，用 FlrWorkspaceGenerator 在临时目录中生成工作区，
+* 并对所有工程执行一次generate，使工作区处于稳定状态：之后再次generate时，pubspec.yaml 和 r.g.dart 都不会发生变化
+* */
+@State(Scope.Benchmark)
+public class FlrWorkspaceState {
+
+    @Param({"0", "4"})
+    public int subProjectCount;
+
+    @Param({"200", "2000"})
+    public int imageCount;
+
+    public File workspaceDir;
+    public List<String> flutterProjectRootDirArray;
+    public FlrEngine engine;
+
+    // 主工程的扫描结果和资产生成结果
+    public String mainProjectRootDir;
+    public String mainPackageName;
+    public FlrResourceScanner.Result mainScanResult;
+    public FlrEngine.AssetResult mainAssetResult;
+    public String mainPubspecContent;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workspaceDir = Files.createTempDirectory("flr_benchmark_").toFile();
+        FlrWorkspaceGenerator generator = new FlrWorkspaceGenerator(subProjectCount, imageCount, Math.max(imageCount / 10, 1), 4, 5);
+        flutterProjectRootDirArray = generator.generate(workspaceDir);
+
+        engine = new FlrEngine(FlrNioFileSystem.getInstance(), (text, logType) -> {}, true);
+        for (String flutterProjectRootDir : flutterProjectRootDirArray) {
+            if(engine.generate(flutterProjectRootDir).isSucceeded == false) {
+                throw new IllegalStateException("generate for " + flutterProjectRootDir + " failed");
+            }
+        }
+
+        mainProjectRootDir = flutterProjectRootDirArray.get(0);
+        mainPackageName = "flutter_main";
+        mainScanResult = FlrResourceScanner.scan(FlrNioFileSystem.getInstance(), getAssetsResourceDirs(mainProjectRootDir), getFontsResourceDirs(mainProjectRootDir));
+        mainAssetResult = engine.generateAssets(mainProjectRootDir, mainPackageName, mainScanResult);
+        mainPubspecContent = FlrNioFileSystem.getInstance().readText(mainProjectRootDir + "/pubspec.yaml");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FlrWorkspaceGenerator.deleteRecursively(workspaceDir.toPath());
+    }
+
+    public static List<String> getAssetsResourceDirs(String flutterProjectRootDir) {
+        return Arrays.asList(flutterProjectRootDir + "/lib/assets/images", flutterProjectRootDir + "/lib/assets/texts");
+    }
+
+    public static List<String> getFontsResourceDirs(String flutterProjectRootDir) {
+        return Collections.singletonList(flutterProjectRootDir + "/lib/assets/fonts");
+    }
+
+    /*
+    * 解析主工程稳定状态下的 pubspec.yaml，每次调用都返回新的配置对象，调用方可以修改它
+    * */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> loadMainPubspecConfig() {
+        return (Map<String, Object>)new Yaml().load(mainPubspecContent);
+    }
+
+    /*
+    * 主工程中所有被扫描的文件的路径
+    * */
+    public List<String> getMainResourceFilePaths() {
+        List<String> filePathArray = new ArrayList<String>();
+        filePathArray.addAll(mainScanResult.legalImageFileArray);
+        filePathArray.addAll(mainScanResult.illegalImageFileArray);
+        filePathArray.addAll(mainScanResult.legalTextFileArray);
+        filePathArray.addAll(mainScanResult.illegalTextFileArray);
+        filePathArray.addAll(mainScanResult.illegalFontFileArray);
+        for (List<String> fontFileArray : mainScanResult.legalFontFileDict.values()) {
+            filePathArray.addAll(fontFileArray);
+        }
+        return filePathArray;
+    }
+}
@@ -0,0 +1,63 @@
+package com.flr.engine;
+
+import com.flr.command.util.FlrPubspecEditor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+* pubspec.yaml 解析、序列化和就地编辑的基准测试
+*
+* editChanged 编辑的配置在 flutter.assets 末尾新增了一个asset；editUnchanged 编辑的配置与原内容一致
+* */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@SuppressWarnings("unchecked")
+public class FlrYamlBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class YamlState {
+        public String pubspecContent;
+        public Map<String, Object> unchangedPubspecConfig;
+        public Map<String, Object> changedPubspecConfig;
+
+        @Setup(Level.Trial)
+        public void setUp(FlrWorkspaceState workspaceState) {
+            pubspecContent = workspaceState.mainPubspecContent;
+            unchangedPubspecConfig = workspaceState.loadMainPubspecConfig();
+
+            changedPubspecConfig = workspaceState.loadMainPubspecConfig();
+            Map<String, Object> flutterConfig = (Map<String, Object>)changedPubspecConfig.get("flutter");
+            List<String> assetArray = new ArrayList<String>((List<String>)flutterConfig.get("assets"));
+            assetArray.add("packages/" + workspaceState.mainPackageName + "/assets/images/added.png");
+            flutterConfig.put("assets", assetArray);
+        }
+    }
+
+    @Benchmark
+    public void load(YamlState state, Blackhole blackhole) {
+        for (Object obj : new Yaml().loadAll(state.pubspecContent)) {
+            blackhole.consume(obj);
+        }
+    }
+
+    @Benchmark
+    public String dump(YamlState state) {
+        return new Yaml(FlrPubspecEditor.createDumperOptions()).dump(state.unchangedPubspecConfig);
+    }
+
+    @Benchmark
+    public String editChanged(YamlState state) {
+        return FlrPubspecEditor.edit(state.pubspecContent, state.changedPubspecConfig);
+    }
+
+    @Benchmark
+    public String editUnchanged(YamlState state) {
+        return FlrPubspecEditor.edit(state.pubspecContent, state.unchangedPubspecConfig);
+    }
+}
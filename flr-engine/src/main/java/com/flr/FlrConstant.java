@@ -0,0 +1,101 @@
+package com.flr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class FlrConstant {
+
+    // 插件ID
+    public static String PLUGIN_ID = "com.fly-mix.flr";
+
+    // Flr的核心逻辑版本
+    public static String CORE_VERSION = "3.2.0";
+
+    // 插件对外展示的名称
+    public static String PLUGIN_DISPLAY_NAME = "Flr";
+
+    // Flr支持的非SVG类图片文件类型
+    public static List<String> NON_SVG_IMAGE_FILE_TYPES= Arrays.asList(".png", ".jpg", ".jpeg", ".gif", ".webp", ".icon", ".bmp", ".wbmp");
+    // Flr支持的SVG类图片文件类型
+    public static List<String> SVG_IMAGE_FILE_TYPES= Arrays.asList(".svg");
+    // Flr支持的图片文件类型
+    public static List<String> IMAGE_FILE_TYPES= new ArrayList<String>(){
+        {
+            addAll(NON_SVG_IMAGE_FILE_TYPES);
+            addAll(SVG_IMAGE_FILE_TYPES);
+        }
+    };
+    // Flr支持的文本文件类型
+    public static List<String> TEXT_FILE_TYPES= Arrays.asList(".txt", ".json", ".yaml", ".xml");
+    // Flr支持的字体文件类型
+    public static List<String> FONT_FILE_TYPES= Arrays.asList(".ttf", ".otf", ".ttc");
+
+    // Flr优先考虑的非SVG类图片文件类型
+    public static String PRIOR_NON_SVG_IMAGE_FILE_TYPE = ".png";
+    // Flr优先考虑的SVG类图片文件类型
+    public static String PRIOR_SVG_IMAGE_FILE_TYPE = ".svg";
+    // Flr优先考虑的文本文件类型
+    // 当前值为 ".*"， 意味所有文本文件类型的优先级都一样
+    public static String PRIOR_TEXT_FILE_TYPE = ".*";
+    // Flr优先考虑的字体文件类型
+    // 当前值为 ".*"， 意味所有文本文件类型的优先级都一样
+    public static String PRIOR_FONT_FILE_TYPE = ".*";
+
+    // 扫描资源目录时使用的最大并行线程数
+    // 当值小于等于1时，按顺序逐个扫描资源目录
+    public static int SCAN_PARALLELISM = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+
+    // 是否启用资源扫描索引（保存在 #{flutter_project_root_dir}/.dart_tool/flr/scan_index）
+    // 启用后，generate 只会重新扫描发生变化的资源目录
+    public static boolean SCAN_INDEX_ENABLED = true;
+
+    // generate 时并行处理flutter工程（主工程和子工程）的最大线程数
+    // 当值小于等于1时，按顺序逐个处理flutter工程
+    public static int GENERATE_PARALLELISM = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+
+    // 资源变化监控服务的静默期（毫秒）
+    // 资源变化事件到达后，需等待该时长内不再有新的事件，才会执行一次 generate 操作
+    public static long MONITOR_QUIET_WINDOW_MILLIS = 500L;
+
+    // dartfmt工具的默认行长
+    // 用于flr-cli，以及预格式化 r.g.dart
+    public static int DARTFMT_LINE_LENGTH = 80;
+
+    // 是否预格式化 r.g.dart，即直接按 DARTFMT_LINE_LENGTH 生成符合dartfmt格式的代码
+    // 启用后，若生成的代码符合dartfmt格式，则跳过对 r.g.dart 的格式化
+    // 生成代码与golden文件的一致性由 flr-engine 的golden测试（FlrCodeUtilGoldenTest）保证，
+    // golden文件是否符合dartfmt格式由CI（.github/workflows/flr-engine.yml）中的 dart format 检查保证；该检查通过之前，默认不启用
+    public static boolean PREFORMAT_R_DART_FILE_ENABLED = false;
+
+    // 是否在 generate 结束后，在 Flr ToolWindow 中输出各个工程各个步骤的耗时和计数的汇总表格
+    // 用于排查 generate 的性能问题，默认不启用；插件中可通过菜单“Tools-Flr-Profile Generate”对当前工程临时启用
+    public static boolean GENERATE_PROFILE_SUMMARY_ENABLED = false;
+
+    // 是否在 generate 结束后，把各个工程各个步骤的耗时和计数导出到 #{flutter_main_project_root_dir}/.dart_tool/flr 中：
+    // - generate_profile.json：JSON格式
+    // - generate_trace.json：Chrome Trace格式，可在 chrome://tracing 或者 https://ui.perfetto.dev 中打开
+    // 用于排查 generate 的性能问题，默认不启用；插件中可通过菜单“Tools-Flr-Profile Generate”对当前工程临时启用
+    public static boolean GENERATE_PROFILE_EXPORT_ENABLED = false;
+
+    // Flr ToolWindow 输出日志的批次间隔（毫秒），约为一帧的时长
+    // 日志先加入待输出队列，每隔该时长在UI线程中批量输出一次，并只滚动一次到末尾
+    public static long LOG_FLUSH_INTERVAL_MILLIS = 16L;
+
+    // Flr ToolWindow 每批最多输出的日志行数
+    // 剩余的日志留到下一批输出，避免单次占用UI线程过久
+    public static int LOG_FLUSH_MAX_LINES = 2000;
+
+    // Flr ToolWindow 中最多保留的日志行数和字符数
+    // 超过任一上限时，最早的已结束的运行（如资源变化监控服务触发的一次generate）会被折叠为一行摘要，直到保留的日志不超过上限的一半
+    public static int LOG_RETENTION_MAX_LINES = 20000;
+    public static long LOG_RETENTION_MAX_CHARS = 4L * 1024 * 1024;
+
+    // 是否把 Flr ToolWindow 输出的所有日志写入日志文件：#{flutter_main_project_root_dir}/.dart_tool/flr/logs/flr.log
+    // 被折叠的运行的完整日志可以在日志文件中查看
+    public static boolean LOG_FILE_ENABLED = true;
+
+    // 单个日志文件的最大字节数，以及最多保留的日志文件数量（flr.log、flr.log.1、……）
+    public static long LOG_FILE_MAX_BYTES = 5L * 1024 * 1024;
+    public static int LOG_FILE_MAX_COUNT = 3;
+}
@@ -0,0 +1,78 @@
+package com.flr.command.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+* assetId分配器
+*
+* 依次为asset分配assetId，分配结果与按相同顺序调用 FlrCodeUtil.generateAssetId（传入此前已分配的所有assetId）的结果完全一致，
+* 但使用哈希计数代替逐个比较和正则匹配，每次分配的耗时与已分配的assetId数量无关。
+*
+* 记录两类计数：
+* - usedAssetIdCountDict：每个已分配的assetId的使用次数；
+* - assetIdBrotherCountDict：每个assetId已分配的asset_id_brother（即 #{asset_id}$#{repeat_count}，repeat_count >= 1）的数量。
+*
+* === Examples
+* allocator = new FlrAssetIdAllocator(".png")
+* allocator.allocate("assets/images/test.png") => "test"
+* allocator.allocate("assets/icons/test.png") => "test$1"
+* allocator.allocate("assets/others/test.png") => "test$2"
+* */
+public class FlrAssetIdAllocator {
+
+    private final String priorAssetType;
+    private final Map<String, Integer> usedAssetIdCountDict = new HashMap<String, Integer>();
+    private final Map<String, Integer> assetIdBrotherCountDict = new HashMap<String, Integer>();
+
+    /*
+    * @param priorAssetType 优先的资产类型，参见 FlrCodeUtil.generateAssetId
+    * */
+    public FlrAssetIdAllocator(String priorAssetType) {
+        this.priorAssetType = priorAssetType;
+    }
+
+    /*
+    * 为asset分配assetId
+    * */
+    public String allocate(@NotNull String asset) {
+        String assetId = FlrCodeUtil.generateBaseAssetId(asset, priorAssetType);
+
+        // 处理 asset_id 重名的情况
+        if(usedAssetIdCountDict.containsKey(assetId)) {
+            // 当前asset_id重名次数，初始值为1，再加上已分配的asset_id_brother的数量
+            int repeatCount = 1;
+            // 与 generateAssetId 的正则匹配保持一致：asset_id 中的“$”在正则中被视为结尾锚点，因此不会匹配到任何asset_id_brother
+            if(assetId.indexOf('$') < 0) {
+                repeatCount += assetIdBrotherCountDict.getOrDefault(assetId, 0);
+            }
+            assetId = assetId + "$" + repeatCount;
+        }
+
+        markAssetIdUsed(assetId);
+        return assetId;
+    }
+
+    private void markAssetIdUsed(@NotNull String assetId) {
+        usedAssetIdCountDict.merge(assetId, 1, Integer::sum);
+
+        // 若assetId形如 #{asset_id}$#{repeat_count}（repeat_count 不以0开头），则记为 asset_id 的一个asset_id_brother
+        int dollarIndex = assetId.lastIndexOf('$');
+        if(dollarIndex <= 0 || dollarIndex == assetId.length() - 1) {
+            return;
+        }
+        if(assetId.charAt(dollarIndex + 1) == '0') {
+            return;
+        }
+        for (int i = dollarIndex + 1; i < assetId.length(); i++) {
+            char c = assetId.charAt(i);
+            if(c < '0' || c > '9') {
+                return;
+            }
+        }
+        String baseAssetId = assetId.substring(0, dollarIndex);
+        assetIdBrotherCountDict.merge(baseAssetId, 1, Integer::sum);
+    }
+}
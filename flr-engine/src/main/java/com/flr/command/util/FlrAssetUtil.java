@@ -1,14 +1,14 @@
 package com.flr.command.util;
 
 // import com.intellij.history.core.Paths;
-import com.intellij.openapi.vfs.LocalFileSystem;
-import com.intellij.openapi.vfs.VirtualFile;
+import com.flr.engine.FlrFileSystem;
+import com.flr.engine.FlrNioFileSystem;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
+import java.io.IOException;
 // import java.nio.file.Path;
 import java.util.*;
-import java.util.regex.Pattern;
 
 /*
 * 资产相关的工具类方法
@@ -27,22 +27,35 @@ public class FlrAssetUtil {
      *   倍率变体目录特征可使用此正则来判断：“^((0\.[0-9]+)|([1-9]+[0-9]*(\.[0-9]+)?))[x]$”；
      *   倍率变体目录名称示例：“0.5x”、“1.5x”、“2.0x”、“3.0x”，“2x”、“3x”；
      *
+     * 判断过程只依据资源文件路径，不需要访问文件系统
+     *
+     * === Examples
+     * legalResourceFilePath = "~/path/to/flutter_r_demo/lib/assets/images/3.0x/test.png"
+     * @return true
      * */
-    public static boolean isAssetVariant(@NotNull VirtualFile legalResourceFile) {
-        if(FlrFileUtil.isNonSvgImageResourceFile(legalResourceFile)) {
-            VirtualFile parentDirFile =  legalResourceFile.getParent();
-            String parentDirName = parentDirFile.getName();
-
-            String ratioRegex = "^((0\\.[0-9]+)|([1-9]+[0-9]*(\\.[0-9]+)?))[x]$";
-            Pattern pattern = Pattern.compile(ratioRegex);
-            if(pattern.matcher(parentDirName).matches()) {
-                return true;
-            }
+    public static boolean isAssetVariant(@NotNull String legalResourceFilePath) {
+        if(FlrResourceClassifier.getFileType(legalResourceFilePath) == FlrResourceClassifier.FileType.nonSvgImage) {
+            return FlrResourceClassifier.isInRatioDir(legalResourceFilePath);
         }
 
         return false;
     }
 
+    /*
+     * 获取路径的父路径
+     *
+     * === Examples
+     * path = "~/path/to/flutter_r_demo/lib/assets/images/3.0x/test.png"
+     * parentPath = "~/path/to/flutter_r_demo/lib/assets/images/3.0x"
+     * */
+    private static String getParentPath(@NotNull String path) {
+        int lastIndexOf = path.lastIndexOf("/");
+        if(lastIndexOf == -1) {
+            return "";
+        }
+        return path.substring(0, lastIndexOf);
+    }
+
     /*
     * 判断当前资产是不是图片类资产
     *
@@ -58,8 +71,8 @@ public class FlrAssetUtil {
     *
     * */
     public static boolean isImageAsset(@NotNull String asset) {
-        File file = new File(asset);
-        if(FlrFileUtil.isImageResourceFile(file)) {
+        FlrResourceClassifier.FileType fileType = FlrResourceClassifier.getFileType(asset);
+        if(fileType == FlrResourceClassifier.FileType.nonSvgImage || fileType == FlrResourceClassifier.FileType.svgImage) {
             return true;
         }
 
@@ -168,6 +181,16 @@ public class FlrAssetUtil {
      *
      * */
     public static boolean isAssetExisted(@NotNull String flutterProjectDir, @NotNull String packageName, @NotNull String asset) {
+        return isAssetExisted(flutterProjectDir, packageName, asset, FlrNioFileSystem.getInstance(), new HashMap<String, Set<String>>());
+    }
+
+    /*
+     * 同 isAssetExisted(String, String, String)，但通过 variantFileNameSetDict 复用已列举过的资源目录的变体资源文件名集合，
+     * 判断同一资源目录中的多个asset时，该资源目录只需列举一次
+     *
+     * @param variantFileNameSetDict 资源目录 -> 该目录的变体资源文件名集合，参见 getVariantFileNameSet
+     * */
+    private static boolean isAssetExisted(@NotNull String flutterProjectDir, @NotNull String packageName, @NotNull String asset, @NotNull FlrFileSystem fileSystem, @NotNull Map<String, Set<String>> variantFileNameSetDict) {
         // 处理指定flutter工程的asset
         // 1. 获取asset对应的main_resource_file
         // 2. 若main_resource_file是非SVG类图片资源文件，判断asset是否存在的标准是：主资源文件或者至少一个变体资源文件存在
@@ -175,52 +198,56 @@ public class FlrAssetUtil {
         //
 
         File mainResourceFile = getMainResourceFile(flutterProjectDir, packageName, asset);
-        if(FlrFileUtil.isNonSvgImageResourceFile(mainResourceFile)) {
-            if(mainResourceFile.exists()) {
-                return true;
-            }
+        if(fileSystem.exists(mainResourceFile.getPath())) {
+            return true;
+        }
 
+        if(FlrResourceClassifier.getFileType(mainResourceFile.getPath()) == FlrResourceClassifier.FileType.nonSvgImage) {
             String fileBaseName = mainResourceFile.getName();
             String fileDir = mainResourceFile.getParent();
-            boolean didFindVariantResourceFile = false;
-            File resourceDirFile = new File(fileDir);
-
-            VirtualFile resourceDirVirtualFile = LocalFileSystem.getInstance().findFileByIoFile(resourceDirFile);
-            if(resourceDirVirtualFile == null) {
-                return false;
+            Set<String> variantFileNameSet = variantFileNameSetDict.computeIfAbsent(fileDir, resourceDir -> getVariantFileNameSet(resourceDir, fileSystem));
+            if(variantFileNameSet.contains(fileBaseName)) {
+                return true;
             }
-            VirtualFile[] resourceDirChildren = resourceDirVirtualFile.getChildren();
-            for(VirtualFile resourceDirChild: resourceDirChildren) {
-                if(resourceDirChild.isDirectory()) {
-                    VirtualFile[] subResourceDirChildren = resourceDirChild.getChildren();
-                    for (VirtualFile subResourceDirChild: subResourceDirChildren) {
-                        if(subResourceDirChild.isDirectory()) {
-                            continue;
-                        }
-
-                        if(!isAssetVariant(subResourceDirChild)) {
-                            continue;
-                        }
-
-                        String variantResourceFileBaseName = subResourceDirChild.getName();
-                        if(fileBaseName.equals(variantResourceFileBaseName)) {
-                            didFindVariantResourceFile = true;
-                        }
-                    }
+        }
+
+        return false;
+    }
+
+    /*
+     * 获取资源目录的变体资源文件名集合：列举资源目录的所有子目录，收集其中属于资产变体的资源文件的文件名
+     *
+     * === Examples
+     * resource_dir = "~/path/to/flutter_r_demo/lib/assets/images"
+     * resource_files = ["lib/assets/images/test.png", "lib/assets/images/2.0x/test.png", "lib/assets/images/3.0x/test.png", "lib/assets/images/3.0x/hot.png"]
+     * variant_file_name_set = ["test.png", "hot.png"]
+     * */
+    private static Set<String> getVariantFileNameSet(@NotNull String resourceDir, @NotNull FlrFileSystem fileSystem) {
+        Set<String> variantFileNameSet = new HashSet<String>();
+
+        try {
+            for(String resourceDirChildName: fileSystem.listChildNames(resourceDir)) {
+                String resourceDirChild = resourceDir + "/" + resourceDirChildName;
+                if(fileSystem.isDirectory(resourceDirChild) == false || FlrResourceClassifier.isRatioDirName(resourceDirChildName) == false) {
+                    continue;
                 }
-            }
 
-            if(didFindVariantResourceFile) {
-                return true;
-            }
+                for (String subResourceDirChildName: fileSystem.listChildNames(resourceDirChild)) {
+                    if(FlrResourceClassifier.getFileType(subResourceDirChildName) != FlrResourceClassifier.FileType.nonSvgImage) {
+                        continue;
+                    }
+                    if(fileSystem.isDirectory(resourceDirChild + "/" + subResourceDirChildName)) {
+                        continue;
+                    }
 
-        } else {
-            if(mainResourceFile.exists()) {
-                return true;
+                    variantFileNameSet.add(subResourceDirChildName);
+                }
             }
+        } catch (IOException e) {
+            e.printStackTrace();
         }
 
-        return false;
+        return variantFileNameSet;
     }
 
     /*
@@ -255,19 +282,18 @@ public class FlrAssetUtil {
      * mainAsset = "assets/images/test.png"
      *
      * */
-    public static String generateMainAsset(@NotNull String flutterProjectDir, @NotNull String packageName, @NotNull VirtualFile legalResourceFile) {
+    public static String generateMainAsset(@NotNull String flutterProjectDir, @NotNull String packageName, @NotNull String legalResourceFilePath) {
         // legalResourceFile:  ~/path/to/flutter_r_demo/lib/assets/images/3.0x/test.png
         // to get mainResourceFile:  ~/path/to/flutter_r_demo/lib/assets/images/test.png
-        String mainResourceFile = legalResourceFile.getPath();
-        if(isAssetVariant(legalResourceFile)) {
-            // test.png
-            String fileBasename = legalResourceFile.getName();
+        String mainResourceFile = legalResourceFilePath;
+        if(isAssetVariant(legalResourceFilePath)) {
             // ~/path/to/flutter_r_demo/lib/assets/images/3.0x
-            VirtualFile parentDirVirtualFile =  legalResourceFile.getParent();
+            String parentDir = getParentPath(legalResourceFilePath);
+            // test.png
+            String fileBasename = legalResourceFilePath.substring(parentDir.length() + 1);
 
             //to get mainResourceFileDir: ~/path/to/flutter_r_demo/lib/assets/images
-            VirtualFile mainResourceFileDirVirtualFile =  parentDirVirtualFile.getParent();
-            String mainResourceFileDir = mainResourceFileDirVirtualFile.getPath();
+            String mainResourceFileDir = getParentPath(parentDir);
 
             // ~/path/to/flutter_r_demo/lib/assets/images/test.png
             mainResourceFile = String.format("%s/%s",mainResourceFileDir,fileBasename);
@@ -307,11 +333,11 @@ public class FlrAssetUtil {
     /*
     * 遍历指定资源目录下扫描找到的legalImageFile数组生成imageAsset数组
     * */
-    public static List<String> generateImageAssets(@NotNull String flutterProjectDir, @NotNull String packageName, @NotNull List<VirtualFile> legalImageFileArray) {
+    public static List<String> generateImageAssets(@NotNull String flutterProjectDir, @NotNull String packageName, @NotNull List<String> legalImageFileArray) {
         Set<String> imageAssetSet = new LinkedHashSet<String>();
 
-        for (VirtualFile imageVirtualFile : legalImageFileArray) {
-            String imageAsset = generateMainAsset(flutterProjectDir, packageName, imageVirtualFile);
+        for (String imageFile : legalImageFileArray) {
+            String imageAsset = generateMainAsset(flutterProjectDir, packageName, imageFile);
             imageAssetSet.add(imageAsset);
         }
 
@@ -322,11 +348,11 @@ public class FlrAssetUtil {
     /*
      * 遍历指定资源目录下扫描找到的legalTextFile数组生成textAsset数组
      * */
-    public static List<String> generateTextAssets(@NotNull String flutterProjectDir, @NotNull String packageName, @NotNull List<VirtualFile> legalTextFileArray) {
+    public static List<String> generateTextAssets(@NotNull String flutterProjectDir, @NotNull String packageName, @NotNull List<String> legalTextFileArray) {
         Set<String> textAssetSet = new LinkedHashSet<String>();
 
-        for (VirtualFile textVirtualFile : legalTextFileArray) {
-            String textAsset = generateMainAsset(flutterProjectDir, packageName, textVirtualFile);
+        for (String textFile : legalTextFileArray) {
+            String textAsset = generateMainAsset(flutterProjectDir, packageName, textFile);
             textAssetSet.add(textAsset);
         }
 
@@ -339,11 +365,11 @@ public class FlrAssetUtil {
     *
     * fontAssetConfig = {"asset": "packages/flutter_r_demo/assets/fonts/Amiri/Amiri-Regular.ttf"}
     * */
-    public static List<Map> generateFontAssetConfigs(@NotNull String flutterProjectDir, @NotNull String packageName, @NotNull List<VirtualFile> legalFontFileArray) {
+    public static List<Map> generateFontAssetConfigs(@NotNull String flutterProjectDir, @NotNull String packageName, @NotNull List<String> legalFontFileArray) {
         List<Map> fontAssetConfigArray = new ArrayList<Map>();
 
-        for (VirtualFile fontVirtualFile : legalFontFileArray) {
-            String fontAsset = generateMainAsset(flutterProjectDir, packageName, fontVirtualFile);
+        for (String fontFile : legalFontFileArray) {
+            String fontAsset = generateMainAsset(flutterProjectDir, packageName, fontFile);
 
             Map<String, String> fontAssetConfig = new LinkedHashMap<String, String>();
             fontAssetConfig.put("asset", fontAsset);
@@ -361,6 +387,9 @@ public class FlrAssetUtil {
      * - 按照字典序对legal_old_asset_array进行排序，并追加到new_asset_array
      * - 返回合并结果merged_asset_array
      *
+     * 使用哈希集合计算差异集合；判断asset是否存在时，每个资源目录的变体资源文件只列举一次。
+     * 不会修改 old_asset_array；合并结果直接追加到 new_asset_array 中
+     *
      * === Examples
      * flutter_project_dir = "~/path/to/flutter_r_demo"
      * package_name = "flutter_r_demo"
@@ -370,11 +399,22 @@ public class FlrAssetUtil {
      *
      *  */
     public static List<String> mergeFlutterAssets(@NotNull String flutterProjectDir, @NotNull String packageName, @NotNull List<String> newAssetArray,  @NotNull List<String> oldAssetArray) {
+        return mergeFlutterAssets(flutterProjectDir, packageName, newAssetArray, oldAssetArray, FlrNioFileSystem.getInstance());
+    }
+
+    /*
+     * 同 mergeFlutterAssets(String, String, List, List)，但通过 fileSystem 判断asset是否存在
+     * */
+    public static List<String> mergeFlutterAssets(@NotNull String flutterProjectDir, @NotNull String packageName, @NotNull List<String> newAssetArray,  @NotNull List<String> oldAssetArray, @NotNull FlrFileSystem fileSystem) {
         List<String> legalOldAssetArray = new ArrayList<>();
 
-        List<String> diffAssetArray = oldAssetArray;
-        diffAssetArray.removeAll(newAssetArray);
-        for(String asset: diffAssetArray) {
+        Set<String> newAssetSet = new HashSet<String>(newAssetArray);
+        Map<String, Set<String>> variantFileNameSetDict = new HashMap<String, Set<String>>();
+        for(String asset: oldAssetArray) {
+            if(newAssetSet.contains(asset)) {
+                continue;
+            }
+
             // 若是第三方package的资源，newAssetArray
             // 引用第三方package的资源的推荐做法是：通过引用第三方package的R类来访问
             if(isPackageAsset(asset)) {
@@ -388,7 +428,7 @@ public class FlrAssetUtil {
             // 1. 判断asset是否存在
             // 2. 若asset存在，则合并到new_asset_array
             //
-            if(isAssetExisted(flutterProjectDir, packageName, asset)) {
+            if(isAssetExisted(flutterProjectDir, packageName, asset, fileSystem, variantFileNameSetDict)) {
                 legalOldAssetArray.add(asset);
             }
         }
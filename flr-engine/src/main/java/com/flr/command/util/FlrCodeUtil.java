@@ -0,0 +1,998 @@
+package com.flr.command.util;
+
+import com.flr.FlrConstant;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/*
+* 代码生成相关的工具类方法
+* */
+public class FlrCodeUtil {
+    /*
+    * 根据模板生成 R class 的代码
+    * */
+    public static String generate_R_class(@NotNull String packageName) {
+        String code = String.format("// IT IS GENERATED BY FLR - DO NOT MODIFY BY HAND\n" +
+                "// YOU CAN GET MORE DETAILS ABOUT FLR FROM:\n" +
+                "// - https://github.com/Fly-Mix/flr-cli\n" +
+                "// - https://github.com/Fly-Mix/flr-vscode-extension\n" +
+                "// - https://github.com/Fly-Mix/flr-as-plugin\n" +
+                "//\n" +
+                "\n" +
+                "// ignore: unused_import\n" +
+                "import 'package:flutter/widgets.dart';\n" +
+                "// ignore: unused_import\n" +
+                "import 'package:flutter/services.dart' show rootBundle;\n" +
+                "// ignore: unused_import\n" +
+                "import 'package:path/path.dart' as path;\n" +
+                "// ignore: unused_import\n" +
+                "import 'package:flutter_svg/flutter_svg.dart';\n" +
+                "// ignore: unused_import\n" +
+                "import 'package:r_dart_library/asset_svg.dart';\n" +
+                "\n" +
+                "/// This `R` class is generated and contains references to static asset resources.\n" +
+                "class R {\n" +
+                "  /// package name: %s\n" +
+                "  static const package = \"%s\";\n" +
+                "\n" +
+                "  /// This `R.image` struct is generated, and contains static references to static non-svg type image asset resources.\n" +
+                "  static const image = _R_Image();\n" +
+                "\n" +
+                "  /// This `R.svg` struct is generated, and contains static references to static svg type image asset resources.\n" +
+                "  static const svg = _R_Svg();\n" +
+                "\n" +
+                "  /// This `R.text` struct is generated, and contains static references to static text asset resources.\n" +
+                "  static const text = _R_Text();\n" +
+                "\n" +
+                "  /// This `R.fontFamily` struct is generated, and contains static references to static font asset resources.\n" +
+                "  static const fontFamily = _R_FontFamily();\n" +
+                "}",
+                packageName,
+                packageName);
+
+        return code;
+    }
+
+    /*
+    * 根据模板生成 AssetResource class 的代码
+    * */
+    public static String generate_AssetResource_class(@NotNull String packageName, @NotNull boolean shouldSupportNullsafety) {
+        return generate_AssetResource_class(packageName, shouldSupportNullsafety, 0);
+    }
+
+    /*
+    * 根据模板生成 AssetResource class 的代码；
+    * 若 dartfmtLineLength > 0，则按该行长生成符合dartfmt格式的代码，参见 isPreformattedCode
+    * */
+    public static String generate_AssetResource_class(@NotNull String packageName, @NotNull boolean shouldSupportNullsafety, int dartfmtLineLength) {
+        String keyNameGetterCode = "  String get keyName => packageName == null ? assetName : \"packages/$packageName/$assetName\";\n";
+        if(isLongerThanLineLength(keyNameGetterCode, dartfmtLineLength)) {
+            keyNameGetterCode = "  String get keyName =>\n" +
+                    "      packageName == null ? assetName : \"packages/$packageName/$assetName\";\n";
+        }
+
+        String assertConstructorCode = "  const AssetResource(this.assetName, {this.packageName}) : assert(assetName != null);\n";
+        if(isLongerThanLineLength(assertConstructorCode, dartfmtLineLength)) {
+            assertConstructorCode = "  const AssetResource(this.assetName, {this.packageName})\n" +
+                    "      : assert(assetName != null);\n";
+        }
+
+        String code = "/// Asset resource’s metadata class.\n" +
+                "/// For example, here is the metadata of `packages/flutter_demo/assets/images/example.png` asset:\n" +
+                "/// - packageName：flutter_demo\n" +
+                "/// - assetName：assets/images/example.png\n" +
+                "/// - fileDirname：assets/images\n" +
+                "/// - fileBasename：example.png\n" +
+                "/// - fileBasenameNoExtension：example\n" +
+                "/// - fileExtname：.png\n";
+        if (shouldSupportNullsafety) {
+            code += "class AssetResource {\n" +
+                    "  /// Creates an object to hold the asset resource’s metadata.\n" +
+                    "  const AssetResource(this.assetName, {this.packageName});\n" +
+                    "\n" +
+                    "  /// The name of the main asset from the set of asset resources to choose from.\n" +
+                    "  final String assetName;\n" +
+                    "\n" +
+                    "  /// The name of the package from which the asset resource is included.\n" +
+                    "  final String? packageName;\n" +
+                    "\n" +
+                    "  /// The name used to generate the key to obtain the asset resource. For local assets\n" +
+                    "  /// this is [assetName], and for assets from packages the [assetName] is\n" +
+                    "  /// prefixed 'packages/<package_name>/'.\n" +
+                    keyNameGetterCode +
+                    "\n" +
+                    "  /// The file basename of the asset resource.\n" +
+                    "  String get fileBasename {\n" +
+                    "    final basename = path.basename(assetName);\n" +
+                    "    return basename;\n" +
+                    "  }\n" +
+                    "\n" +
+                    "  /// The no extension file basename of the asset resource.\n" +
+                    "  String get fileBasenameNoExtension {\n" +
+                    "    final basenameWithoutExtension = path.basenameWithoutExtension(assetName);\n" +
+                    "    return basenameWithoutExtension;\n" +
+                    "  }\n" +
+                    "\n" +
+                    "  /// The file extension name of the asset resource.\n" +
+                    "  String get fileExtname {\n" +
+                    "    final extension = path.extension(assetName);\n" +
+                    "    return extension;\n" +
+                    "  }\n" +
+                    "\n" +
+                    "  /// The directory path name of the asset resource.\n" +
+                    "  String get fileDirname {\n" +
+                    "    var dirname = assetName;\n" +
+                    "    if (packageName != null) {\n" +
+                    "      final packageStr = \"packages/$packageName/\";\n" +
+                    "      dirname = dirname.replaceAll(packageStr, \"\");\n" +
+                    "    }\n" +
+                    "    final filenameStr = \"$fileBasename/\";\n" +
+                    "    dirname = dirname.replaceAll(filenameStr, \"\");\n" +
+                    "    return dirname;\n" +
+                    "  }\n" +
+                    "}";
+        } else {
+            code += "class AssetResource {\n" +
+                    "  /// Creates an object to hold the asset resource’s metadata.\n" +
+                    assertConstructorCode +
+                    "\n" +
+                    "  /// The name of the main asset from the set of asset resources to choose from.\n" +
+                    "  final String assetName;\n" +
+                    "\n" +
+                    "  /// The name of the package from which the asset resource is included.\n" +
+                    "  final String packageName;\n" +
+                    "\n" +
+                    "  /// The name used to generate the key to obtain the asset resource. For local assets\n" +
+                    "  /// this is [assetName], and for assets from packages the [assetName] is\n" +
+                    "  /// prefixed 'packages/<package_name>/'.\n" +
+                    keyNameGetterCode +
+                    "\n" +
+                    "  /// The file basename of the asset resource.\n" +
+                    "  String get fileBasename {\n" +
+                    "    final basename = path.basename(assetName);\n" +
+                    "    return basename;\n" +
+                    "  }\n" +
+                    "\n" +
+                    "  /// The no extension file basename of the asset resource.\n" +
+                    "  String get fileBasenameNoExtension {\n" +
+                    "    final basenameWithoutExtension = path.basenameWithoutExtension(assetName);\n" +
+                    "    return basenameWithoutExtension;\n" +
+                    "  }\n" +
+                    "\n" +
+                    "  /// The file extension name of the asset resource.\n" +
+                    "  String get fileExtname {\n" +
+                    "    final extension = path.extension(assetName);\n" +
+                    "    return extension;\n" +
+                    "  }\n" +
+                    "\n" +
+                    "  /// The directory path name of the asset resource.\n" +
+                    "  String get fileDirname {\n" +
+                    "    var dirname = assetName;\n" +
+                    "    if (packageName != null) {\n" +
+                    "      final packageStr = \"packages/$packageName/\";\n" +
+                    "      dirname = dirname.replaceAll(packageStr, \"\");\n" +
+                    "    }\n" +
+                    "    final filenameStr = \"$fileBasename/\";\n" +
+                    "    dirname = dirname.replaceAll(filenameStr, \"\");\n" +
+                    "    return dirname;\n" +
+                    "  }\n" +
+                    "}";
+        }
+
+        return code;
+    }
+
+    /*
+     * 为asset生成assetId；其中priorAssetType为优先的资产类型，其决定了当前asset的assetId是否带有资产类型信息。
+     * 如priorAssetType为".png"，
+     * 这时候若asset为“packages/flutter_demo/assets/images/test.png”，这时其生成assetId为“test”，不带有类型信息；
+     * 这时候若asset为“packages/flutter_demo/assets/images/test.jpg”，这时其生成assetId为“test_jpg”，带有类型信息；
+     *
+     * @param asset 指定的资产
+     * @param usedAssetIdArray 已使用的assetId数组
+     * @param priorAssetType 优先的资产类型，默认值为null，代表“.*”，意味生成的assetId总是带有资产类型信息
+     * @return assetId 资产ID
+     * */
+    public static String generateAssetId(@NotNull String asset, List<String> usedAssetIdArray, String priorAssetType) {
+        String assetId = generateBaseAssetId(asset, priorAssetType);
+
+        // 处理 asset_id 重名的情况
+        if(usedAssetIdArray != null
+                && usedAssetIdArray.isEmpty() == false
+                && usedAssetIdArray.contains(assetId)) {
+            // 当前asset_id重名次数，初始值为1
+            int repeatCount = 1;
+
+            // 查找当前asset_id衍生出来的asset_id_brother（id兄弟）
+            // asset_id_brother = #{asset_id}$#{repeat_count}
+            // 其中，repeat_count >= 1
+            //
+            // Example：
+            // asset_id = test
+            // asset_id_brother = test$1
+            //
+
+            String idBrotherRegex = String.format("^%s\\$[1-9][0-9]*$", assetId);
+            Pattern pattern = Pattern.compile(idBrotherRegex);
+            List<String> curAssetIdBrothers = usedAssetIdArray.stream().filter(pattern.asPredicate()).collect(Collectors.toList());
+
+            if(curAssetIdBrothers != null && curAssetIdBrothers.isEmpty() == false) {
+                repeatCount += curAssetIdBrothers.size();
+            }
+
+            assetId = String.format("%s$%d",assetId, repeatCount);
+        }
+
+        return assetId;
+    }
+
+    /*
+     * 为asset生成不考虑重名情况的assetId（即 generateAssetId 在处理重名之前的assetId）
+     *
+     * @param asset 指定的资产
+     * @param priorAssetType 优先的资产类型，默认值为null，代表“.*”，意味生成的assetId总是带有资产类型信息
+     * @return assetId 资产ID
+     * */
+    public static String generateBaseAssetId(@NotNull String asset, String priorAssetType) {
+        String fileBasename = new File(asset).getName();
+        int lastIndexOf = fileBasename.lastIndexOf(".");
+        String fileExtName = (lastIndexOf == -1) ? "" : fileBasename.substring(lastIndexOf).toLowerCase();
+        String fileBasenameWithoutExtension = (lastIndexOf == -1) ? fileBasename : fileBasename.substring(0, lastIndexOf);
+
+        String assetId = fileBasenameWithoutExtension;
+        if(priorAssetType == null || priorAssetType.equals(fileExtName) == false) {
+            String extInfo = "_" + fileExtName.substring(1);
+            assetId = fileBasenameWithoutExtension + extInfo;
+        }
+
+        // 过滤非法字符
+        assetId = assetId.replaceAll("[^a-zA-Z0-9_$]", "_");
+
+        // 检测首字符是不是字母；
+        // 若是字母，则检测其是不是大写字母，若是，则转换为小写字母；
+        // 若不是字母，则添加一个前缀字母“a”
+        Character firstChar = assetId.charAt(0);
+        if(Character.isLetter(firstChar)) {
+            if(Character.isUpperCase(firstChar)) {
+                String firstCharStr = firstChar.toString().toLowerCase();
+                assetId = firstCharStr + assetId.substring(1);
+            }
+        } else {
+            String firstCharStr = "a";
+            assetId = firstCharStr + assetId;
+        }
+
+        return assetId;
+    }
+
+    /*
+     * 为当前asset生成注释
+     *
+     * === Examples
+     * packageName = "flutter_r_demo"
+     *
+     * === Example-1
+     * asset = "packages/flutter_r_demo/assets/images/test.png"
+     * assetComment = "asset: lib/assets/images/test.png"
+     *
+     * === Example-2
+     * asset = "assets/images/test.png"
+     * assetComment = "asset: assets/images/test.png"
+     *
+     * */
+    public static String generateAssetComment(@NotNull String asset,@NotNull String packageName) {
+        String packagesPrefix = "packages/" + packageName + "/";
+
+        if(asset.startsWith(packagesPrefix)) {
+            // asset: packages/flutter_r_demo/assets/images/test.png
+            // to get assetName: assets/images/test.png
+            String assetName = asset.replaceFirst(packagesPrefix, "");
+
+            String assetComment = "asset: lib/" + assetName;
+            return assetComment;
+        } else {
+            // asset: assets/images/test.png
+            // to get assetName: assets/images/test.png
+            String assetName = asset;
+
+            String assetComment = "asset: " + assetName;
+            return assetComment;
+        }
+    }
+
+    /*
+    * 为当前 asset 生成 AssetResource property 的代码
+    * */
+    public static String generate_AssetResource_property(@NotNull String asset, @NotNull  Map<String, String> assetIdDict, @NotNull String packageName, boolean isPackageProjectType, String priorAssetType) {
+        return generate_AssetResource_property(asset, assetIdDict, packageName, isPackageProjectType, priorAssetType, 0);
+    }
+
+    /*
+    * 为当前 asset 生成 AssetResource property 的代码；
+    * 若 dartfmtLineLength > 0，则按该行长生成符合dartfmt格式的代码，参见 isPreformattedCode
+    * */
+    public static String generate_AssetResource_property(@NotNull String asset, @NotNull  Map<String, String> assetIdDict, @NotNull String packageName, boolean isPackageProjectType, String priorAssetType, int dartfmtLineLength) {
+        String assetId = assetIdDict.get(asset);
+        String assetComment = generateAssetComment(asset, packageName);
+
+        String assetName = "";
+        boolean needPackage = false;
+
+        String packagesPrefix = "packages/" + packageName + "/";
+        if(asset.startsWith(packagesPrefix)) {
+            // asset: packages/flutter_r_demo/assets/images/test.png
+            // to get assetName: assets/images/test.png
+            assetName = asset.replaceFirst(packagesPrefix, "");;
+            needPackage = true;
+        } else {
+            // asset: assets/images/test.png
+            // to get assetName: assets/images/test.png
+            assetName = asset;
+
+            if (isPackageProjectType) {
+                needPackage = true;
+            } else {
+                needPackage = false;
+            }
+        }
+
+        // 对字符串中的 '$' 进行转义处理：'$' -> '\$'
+        // assetName: assets/images/test$.png
+        // to get escapedAssetName: assets/images/test\$.png
+        String escapedAssetName = assetName.replace("$", "\\$");
+
+        String packageNameArg = needPackage ? "R.package" : "null";
+
+        String propertyCode = String.format("  final %s = const AssetResource(\"%s\", packageName: %s);",
+                assetId,
+                escapedAssetName,
+                packageNameArg);
+        if(isLongerThanLineLength(propertyCode, dartfmtLineLength)) {
+            propertyCode = String.format("  final %s = const AssetResource(\n" +
+                            "    \"%s\",\n" +
+                            "    packageName: %s,\n" +
+                            "  );",
+                    assetId,
+                    escapedAssetName,
+                    packageNameArg);
+        }
+
+        String code = String.format("  /// %s\n" +
+                        "  // ignore: non_constant_identifier_names\n" +
+                        "%s",
+                assetComment,
+                propertyCode);
+
+        return code;
+    }
+
+    /*
+    * 根据模板，为 nonSvgImageAssetArray（非svg类的图片资产数组）生成 _R_Image_AssetResource class 的代码
+    * */
+    public static String generate__R_Image_AssetResource_class(@NotNull List<String> nonSvgImageAssetArray, @NotNull Map<String, String> nonSvgImageAssetIdDict, @NotNull String packageName, boolean isPackageProjectType) {
+        StringBuilder code = new StringBuilder();
+        append__R_Image_AssetResource_class(code, nonSvgImageAssetArray, nonSvgImageAssetIdDict, packageName, isPackageProjectType, 0);
+        return code.toString();
+    }
+
+    /*
+    * 根据模板，为 nonSvgImageAssetArray（非svg类的图片资产数组）生成 _R_Image_AssetResource class 的代码，并追加到 code 中；
+    * 若 dartfmtLineLength > 0，则按该行长生成符合dartfmt格式的代码，参见 isPreformattedCode
+    * */
+    public static void append__R_Image_AssetResource_class(@NotNull StringBuilder code, @NotNull List<String> nonSvgImageAssetArray, @NotNull Map<String, String> nonSvgImageAssetIdDict, @NotNull String packageName, boolean isPackageProjectType, int dartfmtLineLength) {
+        code.append("// ignore: camel_case_types\n" +
+                "class _R_Image_AssetResource {\n" +
+                "  const _R_Image_AssetResource();\n");
+
+        for (String asset : nonSvgImageAssetArray) {
+            code.append("\n");
+            String g_AssetResource_property_code = generate_AssetResource_property(asset, nonSvgImageAssetIdDict, packageName, isPackageProjectType, FlrConstant.PRIOR_NON_SVG_IMAGE_FILE_TYPE, dartfmtLineLength);
+            code.append(g_AssetResource_property_code);
+        }
+
+        appendClassEnd(code, nonSvgImageAssetArray.isEmpty(), dartfmtLineLength);
+    }
+
+    /*
+     * 根据模板，为 svgImageAssetArray（svg类的图片资产数组）生成 _R_Svg_AssetResource class 的代码
+     * */
+    public static String generate__R_Svg_AssetResource_class(@NotNull List<String> svgImageAssetArray, @NotNull Map<String, String> svgImageAssetIdDict, @NotNull String packageName, boolean isPackageProjectType) {
+        StringBuilder code = new StringBuilder();
+        append__R_Svg_AssetResource_class(code, svgImageAssetArray, svgImageAssetIdDict, packageName, isPackageProjectType, 0);
+        return code.toString();
+    }
+
+    /*
+     * 根据模板，为 svgImageAssetArray（svg类的图片资产数组）生成 _R_Svg_AssetResource class 的代码，并追加到 code 中；
+     * 若 dartfmtLineLength > 0，则按该行长生成符合dartfmt格式的代码，参见 isPreformattedCode
+     * */
+    public static void append__R_Svg_AssetResource_class(@NotNull StringBuilder code, @NotNull List<String> svgImageAssetArray, @NotNull Map<String, String> svgImageAssetIdDict, @NotNull String packageName, boolean isPackageProjectType, int dartfmtLineLength) {
+        code.append("// ignore: camel_case_types\n" +
+                "class _R_Svg_AssetResource {\n" +
+                "  const _R_Svg_AssetResource();\n");
+
+        for (String asset : svgImageAssetArray) {
+            code.append("\n");
+            String g_AssetResource_property_code = generate_AssetResource_property(asset, svgImageAssetIdDict, packageName, isPackageProjectType, FlrConstant.PRIOR_SVG_IMAGE_FILE_TYPE, dartfmtLineLength);
+            code.append(g_AssetResource_property_code);
+        }
+
+        appendClassEnd(code, svgImageAssetArray.isEmpty(), dartfmtLineLength);
+    }
+
+    /*
+     * 根据模板，为 textAssetArray（文本资产数组）生成 _R_Text_AssetResource class 的代码
+     * */
+    public static String generate__R_Text_AssetResource_class(@NotNull List<String> textAssetArray, @NotNull Map<String, String> textAssetIdDict, @NotNull String packageName, boolean isPackageProjectType) {
+        StringBuilder code = new StringBuilder();
+        append__R_Text_AssetResource_class(code, textAssetArray, textAssetIdDict, packageName, isPackageProjectType, 0);
+        return code.toString();
+    }
+
+    /*
+     * 根据模板，为 textAssetArray（文本资产数组）生成 _R_Text_AssetResource class 的代码，并追加到 code 中；
+     * 若 dartfmtLineLength > 0，则按该行长生成符合dartfmt格式的代码，参见 isPreformattedCode
+     * */
+    public static void append__R_Text_AssetResource_class(@NotNull StringBuilder code, @NotNull List<String> textAssetArray, @NotNull Map<String, String> textAssetIdDict, @NotNull String packageName, boolean isPackageProjectType, int dartfmtLineLength) {
+        code.append("// ignore: camel_case_types\n" +
+                "class _R_Text_AssetResource {\n" +
+                "  const _R_Text_AssetResource();\n");
+
+        for (String asset : textAssetArray) {
+            code.append("\n");
+            String g_AssetResource_property_code = generate_AssetResource_property(asset, textAssetIdDict, packageName, isPackageProjectType, FlrConstant.PRIOR_TEXT_FILE_TYPE, dartfmtLineLength);
+            code.append(g_AssetResource_property_code);
+        }
+
+        appendClassEnd(code, textAssetArray.isEmpty(), dartfmtLineLength);
+    }
+
+    /*
+     * 根据模板，为 nonSvgImageAssetArray（非svg类的图片资产数组）生成 _R_Image class 的代码
+     * */
+    public static String generate__R_Image_class(@NotNull List<String> nonSvgImageAssetArray, @NotNull Map<String, String> nonSvgImageAssetIdDict, @NotNull String packageName) {
+        StringBuilder code = new StringBuilder();
+        append__R_Image_class(code, nonSvgImageAssetArray, nonSvgImageAssetIdDict, packageName, 0);
+        return code.toString();
+    }
+
+    /*
+     * 根据模板，为 nonSvgImageAssetArray（非svg类的图片资产数组）生成 _R_Image class 的代码，并追加到 code 中；
+     * 若 dartfmtLineLength > 0，则按该行长生成符合dartfmt格式的代码，参见 isPreformattedCode
+     * */
+    public static void append__R_Image_class(@NotNull StringBuilder code, @NotNull List<String> nonSvgImageAssetArray, @NotNull Map<String, String> nonSvgImageAssetIdDict, @NotNull String packageName, int dartfmtLineLength) {
+        code.append("/// This `_R_Image` class is generated and contains references to static non-svg type image asset resources.\n" +
+                "// ignore: camel_case_types\n" +
+                "class _R_Image {\n" +
+                "  const _R_Image();\n" +
+                "\n" +
+                "  final asset = const _R_Image_AssetResource();\n");
+
+        // dartfmt会在每个（函数体不为空的）方法之后空一行
+        String methodSeparator = dartfmtLineLength > 0 ? "\n\n" : "\n";
+        boolean isFirstMethod = true;
+        for (String asset : nonSvgImageAssetArray) {
+            code.append(isFirstMethod ? "\n" : methodSeparator);
+            isFirstMethod = false;
+
+            String assetId = nonSvgImageAssetIdDict.get(asset);
+            String assetComment = generateAssetComment(asset, packageName);
+
+            String returnStatementCode = String.format("    return AssetImage(asset.%s.keyName);", assetId);
+            if(isLongerThanLineLength(returnStatementCode, dartfmtLineLength)) {
+                returnStatementCode = String.format("    return AssetImage(\n" +
+                        "      asset.%s.keyName,\n" +
+                        "    );", assetId);
+            }
+
+            String g_Asset_method_code = String.format("  /// %s\n" +
+                    "  // ignore: non_constant_identifier_names\n" +
+                    "  AssetImage %s() {\n" +
+                    "%s\n" +
+                    "  }",
+                    assetComment,
+                    assetId,
+                    returnStatementCode);
+
+            code.append(g_Asset_method_code);
+        }
+
+        appendClassEnd(code, nonSvgImageAssetArray.isEmpty(), dartfmtLineLength);
+    }
+
+    /*
+     * 根据模板，为 svgImageAssetArray（svg类的图片资产数组）生成 _R_Svg class 的代码
+     * */
+    public static String generate__R_Svg_class(@NotNull List<String> svgImageAssetArray, @NotNull Map<String, String> svgImageAssetIdDict, @NotNull String packageName, @NotNull boolean shouldSupportNullsafety) {
+        StringBuilder code = new StringBuilder();
+        append__R_Svg_class(code, svgImageAssetArray, svgImageAssetIdDict, packageName, shouldSupportNullsafety, 0);
+        return code.toString();
+    }
+
+    /*
+     * 根据模板，为 svgImageAssetArray（svg类的图片资产数组）生成 _R_Svg class 的代码，并追加到 code 中；
+     * 若 dartfmtLineLength > 0，则按该行长生成符合dartfmt格式的代码，参见 isPreformattedCode
+     * */
+    public static void append__R_Svg_class(@NotNull StringBuilder code, @NotNull List<String> svgImageAssetArray, @NotNull Map<String, String> svgImageAssetIdDict, @NotNull String packageName, @NotNull boolean shouldSupportNullsafety, int dartfmtLineLength) {
+        code.append("/// This `_R_Svg` class is generated and contains references to static svg type image asset resources.\n" +
+                "// ignore: camel_case_types\n" +
+                "class _R_Svg {\n" +
+                "  const _R_Svg();\n" +
+                "\n" +
+                "  final asset = const _R_Svg_AssetResource();\n");
+
+        // dartfmt会在每个（函数体不为空的）方法之后空一行
+        String methodSeparator = dartfmtLineLength > 0 ? "\n\n" : "\n";
+        boolean isFirstMethod = true;
+        for (String asset : svgImageAssetArray) {
+            code.append(isFirstMethod ? "\n" : methodSeparator);
+            isFirstMethod = false;
+
+            String assetId = svgImageAssetIdDict.get(asset);
+            String assetComment = generateAssetComment(asset, packageName);
+            String requiredKeyword = shouldSupportNullsafety ? "required" : "@required";
+
+            String methodSignatureCode = String.format("  AssetSvg %s({%s double width, %s double height}) {", assetId, requiredKeyword, requiredKeyword);
+            if(isLongerThanLineLength(methodSignatureCode, dartfmtLineLength)) {
+                methodSignatureCode = String.format("  AssetSvg %s({\n" +
+                        "    %s double width,\n" +
+                        "    %s double height,\n" +
+                        "  }) {", assetId, requiredKeyword, requiredKeyword);
+            }
+
+            String imageProviderStatementCode = String.format("    final imageProvider = AssetSvg(asset.%s.keyName, width: width, height: height);", assetId);
+            if(isLongerThanLineLength(imageProviderStatementCode, dartfmtLineLength)) {
+                imageProviderStatementCode = String.format("    final imageProvider = AssetSvg(\n" +
+                        "      asset.%s.keyName,\n" +
+                        "      width: width,\n" +
+                        "      height: height,\n" +
+                        "    );", assetId);
+            }
+
+            String g_Asset_method_code = String.format("  /// %s\n" +
+                            "  // ignore: non_constant_identifier_names\n" +
+                            "%s\n" +
+                            "%s\n" +
+                            "    return imageProvider;\n" +
+                            "  }",
+                    assetComment,
+                    methodSignatureCode,
+                    imageProviderStatementCode);
+
+            code.append(g_Asset_method_code);
+        }
+
+        appendClassEnd(code, svgImageAssetArray.isEmpty(), dartfmtLineLength);
+    }
+
+    /*
+     * 根据模板，为 textAssetArray（文本资产数组）生成 _R_Text class 的代码
+     * */
+    public static String generate__R_Text_class(@NotNull List<String> textAssetArray, @NotNull Map<String, String> textAssetIdDict, @NotNull String packageName) {
+        StringBuilder code = new StringBuilder();
+        append__R_Text_class(code, textAssetArray, textAssetIdDict, packageName, 0);
+        return code.toString();
+    }
+
+    /*
+     * 根据模板，为 textAssetArray（文本资产数组）生成 _R_Text class 的代码，并追加到 code 中；
+     * 若 dartfmtLineLength > 0，则按该行长生成符合dartfmt格式的代码，参见 isPreformattedCode
+     * */
+    public static void append__R_Text_class(@NotNull StringBuilder code, @NotNull List<String> textAssetArray, @NotNull Map<String, String> textAssetIdDict, @NotNull String packageName, int dartfmtLineLength) {
+        code.append("/// This `_R_Text` class is generated and contains references to static text asset resources.\n" +
+                "// ignore: camel_case_types\n" +
+                "class _R_Text {\n" +
+                "  const _R_Text();\n" +
+                "\n" +
+                "  final asset = const _R_Text_AssetResource();\n");
+
+        // dartfmt会在每个（函数体不为空的）方法之后空一行
+        String methodSeparator = dartfmtLineLength > 0 ? "\n\n" : "\n";
+        boolean isFirstMethod = true;
+        for (String asset : textAssetArray) {
+            code.append(isFirstMethod ? "\n" : methodSeparator);
+            isFirstMethod = false;
+
+            String assetId = textAssetIdDict.get(asset);
+            String assetComment = generateAssetComment(asset, packageName);
+
+            String strStatementCode = String.format("    final str = rootBundle.loadString(asset.%s.keyName);", assetId);
+            if(isLongerThanLineLength(strStatementCode, dartfmtLineLength)) {
+                strStatementCode = String.format("    final str = rootBundle.loadString(\n" +
+                        "      asset.%s.keyName,\n" +
+                        "    );", assetId);
+            }
+
+            String g_Asset_method_code = String.format("  /// %s\n" +
+                            "  // ignore: non_constant_identifier_names\n" +
+                            "  Future<String> %s() {\n" +
+                            "%s\n" +
+                            "    return str;\n" +
+                            "  }",
+                    assetComment,
+                    assetId,
+                    strStatementCode);
+
+            code.append(g_Asset_method_code);
+        }
+
+        appendClassEnd(code, textAssetArray.isEmpty(), dartfmtLineLength);
+    }
+
+    /*
+    * 为当前 font_family_name 生成 font_family_id；font_family_id 一般为 asset 的 font_family_name；
+    * 但是为了保证 font_family_id 的健壮性，需要对 font_family_name 做以下加工处理：
+    * - 处理非法字符：把除了字母（a-z, A-Z）、数字（0-9）、'_' 字符、'$' 字符之外的字符转换为 '_' 字符
+    * - 首字母转化为小写
+    * - 处理首字符异常情况：检测首字符是不是数字、'_'、'$'，若是则添加前缀字符"a"
+    *
+    * === Examples
+    * a_font_family_name = "Amiri"
+    * b_font_family_name = "Baloo-Thambi-2"
+    * a_font_family_id = "amiri"
+    * b_font_family_id = "baloo_Thambi_2"
+    * */
+    public static String generateFontFamilyId(@NotNull String fontFamilyName) {
+        String fontFamilyId = fontFamilyName;
+
+        // 过滤非法字符
+        fontFamilyId = fontFamilyId.replaceAll("[^a-zA-Z0-9_$]", "_");
+
+        // 检测首字符是不是字母；
+        // 若是字母，则检测其是不是大写字母，若是，则转换为小写字母；
+        // 若不是字母，则添加一个前缀字母“a”
+        Character firstChar = fontFamilyId.charAt(0);
+        if(Character.isLetter(firstChar)) {
+            if(Character.isUpperCase(firstChar)) {
+                String firstCharStr = firstChar.toString().toLowerCase();
+                fontFamilyId = firstCharStr + fontFamilyId.substring(1);
+            }
+        } else {
+            String firstCharStr = "a";
+            fontFamilyId = firstCharStr + fontFamilyId;
+        }
+
+        return fontFamilyId;
+    }
+
+    /*
+    * 根据模板，为 fontFamilyConfigArray（字体家族配置数组）生成 _R_FontFamily class 的代码
+     * */
+    public static String generate__R_FontFamily_class(@NotNull List<Map> fontFamilyConfigArray, @NotNull String packageName) {
+        StringBuilder code = new StringBuilder();
+        append__R_FontFamily_class(code, fontFamilyConfigArray, packageName, 0);
+        return code.toString();
+    }
+
+    /*
+    * 根据模板，为 fontFamilyConfigArray（字体家族配置数组）生成 _R_FontFamily class 的代码，并追加到 code 中；
+    * 若 dartfmtLineLength > 0，则按该行长生成符合dartfmt格式的代码，参见 isPreformattedCode
+     * */
+    public static void append__R_FontFamily_class(@NotNull StringBuilder code, @NotNull List<Map> fontFamilyConfigArray, @NotNull String packageName, int dartfmtLineLength) {
+        code.append("/// This `_R_FontFamily` class is generated and contains references to static font asset resources.\n" +
+                "// ignore: camel_case_types\n" +
+                "class _R_FontFamily {\n" +
+                "  const _R_FontFamily();\n");
+
+        for (Map fontFamilyConfig : fontFamilyConfigArray) {
+            code.append("\n");
+
+            String fontFamilyName = (String)fontFamilyConfig.get("family");
+            String fontFamilyId = generateFontFamilyId(fontFamilyName);
+
+            String fontFamilyComment = String.format("font family: %s", fontFamilyName);
+
+            String g_AssetResource_property_code = String.format("  /// %s\n" +
+                    "  // ignore: non_constant_identifier_names\n" +
+                    "  final %s = \"%s\";",
+                    fontFamilyComment,
+                    fontFamilyId,
+                    fontFamilyName);
+
+            code.append(g_AssetResource_property_code);
+        }
+
+        appendClassEnd(code, fontFamilyConfigArray.isEmpty(), dartfmtLineLength);
+    }
+
+    /*
+    * 追加类的结尾“}”
+    *
+    * 按原模板生成代码时，类体最后总有一个换行符；
+    * 若 dartfmtLineLength > 0 且类中除构造函数（和 asset 属性）外没有其他成员，则不能在“}”之前留下空行，因为dartfmt会删除类体末尾的空行
+    * */
+    private static void appendClassEnd(@NotNull StringBuilder code, boolean isEmptyClass, int dartfmtLineLength) {
+        if(isEmptyClass && dartfmtLineLength > 0) {
+            code.append("}");
+            return;
+        }
+        code.append("\n" +
+                "}");
+    }
+
+    /*
+    * 生成 r.g.dart 的完整内容（对应flr生成流程的 Step-9 ~ Step-19）：
+    * 为各类asset分配assetId，然后依次生成 R、AssetResource、_R_Image_AssetResource、_R_Svg_AssetResource、_R_Text_AssetResource、
+    * _R_Image、_R_Svg、_R_Text、_R_FontFamily 类的代码
+    *
+    * @param nonSvgImageAssetArray、svgImageAssetArray、textAssetArray 已去重并排序的asset数组
+    * @param fontFamilyConfigArray 已排序的font_family_config数组
+    * @param dartfmtLineLength 若大于0，则按该行长生成符合dartfmt格式的代码，参见 isPreformattedCode；否则按原模板生成代码
+    * */
+    public static String generateRDartFileContent(@NotNull String packageName, boolean isPackageProjectType, boolean shouldSupportNullsafety, @NotNull List<String> nonSvgImageAssetArray, @NotNull List<String> svgImageAssetArray, @NotNull List<String> textAssetArray, @NotNull List<Map> fontFamilyConfigArray, int dartfmtLineLength) {
+        return generateRDartFileContent(packageName, isPackageProjectType, shouldSupportNullsafety, nonSvgImageAssetArray, svgImageAssetArray, textAssetArray, fontFamilyConfigArray, dartfmtLineLength, null, null);
+    }
+
+    /*
+    * 生成 r.g.dart 的完整内容，并把 Step-9 ~ Step-19 中每个步骤的耗时和asset数量分别记录到 profiler 中
+    *
+    * @param profiler 若为null，则不记录
+    * @param flutterProjectRootDir 记录步骤时使用的工程根目录；profiler 不为null时不能为null
+    *
+    * === Examples
+    * FlrCodeUtil.generateRDartFileContent(..., dartfmtLineLength, profiler, "/path/to/flutter_demo")
+    * profiler 中记录的步骤：Step-9 allocate asset ids、Step-10 create r.g.dart buffer、Step-11 generate R class、……、Step-19 generate _R_FontFamily class
+    * */
+    public static String generateRDartFileContent(@NotNull String packageName, boolean isPackageProjectType, boolean shouldSupportNullsafety, @NotNull List<String> nonSvgImageAssetArray, @NotNull List<String> svgImageAssetArray, @NotNull List<String> textAssetArray, @NotNull List<Map> fontFamilyConfigArray, int dartfmtLineLength, FlrProfiler profiler, String flutterProjectRootDir) {
+        // ----- Step-9 Begin -----
+        // 分别遍历non_svg_image_asset数组、svg_image_asset数组、text_asset数组，
+        // 根据asset_id生成算法，分别输出non_svg_image_asset_id字典、svg_image_asset_id 字典、text_asset_id字典。
+        // 字典的key为asset，value为asset_id。
+        // asset_id 由 FlrAssetIdAllocator 分配，其结果与逐个调用 FlrCodeUtil.generateAssetId 的结果一致。
+        //
+
+        FlrProfiler.Step step = beginProfileStep(profiler, flutterProjectRootDir, "Step-9 allocate asset ids");
+
+        Map<String, String> nonSvgImageAssetIdDict = new HashMap<>(nonSvgImageAssetArray.size() * 2);
+        Map<String, String> svgImageAssetIdDict = new HashMap<>(svgImageAssetArray.size() * 2);
+        Map<String, String> textAssetIdDict = new HashMap<>(textAssetArray.size() * 2);
+
+        FlrAssetIdAllocator nonSvgImageAssetIdAllocator = new FlrAssetIdAllocator(FlrConstant.PRIOR_NON_SVG_IMAGE_FILE_TYPE);
+        for (String asset : nonSvgImageAssetArray) {
+            String assetId = nonSvgImageAssetIdAllocator.allocate(asset);
+            nonSvgImageAssetIdDict.put(asset, assetId);
+        }
+
+        FlrAssetIdAllocator svgImageAssetIdAllocator = new FlrAssetIdAllocator(FlrConstant.PRIOR_SVG_IMAGE_FILE_TYPE);
+        for (String asset : svgImageAssetArray) {
+            String assetId = svgImageAssetIdAllocator.allocate(asset);
+            svgImageAssetIdDict.put(asset, assetId);
+        }
+
+        FlrAssetIdAllocator textAssetIdAllocator = new FlrAssetIdAllocator(FlrConstant.PRIOR_TEXT_FILE_TYPE);
+        for (String asset : textAssetArray) {
+            String assetId = textAssetIdAllocator.allocate(asset);
+            textAssetIdDict.put(asset, assetId);
+        }
+
+        endProfileStep(step, nonSvgImageAssetArray.size() + svgImageAssetArray.size() + textAssetArray.size());
+
+        // ----- Step-9 End -----
+
+
+        // ----- Step-10 Begin -----
+        // 在当前根目录下创建新的r.g.dart文件。
+        //
+
+        step = beginProfileStep(profiler, flutterProjectRootDir, "Step-10 create r.g.dart buffer");
+
+        // 所有代码追加到同一个预估好容量的 StringBuilder 中，避免在拼接过程中反复复制整个文件内容
+        int estimatedCodeLength = 8 * 1024
+                + (nonSvgImageAssetArray.size() + svgImageAssetArray.size() + textAssetArray.size()) * 640
+                + fontFamilyConfigArray.size() * 160;
+        StringBuilder r_dart_file_content = new StringBuilder(estimatedCodeLength);
+
+        // 若 dartfmtLineLength > 0，则直接按该行长生成符合dartfmt格式的代码：
+        // 各个类之间空一行，文件以换行符结尾；若最终生成的代码符合dartfmt格式，则无需再格式化 r.g.dart
+        String classSeparator = dartfmtLineLength > 0 ? "\n\n" : "\n";
+
+        endProfileStep(step, 0);
+
+        // ----- Step-10 End -----
+
+        // ----- Step-11 Begin -----
+        // 生成 R 类的代码，追加写入r.g.dart
+        //
+
+        step = beginProfileStep(profiler, flutterProjectRootDir, "Step-11 generate R class");
+
+        String g_R_class_code = FlrCodeUtil.generate_R_class(packageName);
+        r_dart_file_content.append(g_R_class_code);
+
+        endProfileStep(step, 0);
+
+        // ----- Step-11 End -----
+
+
+        // ----- Step-12 Begin -----
+        // 生成 AssetResource 类的代码，追加写入r.g.dart
+        //
+
+        step = beginProfileStep(profiler, flutterProjectRootDir, "Step-12 generate AssetResource class");
+
+        r_dart_file_content.append(classSeparator);
+        String g_AssetResource_class_code = FlrCodeUtil.generate_AssetResource_class(packageName, shouldSupportNullsafety, dartfmtLineLength);
+        r_dart_file_content.append(g_AssetResource_class_code);
+
+        endProfileStep(step, 0);
+
+        // ----- Step-12 End -----
+
+
+        // ----- Step-13 Begin -----
+        // 遍历 non_svg_image_asset 数组，生成 _R_Image_AssetResource 类，追加写入 r.g.dart
+        //
+
+        step = beginProfileStep(profiler, flutterProjectRootDir, "Step-13 generate _R_Image_AssetResource class");
+
+        r_dart_file_content.append(classSeparator);
+        FlrCodeUtil.append__R_Image_AssetResource_class(r_dart_file_content, nonSvgImageAssetArray, nonSvgImageAssetIdDict, packageName, isPackageProjectType, dartfmtLineLength);
+
+        endProfileStep(step, nonSvgImageAssetArray.size());
+
+        // ----- Step-13 End -----
+
+
+        // ----- Step-14 Begin -----
+        // 遍历 svg_image_asset 数组，生成 _R_Svg_AssetResource 类，追加写入 r.g.dart。
+        //
+
+        step = beginProfileStep(profiler, flutterProjectRootDir, "Step-14 generate _R_Svg_AssetResource class");
+
+        r_dart_file_content.append(classSeparator);
+        FlrCodeUtil.append__R_Svg_AssetResource_class(r_dart_file_content, svgImageAssetArray, svgImageAssetIdDict, packageName, isPackageProjectType, dartfmtLineLength);
+
+        endProfileStep(step, svgImageAssetArray.size());
+
+        // ----- Step-14 End -----
+
+        // ----- Step-15 Begin -----
+        // 遍历 text_asset 数组，生成 _R_Image_AssetResource 类，追加写入 r.g.dart
+        //
+
+        step = beginProfileStep(profiler, flutterProjectRootDir, "Step-15 generate _R_Text_AssetResource class");
+
+        r_dart_file_content.append(classSeparator);
+        FlrCodeUtil.append__R_Text_AssetResource_class(r_dart_file_content, textAssetArray, textAssetIdDict, packageName, isPackageProjectType, dartfmtLineLength);
+
+        endProfileStep(step, textAssetArray.size());
+
+        // ----- Step-15 End -----
+
+        // ----- Step-16 Begin -----
+        // 遍历non_svg_image_asset数组，生成 _R_Image 类，追加写入 r.g.dart
+        //
+
+        step = beginProfileStep(profiler, flutterProjectRootDir, "Step-16 generate _R_Image class");
+
+        r_dart_file_content.append(classSeparator);
+        FlrCodeUtil.append__R_Image_class(r_dart_file_content, nonSvgImageAssetArray, nonSvgImageAssetIdDict, packageName, dartfmtLineLength);
+
+        endProfileStep(step, nonSvgImageAssetArray.size());
+
+        // ----- Step-16 End -----
+
+        // ----- Step-17 Begin -----
+        // 遍历 svg_image_asset 数组，生成 _R_Svg 类，追加写入 r.g.dart。
+        //
+
+        step = beginProfileStep(profiler, flutterProjectRootDir, "Step-17 generate _R_Svg class");
+
+        r_dart_file_content.append(classSeparator);
+        FlrCodeUtil.append__R_Svg_class(r_dart_file_content, svgImageAssetArray, svgImageAssetIdDict, packageName, shouldSupportNullsafety, dartfmtLineLength);
+
+        endProfileStep(step, svgImageAssetArray.size());
+
+        // ----- Step-17 End -----
+
+        // ----- Step-18 Begin -----
+        // 遍历 text_asset 数组，生成 _R_Image 类，追加写入 r.g.dart。
+        //
+
+        step = beginProfileStep(profiler, flutterProjectRootDir, "Step-18 generate _R_Text class");
+
+        r_dart_file_content.append(classSeparator);
+        FlrCodeUtil.append__R_Text_class(r_dart_file_content, textAssetArray, textAssetIdDict, packageName, dartfmtLineLength);
+
+        endProfileStep(step, textAssetArray.size());
+
+        // ----- Step-18 End -----
+
+        // ----- Step-19 Begin -----
+        // 遍历font_family_config数组，根据下面的模板生成_R_Font_Family类，追加写入r.g.dart。
+
+        step = beginProfileStep(profiler, flutterProjectRootDir, "Step-19 generate _R_FontFamily class");
+
+        r_dart_file_content.append(classSeparator);
+        FlrCodeUtil.append__R_FontFamily_class(r_dart_file_content, fontFamilyConfigArray, packageName, dartfmtLineLength);
+        if(dartfmtLineLength > 0) {
+            r_dart_file_content.append("\n");
+        }
+
+        endProfileStep(step, fontFamilyConfigArray.size());
+
+        // ----- Step-19 End -----
+
+        return r_dart_file_content.toString();
+    }
+
+    /*
+    * 若 profiler 不为null，则开始记录一个步骤；否则返回null
+    * */
+    private static FlrProfiler.Step beginProfileStep(FlrProfiler profiler, String flutterProjectRootDir, @NotNull String stepName) {
+        if(profiler == null) {
+            return null;
+        }
+        return profiler.beginStep(flutterProjectRootDir, stepName);
+    }
+
+    /*
+    * 结束 beginProfileStep 开始的步骤，并记录该步骤处理的asset数量；step 为null时什么也不做
+    * */
+    private static void endProfileStep(FlrProfiler.Step step, int assetCount) {
+        if(step == null) {
+            return;
+        }
+        step.addCount(FlrProfiler.ASSET_COUNT, assetCount).end();
+    }
+
+    /*
+    * 判断生成的代码是否已经符合dartfmt格式，即对其执行dartfmt（行长为 dartfmtLineLength）不会产生任何变化
+    *
+    * 当按 dartfmtLineLength 生成代码时（即调用各个生成方法时传入 dartfmtLineLength > 0），
+    * 生成的代码只会使用dartfmt会原样保留的格式：
+    * - 单行代码：代码行不超出行长；
+    * - 多行代码：参数列表带有结尾逗号（dartfmt会把其中的每个参数单独放一行），
+    *   或者按dartfmt的换行规则在“=>”之后、构造函数初始化列表的“:”之前换行；
+    * - 顶层声明之间、方法之间空一行，文件以换行符结尾。
+    *
+    * 但是dartfmt无法拆分过长的字符串和标识符（如很长的assetId或者asset），
+    * 对于这些代码行，无法保证生成的格式与dartfmt的格式化结果一致，因此只要存在超出行长的代码行（注释除外），就认为不符合dartfmt格式，仍需要执行dartfmt。
+    * */
+    public static boolean isPreformattedCode(@NotNull CharSequence code, int dartfmtLineLength) {
+        if(dartfmtLineLength <= 0) {
+            return false;
+        }
+
+        int length = code.length();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && code.charAt(lineEnd) != '\n') {
+                lineEnd += 1;
+            }
+
+            // dartfmt不会拆分注释，因此超出行长的注释行不影响格式化结果
+            if(lineEnd - lineStart > dartfmtLineLength && isCommentLine(code, lineStart, lineEnd) == false) {
+                return false;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return true;
+    }
+
+    private static boolean isCommentLine(@NotNull CharSequence code, int lineStart, int lineEnd) {
+        int i = lineStart;
+        while (i < lineEnd && code.charAt(i) == ' ') {
+            i += 1;
+        }
+        return i + 1 < lineEnd && code.charAt(i) == '/' && code.charAt(i + 1) == '/';
+    }
+
+    /*
+    * 判断代码（不含结尾的换行符）是否超出dartfmt的行长；若 dartfmtLineLength <= 0，则表示按原模板生成代码，不限制行长
+    * */
+    private static boolean isLongerThanLineLength(@NotNull String lineCode, int dartfmtLineLength) {
+        if(dartfmtLineLength <= 0) {
+            return false;
+        }
+        int length = lineCode.endsWith("\n") ? lineCode.length() - 1 : lineCode.length();
+        return length > dartfmtLineLength;
+    }
+}
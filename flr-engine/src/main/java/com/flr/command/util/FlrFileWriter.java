@@ -0,0 +1,118 @@
+package com.flr.command.util;
+
+import com.flr.engine.FlrFileSystem;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+* 写入 pubspec.yaml、r.g.dart 等生成文件的工具类
+*
+* 若文件内容没有变化，则跳过写入，避免触发文件变化事件、dartfmt 和 flutter pub get
+* */
+public class FlrFileWriter {
+
+    /*
+    * 最近一次通过 writeTextIfChanged 写入文件的记录：写入的内容摘要，以及写入（或者格式化）后文件的大小和修改时间
+    * */
+    private static class WrittenFileRecord {
+        final String contentDigest;
+        final long fileLength;
+        final long fileLastModified;
+
+        WrittenFileRecord(@NotNull String contentDigest, @NotNull FlrFileSystem fileSystem, @NotNull String filePath) {
+            this.contentDigest = contentDigest;
+            this.fileLength = fileSystem.length(filePath);
+            this.fileLastModified = fileSystem.lastModified(filePath);
+        }
+
+        /*
+        * 文件自记录以来是否没有被修改过
+        * */
+        boolean isFileUnmodified(@NotNull FlrFileSystem fileSystem, @NotNull String filePath) {
+            return fileSystem.length(filePath) == fileLength && fileSystem.lastModified(filePath) == fileLastModified;
+        }
+    }
+
+    // 最近一次通过 writeTextIfChanged 写入各个文件的记录，key为文件路径
+    private static final Map<String, WrittenFileRecord> writtenFileRecordDict = new ConcurrentHashMap<String, WrittenFileRecord>();
+
+    /*
+    * 写文件；若文件内容没有变化（参见 isFileContentUnchanged），则不写入
+    *
+    * @return 是否写入了文件
+    * */
+    public static boolean writeTextIfChanged(@NotNull FlrFileSystem fileSystem, @NotNull String filePath, @NotNull String content) throws IOException {
+        if(isFileContentUnchanged(fileSystem, filePath, content)) {
+            return false;
+        }
+
+        try {
+            fileSystem.writeText(filePath, content);
+        } catch (IOException e) {
+            writtenFileRecordDict.remove(filePath);
+            throw e;
+        }
+        writtenFileRecordDict.put(filePath, new WrittenFileRecord(getContentDigest(content), fileSystem, filePath));
+        return true;
+    }
+
+    /*
+    * 更新最近一次通过 writeTextIfChanged 写入文件的记录中的文件大小和修改时间
+    *
+    * 文件写入后被Flr自身修改（如 r.g.dart 被格式化并保存）时调用，使 isFileContentUnchanged 仍然可以信任写入的内容摘要
+    * */
+    public static void updateWrittenFileStamp(@NotNull FlrFileSystem fileSystem, @NotNull String filePath) {
+        writtenFileRecordDict.computeIfPresent(filePath, (path, record) -> new WrittenFileRecord(record.contentDigest, fileSystem, filePath));
+    }
+
+    /*
+    * 判断文件内容是否与指定内容一致，满足以下任一条件即视为一致：
+    * - 文件当前的内容与指定内容完全相同；
+    * - 指定内容与最近一次通过 writeTextIfChanged 写入该文件的内容相同，且此后文件的大小和修改时间都没有变化。
+    *   r.g.dart 写入后还会被格式化，其当前内容与写入的内容并不相同，因此需要比较写入的内容；
+    *   若文件在写入后被其他方式修改了（如 git checkout、手动编辑），则写入的内容摘要不再可信，需要比较文件当前的内容。
+    * */
+    public static boolean isFileContentUnchanged(@NotNull FlrFileSystem fileSystem, @NotNull String filePath, @NotNull String content) {
+        if(fileSystem.exists(filePath) == false || fileSystem.isDirectory(filePath)) {
+            return false;
+        }
+
+        WrittenFileRecord writtenFileRecord = writtenFileRecordDict.get(filePath);
+        if(writtenFileRecord != null && writtenFileRecord.isFileUnmodified(fileSystem, filePath) && writtenFileRecord.contentDigest.equals(getContentDigest(content))) {
+            return true;
+        }
+
+        byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
+        if(fileSystem.length(filePath) != contentBytes.length) {
+            return false;
+        }
+        try {
+            return content.equals(fileSystem.readText(filePath));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static String getContentDigest(@NotNull String content) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] digestBytes = messageDigest.digest(content.getBytes(StandardCharsets.UTF_8));
+            StringBuilder digest = new StringBuilder(digestBytes.length * 2);
+            for (byte digestByte : digestBytes) {
+                digest.append(String.format("%02x", digestByte));
+            }
+            return digest.toString();
+        } catch (NoSuchAlgorithmException e) {
+            e.printStackTrace();
+            // 无法计算摘要时，返回内容本身，保证比较结果正确
+            return content;
+        }
+    }
+}
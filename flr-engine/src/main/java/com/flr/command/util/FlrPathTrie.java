@@ -0,0 +1,113 @@
+package com.flr.command.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+* 按路径分段（以 '/' 分隔）构建的目录前缀树
+*
+* 用于判断一个路径位于哪些目录之中，判断耗时只与路径的深度有关，而与目录的数量无关；
+* 由于按分段匹配，因此 "assets/images2/a.png" 不会被判断为位于 "assets/images" 之中。
+*
+* === Examples
+* trie.put("/proj/lib/assets/images", "/proj")
+* trie.getValuesOnPath("/proj/lib/assets/images/test.png") => ["/proj"]
+* trie.getValuesOnPath("/proj/lib/assets/images2/test.png") => []
+* */
+public class FlrPathTrie<V> {
+
+    private static class Node<V> {
+        final Map<String, Node<V>> childDict = new HashMap<String, Node<V>>(4);
+        // 若该节点对应一个已添加的目录，则为该目录的关联值，否则为null
+        V value;
+    }
+
+    private final Node<V> root = new Node<V>();
+    private int size = 0;
+
+    /*
+    * 添加目录及其关联值；若目录已存在，则替换其关联值
+    * */
+    public void put(@NotNull String dirPath, @NotNull V value) {
+        Node<V> node = root;
+        int length = dirPath.length();
+        int start = 0;
+        while (start < length) {
+            int end = dirPath.indexOf('/', start);
+            if(end < 0) {
+                end = length;
+            }
+            if(end > start) {
+                String segment = dirPath.substring(start, end);
+                node = node.childDict.computeIfAbsent(segment, k -> new Node<V>());
+            }
+            start = end + 1;
+        }
+        if(node.value == null) {
+            size += 1;
+        }
+        node.value = value;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /*
+    * 判断路径是否为某个已添加的目录，或者位于某个已添加的目录之中
+    * */
+    public boolean containsPrefixOf(@NotNull String path) {
+        return findValuesOnPath(path, null);
+    }
+
+    /*
+    * 获取路径上所有已添加目录的关联值，按目录从浅到深排列
+    * */
+    public List<V> getValuesOnPath(@NotNull String path) {
+        List<V> valueArray = new ArrayList<V>();
+        findValuesOnPath(path, valueArray);
+        return valueArray;
+    }
+
+    /*
+    * 沿路径逐段匹配前缀树；若 valueArray 为null，则在匹配到第一个已添加的目录时立即返回
+    * */
+    private boolean findValuesOnPath(@NotNull String path, List<V> valueArray) {
+        if(size == 0) {
+            return false;
+        }
+
+        boolean didFind = false;
+        Node<V> node = root;
+        int length = path.length();
+        int start = 0;
+        while (true) {
+            if(node.value != null) {
+                didFind = true;
+                if(valueArray == null) {
+                    return true;
+                }
+                valueArray.add(node.value);
+            }
+            if(start >= length || node.childDict.isEmpty()) {
+                return didFind;
+            }
+
+            int end = path.indexOf('/', start);
+            if(end < 0) {
+                end = length;
+            }
+            if(end > start) {
+                node = node.childDict.get(path.substring(start, end));
+                if(node == null) {
+                    return didFind;
+                }
+            }
+            start = end + 1;
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.flr.command.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+* generate操作的分步计时器
+*
+* 记录每个flutter工程的每个步骤的耗时，以及该步骤处理的文件数量、asset数量和写入的字节数等计数；
+* 可以输出为汇总表格（显示在 Flr ToolWindow 中），也可以导出为JSON或者Chrome Trace格式
+* （在 chrome://tracing 或者 https://ui.perfetto.dev 中打开）。
+*
+* 并行generate时，多个线程会同时记录步骤，因此所有方法都是线程安全的；
+* 每个步骤只会被创建它的线程修改。
+*
+* === Examples
+* FlrProfiler profiler = new FlrProfiler()
+* FlrProfiler.Step step = profiler.beginStep("/path/to/flutter_demo", "Step-4 scan assets")
+* step.addCount(FlrProfiler.FILE_COUNT, 120)
+* step.end()
+* profiler.formatSummaryTable() =>
+*   project        step                 time(ms)  files  assets  bytes
+*   flutter_demo   Step-4 scan assets      12.3    120       -      -
+*   ...
+* */
+public class FlrProfiler {
+
+    // 步骤处理的文件数量
+    public static final String FILE_COUNT = "files";
+    // 步骤处理的asset数量
+    public static final String ASSET_COUNT = "assets";
+    // 步骤写入的字节数
+    public static final String BYTES_WRITTEN = "bytes";
+
+    private static final String[] SUMMARY_COUNT_NAMES = {FILE_COUNT, ASSET_COUNT, BYTES_WRITTEN};
+
+    /*
+    * 一个步骤的计时和计数记录
+    * */
+    public static class Step {
+        public final String flutterProjectRootDir;
+        public final String name;
+        public final String threadName;
+        public final long threadId;
+        // 相对于 FlrProfiler 创建时刻的开始时间（纳秒）
+        public final long startNanos;
+        // 步骤耗时（纳秒）；步骤结束前为-1
+        private volatile long durationNanos = -1;
+        private final Map<String, Long> countDict = new LinkedHashMap<String, Long>();
+
+        private final long originNanos;
+
+        private Step(@NotNull String flutterProjectRootDir, @NotNull String name, long originNanos) {
+            this.flutterProjectRootDir = flutterProjectRootDir;
+            this.name = name;
+            Thread thread = Thread.currentThread();
+            this.threadName = thread.getName();
+            this.threadId = thread.getId();
+            this.originNanos = originNanos;
+            this.startNanos = System.nanoTime() - originNanos;
+        }
+
+        /*
+        * 累加计数
+        * */
+        public synchronized Step addCount(@NotNull String countName, long value) {
+            countDict.merge(countName, value, Long::sum);
+            return this;
+        }
+
+        /*
+        * 结束步骤，记录耗时；重复调用时只有第一次生效
+        * */
+        public void end() {
+            if(durationNanos < 0) {
+                durationNanos = System.nanoTime() - originNanos - startNanos;
+            }
+        }
+
+        public boolean isEnded() {
+            return durationNanos >= 0;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public synchronized Map<String, Long> getCountDict() {
+            return new LinkedHashMap<String, Long>(countDict);
+        }
+    }
+
+    private final long originNanos = System.nanoTime();
+    private final long originEpochMillis = System.currentTimeMillis();
+    private final List<Step> stepArray = new ArrayList<Step>();
+
+    /*
+    * 开始记录 flutterProjectRootDir 工程的一个步骤；
+    * 对于不属于某个工程的步骤（如统一格式化所有 r.g.dart），flutterProjectRootDir 传入描述文字即可
+    * */
+    public Step beginStep(@NotNull String flutterProjectRootDir, @NotNull String stepName) {
+        Step step = new Step(flutterProjectRootDir, stepName, originNanos);
+        synchronized (this) {
+            stepArray.add(step);
+        }
+        return step;
+    }
+
+    /*
+    * 按开始时间排序的所有已结束步骤
+    * */
+    public List<Step> getEndedSteps() {
+        List<Step> endedStepArray = new ArrayList<Step>();
+        synchronized (this) {
+            for (Step step : stepArray) {
+                if(step.isEnded()) {
+                    endedStepArray.add(step);
+                }
+            }
+        }
+        endedStepArray.sort((step1, step2) -> Long.compare(step1.startNanos, step2.startNanos));
+        return endedStepArray;
+    }
+
+    /*
+    * 从创建到现在经过的时间（纳秒）
+    * */
+    public long getElapsedNanos() {
+        return System.nanoTime() - originNanos;
+    }
+
+    /*
+    * 生成汇总表格：
+    * - 每个工程的每个步骤各占一行，工程按首次出现的顺序排列，工程内的步骤按开始时间排列；
+    * - 最后按步骤名称汇总所有工程的耗时和计数，并按耗时降序排列，方便找出最耗时的步骤；
+    * - 计数为0的列显示为“-”。
+    * */
+    public String formatSummaryTable() {
+        List<Step> endedStepArray = getEndedSteps();
+
+        // 按工程分组
+        Map<String, List<Step>> projectStepDict = new LinkedHashMap<String, List<Step>>();
+        // 按步骤名称汇总
+        Map<String, long[]> stepTotalDict = new LinkedHashMap<String, long[]>();
+        for (Step step : endedStepArray) {
+            projectStepDict.computeIfAbsent(step.flutterProjectRootDir, key -> new ArrayList<Step>()).add(step);
+
+            long[] total = stepTotalDict.computeIfAbsent(step.name, key -> new long[1 + SUMMARY_COUNT_NAMES.length]);
+            total[0] += step.getDurationNanos();
+            Map<String, Long> countDict = step.getCountDict();
+            for (int i = 0; i < SUMMARY_COUNT_NAMES.length; i++) {
+                total[i + 1] += countDict.getOrDefault(SUMMARY_COUNT_NAMES[i], 0L);
+            }
+        }
+
+        List<String[]> rowArray = new ArrayList<String[]>();
+        for (Map.Entry<String, List<Step>> entry : projectStepDict.entrySet()) {
+            String projectName = getProjectName(entry.getKey());
+            for (Step step : entry.getValue()) {
+                Map<String, Long> countDict = step.getCountDict();
+                long[] values = new long[SUMMARY_COUNT_NAMES.length];
+                for (int i = 0; i < SUMMARY_COUNT_NAMES.length; i++) {
+                    values[i] = countDict.getOrDefault(SUMMARY_COUNT_NAMES[i], 0L);
+                }
+                rowArray.add(createRow(projectName, step.name, step.getDurationNanos(), values));
+            }
+        }
+
+        List<Map.Entry<String, long[]>> stepTotalArray = new ArrayList<Map.Entry<String, long[]>>(stepTotalDict.entrySet());
+        stepTotalArray.sort((entry1, entry2) -> Long.compare(entry2.getValue()[0], entry1.getValue()[0]));
+        List<String[]> totalRowArray = new ArrayList<String[]>();
+        for (Map.Entry<String, long[]> entry : stepTotalArray) {
+            long[] total = entry.getValue();
+            long[] values = new long[SUMMARY_COUNT_NAMES.length];
+            System.arraycopy(total, 1, values, 0, values.length);
+            totalRowArray.add(createRow("(all)", entry.getKey(), total[0], values));
+        }
+
+        String[] header = {"project", "step", "time(ms)", FILE_COUNT, ASSET_COUNT, BYTES_WRITTEN};
+        int[] columnWidths = new int[header.length];
+        List<String[]> allRowArray = new ArrayList<String[]>();
+        allRowArray.add(header);
+        allRowArray.addAll(rowArray);
+        allRowArray.addAll(totalRowArray);
+        for (String[] row : allRowArray) {
+            for (int i = 0; i < row.length; i++) {
+                columnWidths[i] = Math.max(columnWidths[i], row[i].length());
+            }
+        }
+
+        StringBuilder table = new StringBuilder();
+        appendRow(table, header, columnWidths);
+        appendSeparator(table, columnWidths);
+        for (String[] row : rowArray) {
+            appendRow(table, row, columnWidths);
+        }
+        appendSeparator(table, columnWidths);
+        for (String[] row : totalRowArray) {
+            appendRow(table, row, columnWidths);
+        }
+        table.append(String.format(Locale.ROOT, "total wall time: %.1f ms", getElapsedNanos() / 1e6));
+        return table.toString();
+    }
+
+    /*
+    * 导出为JSON：
+    * {"startTime": 1700000000000, "totalMillis": 123.4,
+    *  "steps": [{"project": "...", "step": "...", "thread": "...", "startMillis": 0.1, "durationMillis": 1.2, "counts": {"files": 10}}]}
+    * */
+    public String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"startTime\": ").append(originEpochMillis).append(",\n");
+        json.append("  \"totalMillis\": ").append(formatMillis(getElapsedNanos())).append(",\n");
+        json.append("  \"steps\": [");
+        List<Step> endedStepArray = getEndedSteps();
+        for (int i = 0; i < endedStepArray.size(); i++) {
+            Step step = endedStepArray.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    {\"project\": ").append(quote(step.flutterProjectRootDir));
+            json.append(", \"step\": ").append(quote(step.name));
+            json.append(", \"thread\": ").append(quote(step.threadName));
+            json.append(", \"startMillis\": ").append(formatMillis(step.startNanos));
+            json.append(", \"durationMillis\": ").append(formatMillis(step.getDurationNanos()));
+            json.append(", \"counts\": ");
+            appendCountDict(json, step.getCountDict());
+            json.append("}");
+        }
+        json.append(endedStepArray.isEmpty() ? "]\n" : "\n  ]\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    /*
+    * 导出为Chrome Trace格式（Trace Event Format），每个步骤为一个完整事件（"ph": "X"），
+    * 同一线程的步骤显示在同一行；工程路径和计数作为事件参数
+    * */
+    public String toChromeTrace() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"displayTimeUnit\": \"ms\", \"traceEvents\": [");
+        List<Step> endedStepArray = getEndedSteps();
+        Map<Long, String> threadNameDict = new LinkedHashMap<Long, String>();
+        for (int i = 0; i < endedStepArray.size(); i++) {
+            Step step = endedStepArray.get(i);
+            threadNameDict.putIfAbsent(step.threadId, step.threadName);
+
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("  {\"name\": ").append(quote(getProjectName(step.flutterProjectRootDir) + ": " + step.name));
+            json.append(", \"cat\": \"flr\", \"ph\": \"X\", \"pid\": 1, \"tid\": ").append(step.threadId);
+            json.append(", \"ts\": ").append(formatMicros(step.startNanos));
+            json.append(", \"dur\": ").append(formatMicros(step.getDurationNanos()));
+            Map<String, Long> argDict = step.getCountDict();
+            json.append(", \"args\": {\"project\": ").append(quote(step.flutterProjectRootDir));
+            for (Map.Entry<String, Long> entry : argDict.entrySet()) {
+                json.append(", ").append(quote(entry.getKey())).append(": ").append(entry.getValue());
+            }
+            json.append("}}");
+        }
+        for (Map.Entry<Long, String> entry : threadNameDict.entrySet()) {
+            json.append(",\n");
+            json.append("  {\"name\": \"thread_name\", \"ph\": \"M\", \"pid\": 1, \"tid\": ").append(entry.getKey());
+            json.append(", \"args\": {\"name\": ").append(quote(entry.getValue())).append("}}");
+        }
+        json.append("\n]}\n");
+        return json.toString();
+    }
+
+    private static String[] createRow(@NotNull String projectName, @NotNull String stepName, long durationNanos, long[] values) {
+        String[] row = new String[3 + values.length];
+        row[0] = projectName;
+        row[1] = stepName;
+        row[2] = String.format(Locale.ROOT, "%.1f", durationNanos / 1e6);
+        for (int i = 0; i < values.length; i++) {
+            row[3 + i] = values[i] == 0 ? "-" : String.valueOf(values[i]);
+        }
+        return row;
+    }
+
+    private static void appendRow(@NotNull StringBuilder table, @NotNull String[] row, @NotNull int[] columnWidths) {
+        for (int i = 0; i < row.length; i++) {
+            int padding = columnWidths[i] - row[i].length();
+            // 前两列（工程和步骤）左对齐，其余数值列右对齐
+            if(i < 2) {
+                table.append(row[i]);
+                appendSpaces(table, padding);
+            } else {
+                appendSpaces(table, padding);
+                table.append(row[i]);
+            }
+            table.append(i == row.length - 1 ? "\n" : "  ");
+        }
+    }
+
+    private static void appendSeparator(@NotNull StringBuilder table, @NotNull int[] columnWidths) {
+        int width = 0;
+        for (int columnWidth : columnWidths) {
+            width += columnWidth + 2;
+        }
+        for (int i = 0; i < width - 2; i++) {
+            table.append('-');
+        }
+        table.append("\n");
+    }
+
+    private static void appendSpaces(@NotNull StringBuilder table, int count) {
+        for (int i = 0; i < count; i++) {
+            table.append(' ');
+        }
+    }
+
+    private static void appendCountDict(@NotNull StringBuilder json, @NotNull Map<String, Long> countDict) {
+        json.append("{");
+        boolean isFirst = true;
+        for (Map.Entry<String, Long> entry : countDict.entrySet()) {
+            if(isFirst == false) {
+                json.append(", ");
+            }
+            isFirst = false;
+            json.append(quote(entry.getKey())).append(": ").append(entry.getValue());
+        }
+        json.append("}");
+    }
+
+    /*
+    * 工程根目录的最后一级目录名，作为表格中的工程名称
+    * */
+    private static String getProjectName(@NotNull String flutterProjectRootDir) {
+        int index = flutterProjectRootDir.length();
+        while (index > 1 && flutterProjectRootDir.charAt(index - 1) == '/') {
+            index -= 1;
+        }
+        String path = flutterProjectRootDir.substring(0, index);
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    private static String formatMicros(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e3);
+    }
+
+    private static String quote(@NotNull String text) {
+        StringBuilder quotedText = new StringBuilder(text.length() + 2);
+        quotedText.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    quotedText.append("\\\"");
+                    break;
+                case '\\':
+                    quotedText.append("\\\\");
+                    break;
+                case '\n':
+                    quotedText.append("\\n");
+                    break;
+                case '\r':
+                    quotedText.append("\\r");
+                    break;
+                case '\t':
+                    quotedText.append("\\t");
+                    break;
+                default:
+                    if(c < 0x20) {
+                        quotedText.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quotedText.append(c);
+                    }
+            }
+        }
+        quotedText.append('"');
+        return quotedText.toString();
+    }
+}
@@ -0,0 +1,591 @@
+package com.flr.command.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.nodes.*;
+
+import java.io.StringReader;
+import java.util.*;
+
+/*
+* pubspec.yaml 就地编辑器
+*
+* 保存 pubspecConfig 时，若只有 flutter.assets、flutter.fonts 和 flr.core_version 这几个配置项发生了变化，
+* 则根据这些配置项在 pubspec.yaml 中的源码位置，只重写它们所在的文本区间，其余内容（包括注释和格式）原样保留。
+*
+* 重写列表（flutter.assets 和 flutter.fonts）时，尽量保持原有的写法：
+* - 沿用原列表的缩进（“-”所在的列和“-”之后的空格数）；原列表为空时，沿用 pubspec.yaml 中其他块风格列表的缩进；
+* - 原列表中仍然存在的项原样保留，包括其引号、行尾注释以及其前面的注释行；
+* - 原列表是流（flow）风格时，仍以流风格重写。
+*
+* 若父映射（如 flutter）不存在或者为空，则整体写入父映射。
+*
+* 以下情况无法就地编辑，此时返回null，由调用方回退为重新序列化整个 pubspecConfig：
+* - 发生变化的配置项不在上述范围内；
+* - 配置项所在的映射不是块（block）风格；
+* - 编辑后的内容重新解析的结果与 pubspecConfig 不一致。
+*
+* === Examples
+* pubspec_content = "name: demo\n# 资源\nflutter:\n  assets:\n  - a.png\n"
+* pubspec_config.flutter.assets = ["a.png", "b.png"]
+* edited_pubspec_content = "name: demo\n# 资源\nflutter:\n  assets:\n  - a.png\n  - b.png\n"
+* */
+@SuppressWarnings("unchecked")
+public class FlrPubspecEditor {
+
+    // 支持就地编辑的配置项的路径：#{parent_key}.#{key}
+    private static final String[][] EDITABLE_KEY_PATHS = {
+            {"flutter", "assets"},
+            {"flutter", "fonts"},
+            {"flr", "core_version"}
+    };
+
+    /*
+    * 对pubspec.yaml内容中的一个文本区间 [start, end) 的编辑操作
+    * */
+    private static class Edit {
+        final int start;
+        final int end;
+        final String text;
+
+        Edit(int start, int end, @NotNull String text) {
+            this.start = start;
+            this.end = end;
+            this.text = text;
+        }
+    }
+
+    /*
+    * 块风格列表的缩进风格
+    *
+    * === Examples
+    * "assets:\n- a.png" => indicatorIndent = 0, itemOffset = 2
+    * "assets:\n    -   a.png" => indicatorIndent = 4, itemOffset = 4
+    * */
+    private static class SequenceStyle {
+        // “-”所在的列相对于列表的键所在的列的缩进
+        final int indicatorIndent;
+        // 列表项的内容所在的列相对于“-”所在的列的偏移
+        final int itemOffset;
+
+        SequenceStyle(int indicatorIndent, int itemOffset) {
+            this.indicatorIndent = indicatorIndent;
+            this.itemOffset = itemOffset;
+        }
+    }
+
+    // 与 createDumperOptions 一致的缩进风格
+    private static final SequenceStyle DEFAULT_SEQUENCE_STYLE = new SequenceStyle(0, 2);
+
+    /*
+    * 序列化 pubspecConfig 时使用的选项
+    * */
+    public static DumperOptions createDumperOptions() {
+        DumperOptions dumperOptions = new DumperOptions();
+        dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        dumperOptions.setIndent(2);
+        dumperOptions.setIndicatorIndent(0);
+        return dumperOptions;
+    }
+
+    /*
+    * 就地编辑 pubspec.yaml 的内容，使其与 pubspecConfig 一致
+    *
+    * @param pubspecContent pubspec.yaml 当前的内容
+    * @param pubspecConfig 待保存的配置
+    * @return 编辑后的内容；若无法就地编辑，则返回null
+    * */
+    public static String edit(@NotNull String pubspecContent, @NotNull Map<String, Object> pubspecConfig) {
+        try {
+            Yaml yaml = new Yaml();
+            Node rootNode = yaml.compose(new StringReader(pubspecContent));
+            if(rootNode instanceof MappingNode == false) {
+                return null;
+            }
+
+            // SnakeYAML 中源码位置的索引以码点计算，若内容包含补充字符，则需要转换为字符索引
+            boolean hasSupplementaryChar = pubspecContent.length() != pubspecContent.codePointCount(0, pubspecContent.length());
+            String lineSeparator = pubspecContent.contains("\r\n") ? "\r\n" : "\n";
+            EditContext context = new EditContext(pubspecContent, hasSupplementaryChar, lineSeparator);
+
+            List<Edit> editArray = new ArrayList<Edit>();
+            Set<String> insertedParentKeySet = new HashSet<String>();
+            for (String[] keyPath : EDITABLE_KEY_PATHS) {
+                String parentKey = keyPath[0];
+                String key = keyPath[1];
+
+                Object newValue = null;
+                Object newParentValue = pubspecConfig.get(parentKey);
+                if(newParentValue instanceof Map) {
+                    newValue = ((Map<String, Object>)newParentValue).get(key);
+                }
+
+                Node parentNode = findValueNode((MappingNode)rootNode, parentKey);
+                if(parentNode instanceof MappingNode == false) {
+                    if(newValue == null) {
+                        continue;
+                    }
+
+                    // 父映射不存在或者为空时，整体写入父映射；同一个父映射只写入一次
+                    if(insertedParentKeySet.add(parentKey) == false) {
+                        continue;
+                    }
+                    NodeTuple parentNodeTuple = findNodeTuple((MappingNode)rootNode, parentKey);
+                    Edit edit;
+                    if(parentNodeTuple == null) {
+                        edit = createInsertEdit(context, (MappingNode)rootNode, (MappingNode)rootNode, parentKey, newParentValue);
+                    } else if(toPlainValue(parentNodeTuple.getValueNode()) == null) {
+                        edit = createReplaceEdit(context, (MappingNode)rootNode, (MappingNode)rootNode, parentNodeTuple, parentKey, newParentValue);
+                    } else {
+                        edit = null;
+                    }
+                    if(edit == null) {
+                        return null;
+                    }
+                    editArray.add(edit);
+                    continue;
+                }
+
+                NodeTuple nodeTuple = findNodeTuple((MappingNode)parentNode, key);
+                Object oldValue = nodeTuple != null ? toPlainValue(nodeTuple.getValueNode()) : null;
+                if(Objects.equals(oldValue, toPlainValue(newValue))) {
+                    continue;
+                }
+
+                Edit edit;
+                if(nodeTuple == null) {
+                    edit = createInsertEdit(context, (MappingNode)rootNode, (MappingNode)parentNode, key, newValue);
+                } else if(newValue == null) {
+                    edit = createRemoveEdit(context, nodeTuple);
+                } else {
+                    edit = createReplaceEdit(context, (MappingNode)rootNode, (MappingNode)parentNode, nodeTuple, key, newValue);
+                }
+                if(edit == null) {
+                    return null;
+                }
+                editArray.add(edit);
+            }
+
+            // 从后往前应用编辑操作，使得前面的编辑区间的索引保持有效
+            editArray.sort((a, b) -> Integer.compare(b.start, a.start));
+            StringBuilder editedContent = new StringBuilder(pubspecContent);
+            int lastStart = Integer.MAX_VALUE;
+            for (Edit edit : editArray) {
+                if(edit.end > lastStart) {
+                    return null;
+                }
+                editedContent.replace(edit.start, edit.end, edit.text);
+                lastStart = edit.start;
+            }
+            String editedPubspecContent = editedContent.toString();
+
+            // 校验编辑结果：其解析结果必须与 pubspecConfig 完全一致，否则说明还有其他配置项发生了变化，或者编辑有误
+            Object editedPubspecConfig = yaml.load(editedPubspecContent);
+            if(pubspecConfig.equals(editedPubspecConfig) == false) {
+                return null;
+            }
+            return editedPubspecContent;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static class EditContext {
+        final String content;
+        final boolean hasSupplementaryChar;
+        final String lineSeparator;
+
+        EditContext(@NotNull String content, boolean hasSupplementaryChar, @NotNull String lineSeparator) {
+            this.content = content;
+            this.hasSupplementaryChar = hasSupplementaryChar;
+            this.lineSeparator = lineSeparator;
+        }
+
+        int toCharIndex(@NotNull Mark mark) {
+            int codePointIndex = mark.getIndex();
+            if(hasSupplementaryChar == false) {
+                return codePointIndex;
+            }
+            return content.offsetByCodePoints(0, codePointIndex);
+        }
+
+        int getLineStart(int index) {
+            return content.lastIndexOf('\n', index - 1) + 1;
+        }
+
+        /*
+        * 获取 index 所在行的行尾（换行符所在的位置）
+        * */
+        int getLineEnd(int index) {
+            int lineEnd = content.indexOf('\n', index);
+            if(lineEnd < 0) {
+                return content.length();
+            }
+            if(lineEnd > index && content.charAt(lineEnd - 1) == '\r') {
+                lineEnd -= 1;
+            }
+            return lineEnd;
+        }
+
+        /*
+        * 获取行尾 lineEnd 之后的下一行的行首
+        * */
+        int getNextLineStart(int lineEnd) {
+            if(content.startsWith("\r\n", lineEnd)) {
+                return lineEnd + 2;
+            }
+            if(content.startsWith("\n", lineEnd)) {
+                return lineEnd + 1;
+            }
+            return lineEnd;
+        }
+
+        /*
+        * 获取节点内容的结束位置（不包含块风格集合之后的空行和注释）
+        * */
+        int getContentEnd(@NotNull Node node) {
+            if(node instanceof SequenceNode) {
+                SequenceNode sequenceNode = (SequenceNode)node;
+                List<Node> itemNodeArray = sequenceNode.getValue();
+                if(sequenceNode.getFlowStyle() == DumperOptions.FlowStyle.BLOCK && itemNodeArray.isEmpty() == false) {
+                    return getContentEnd(itemNodeArray.get(itemNodeArray.size() - 1));
+                }
+            } else if(node instanceof MappingNode) {
+                MappingNode mappingNode = (MappingNode)node;
+                List<NodeTuple> nodeTupleArray = mappingNode.getValue();
+                if(mappingNode.getFlowStyle() == DumperOptions.FlowStyle.BLOCK && nodeTupleArray.isEmpty() == false) {
+                    return getContentEnd(nodeTupleArray.get(nodeTupleArray.size() - 1).getValueNode());
+                }
+            }
+            return toCharIndex(node.getEndMark());
+        }
+
+        /*
+        * 获取块风格映射中的键所在的列；若该键所在的行在其之前还有其他内容，则返回-1
+        * */
+        int getKeyColumn(int keyStart) {
+            int lineStart = getLineStart(keyStart);
+            for (int i = lineStart; i < keyStart; i++) {
+                if(content.charAt(i) != ' ') {
+                    return -1;
+                }
+            }
+            return keyStart - lineStart;
+        }
+
+        /*
+        * 按 pubspecConfig 的序列化格式生成 #{key}: #{value} 的文本，并缩进到指定的列（第一行除外），末尾不带换行符
+        * */
+        String renderEntry(@NotNull String key, @NotNull Object value, int column) {
+            Map<String, Object> entry = new LinkedHashMap<String, Object>();
+            entry.put(key, value);
+            String dumpedEntry = new Yaml(createDumperOptions()).dump(entry);
+            if(dumpedEntry.endsWith("\n")) {
+                dumpedEntry = dumpedEntry.substring(0, dumpedEntry.length() - 1);
+            }
+
+            return dumpedEntry.replace("\n", lineSeparator + createIndent(column));
+        }
+
+        /*
+        * 按指定的缩进生成一个块风格列表项的文本，末尾不带换行符；列表项内部的内容按 pubspecConfig 的序列化格式生成
+        *
+        * @param indicatorColumn “-”所在的列
+        * @param itemOffset 列表项的内容所在的列相对于“-”所在的列的偏移
+        * */
+        String renderSequenceItem(@NotNull Object item, int indicatorColumn, int itemOffset) {
+            String dumpedItem = new Yaml(createDumperOptions()).dump(Collections.singletonList(item));
+            if(dumpedItem.endsWith("\n")) {
+                dumpedItem = dumpedItem.substring(0, dumpedItem.length() - 1);
+            }
+
+            // dumpedItem 形如 "- family: Amiri\n  fonts:\n  - asset: ..."：第一行以“- ”开头，其余行至少缩进2列
+            String[] lineArray = dumpedItem.split("\n", -1);
+            StringBuilder text = new StringBuilder();
+            text.append(createIndent(indicatorColumn)).append('-').append(createIndent(itemOffset - 1)).append(lineArray[0].substring(2));
+            for (int i = 1; i < lineArray.length; i++) {
+                text.append(lineSeparator).append(createIndent(indicatorColumn + itemOffset - 2)).append(lineArray[i]);
+            }
+            return text.toString();
+        }
+
+        /*
+        * 按指定的缩进生成块风格列表的所有列表项的文本，每一项之前都带有换行符
+        * */
+        String renderSequenceItems(@NotNull List<Object> itemArray, int indicatorColumn, int itemOffset) {
+            StringBuilder text = new StringBuilder();
+            for (Object item : itemArray) {
+                text.append(lineSeparator).append(renderSequenceItem(item, indicatorColumn, itemOffset));
+            }
+            return text.toString();
+        }
+
+        /*
+        * 生成流风格的值的文本，末尾不带换行符
+        * */
+        String renderFlowValue(@NotNull Object value) {
+            DumperOptions dumperOptions = new DumperOptions();
+            dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.FLOW);
+            dumperOptions.setWidth(Integer.MAX_VALUE);
+            String dumpedValue = new Yaml(dumperOptions).dump(value);
+            if(dumpedValue.endsWith("\n")) {
+                dumpedValue = dumpedValue.substring(0, dumpedValue.length() - 1);
+            }
+            return dumpedValue;
+        }
+    }
+
+    private static String createIndent(int column) {
+        StringBuilder indent = new StringBuilder(column);
+        for (int i = 0; i < column; i++) {
+            indent.append(' ');
+        }
+        return indent.toString();
+    }
+
+    private static Edit createReplaceEdit(@NotNull EditContext context, @NotNull MappingNode rootNode, @NotNull MappingNode parentNode, @NotNull NodeTuple nodeTuple, @NotNull String key, @NotNull Object newValue) {
+        int keyStart = context.toCharIndex(nodeTuple.getKeyNode().getStartMark());
+        int keyEnd = context.toCharIndex(nodeTuple.getKeyNode().getEndMark());
+        Node valueNode = nodeTuple.getValueNode();
+        int valueEnd = context.getContentEnd(valueNode);
+        int column = context.getKeyColumn(keyStart);
+        if(column < 0 || valueEnd < keyEnd) {
+            return null;
+        }
+
+        if(newValue instanceof List && ((List<Object>)newValue).isEmpty() == false) {
+            List<Object> newItemArray = (List<Object>)newValue;
+            if(valueNode instanceof SequenceNode && ((SequenceNode)valueNode).getValue().isEmpty() == false) {
+                SequenceNode sequenceNode = (SequenceNode)valueNode;
+                // 原列表是流风格：仍以流风格重写
+                if(sequenceNode.getFlowStyle() == DumperOptions.FlowStyle.FLOW) {
+                    int valueStart = context.toCharIndex(valueNode.getStartMark());
+                    return new Edit(valueStart, valueEnd, context.renderFlowValue(newItemArray));
+                }
+
+                Edit edit = createReplaceSequenceItemsEdit(context, sequenceNode, column, newItemArray);
+                if(edit != null) {
+                    return edit;
+                }
+            } else {
+                // 原列表为空：沿用 pubspec.yaml 中其他块风格列表的缩进
+                SequenceStyle sequenceStyle = findSequenceStyle(context, rootNode, parentNode);
+                String text = key + ":" + context.renderSequenceItems(newItemArray, column + sequenceStyle.indicatorIndent, sequenceStyle.itemOffset);
+                return new Edit(keyStart, valueEnd, text);
+            }
+        }
+
+        String text = context.renderEntry(key, newValue, column);
+        return new Edit(keyStart, valueEnd, text);
+    }
+
+    /*
+    * 只重写块风格列表的列表项：沿用原列表的缩进，原列表中仍然存在的项原样保留（包括其前面的注释行和行尾注释）；
+    * 若无法识别原列表的缩进，则返回null
+    *
+    * === Examples
+    * pubspec_content = "  assets:\n    - \"a.png\" # logo\n    - b.png\n"
+    * new_item_array = ["a.png", "c.png"]
+    * edited_pubspec_content = "  assets:\n    - \"a.png\" # logo\n    - c.png\n"
+    * */
+    private static Edit createReplaceSequenceItemsEdit(@NotNull EditContext context, @NotNull SequenceNode sequenceNode, int keyColumn, @NotNull List<Object> newItemArray) {
+        SequenceStyle sequenceStyle = detectSequenceStyle(context, sequenceNode, keyColumn);
+        if(sequenceStyle == null) {
+            return null;
+        }
+
+        // 原列表的每一项的文本：从上一项所在行的下一行开始，到该项最后一行的行尾为止
+        Map<Object, ArrayDeque<String>> oldItemTextDict = new HashMap<Object, ArrayDeque<String>>();
+        List<Node> itemNodeArray = sequenceNode.getValue();
+        int replaceStart = context.getLineStart(context.toCharIndex(itemNodeArray.get(0).getStartMark()));
+        int replaceEnd = replaceStart;
+        int itemTextStart = replaceStart;
+        for (Node itemNode : itemNodeArray) {
+            int itemTextEnd = context.getLineEnd(context.getContentEnd(itemNode));
+            String itemText = context.content.substring(itemTextStart, itemTextEnd);
+            oldItemTextDict.computeIfAbsent(toPlainValue(itemNode), k -> new ArrayDeque<String>()).add(itemText);
+            replaceEnd = itemTextEnd;
+            itemTextStart = context.getNextLineStart(itemTextEnd);
+        }
+
+        int indicatorColumn = keyColumn + sequenceStyle.indicatorIndent;
+        StringBuilder text = new StringBuilder();
+        for (Object newItem : newItemArray) {
+            if(text.length() > 0) {
+                text.append(context.lineSeparator);
+            }
+            ArrayDeque<String> oldItemTextQueue = oldItemTextDict.get(toPlainValue(newItem));
+            if(oldItemTextQueue != null && oldItemTextQueue.isEmpty() == false) {
+                text.append(oldItemTextQueue.poll());
+            } else {
+                text.append(context.renderSequenceItem(newItem, indicatorColumn, sequenceStyle.itemOffset));
+            }
+        }
+        return new Edit(replaceStart, replaceEnd, text.toString());
+    }
+
+    /*
+    * 识别非空的块风格列表的缩进风格；若“-”所在的行在其之前还有其他内容，或者“-”与第一项不在同一行，则返回null
+    * */
+    private static SequenceStyle detectSequenceStyle(@NotNull EditContext context, @NotNull SequenceNode sequenceNode, int keyColumn) {
+        List<Node> itemNodeArray = sequenceNode.getValue();
+        if(sequenceNode.getFlowStyle() != DumperOptions.FlowStyle.BLOCK || itemNodeArray.isEmpty()) {
+            return null;
+        }
+
+        int itemStart = context.toCharIndex(itemNodeArray.get(0).getStartMark());
+        int lineStart = context.getLineStart(itemStart);
+        int indicatorIndex = context.content.lastIndexOf('-', itemStart - 1);
+        if(indicatorIndex < lineStart) {
+            return null;
+        }
+        for (int i = lineStart; i < itemStart; i++) {
+            if(i != indicatorIndex && context.content.charAt(i) != ' ') {
+                return null;
+            }
+        }
+
+        int indicatorColumn = indicatorIndex - lineStart;
+        if(indicatorColumn < keyColumn) {
+            return null;
+        }
+        return new SequenceStyle(indicatorColumn - keyColumn, itemStart - indicatorIndex);
+    }
+
+    /*
+    * 查找第一个非空的块风格列表（先在 parentNode 中查找，再在整个 pubspec.yaml 中查找，均按层级由浅到深），返回其缩进风格；
+    * 若不存在，则返回默认的缩进风格
+    * */
+    private static SequenceStyle findSequenceStyle(@NotNull EditContext context, @NotNull MappingNode rootNode, @NotNull MappingNode parentNode) {
+        SequenceStyle sequenceStyle = findSequenceStyle(context, parentNode);
+        if(sequenceStyle == null && parentNode != rootNode) {
+            sequenceStyle = findSequenceStyle(context, rootNode);
+        }
+        return sequenceStyle != null ? sequenceStyle : DEFAULT_SEQUENCE_STYLE;
+    }
+
+    private static SequenceStyle findSequenceStyle(@NotNull EditContext context, @NotNull MappingNode mappingNode) {
+        ArrayDeque<MappingNode> mappingNodeQueue = new ArrayDeque<MappingNode>();
+        mappingNodeQueue.add(mappingNode);
+        while (mappingNodeQueue.isEmpty() == false) {
+            for (NodeTuple nodeTuple : mappingNodeQueue.poll().getValue()) {
+                Node valueNode = nodeTuple.getValueNode();
+                if(valueNode instanceof MappingNode) {
+                    mappingNodeQueue.add((MappingNode)valueNode);
+                } else if(valueNode instanceof SequenceNode) {
+                    int keyColumn = context.getKeyColumn(context.toCharIndex(nodeTuple.getKeyNode().getStartMark()));
+                    SequenceStyle sequenceStyle = keyColumn >= 0 ? detectSequenceStyle(context, (SequenceNode)valueNode, keyColumn) : null;
+                    if(sequenceStyle != null) {
+                        return sequenceStyle;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Edit createRemoveEdit(@NotNull EditContext context, @NotNull NodeTuple nodeTuple) {
+        int keyStart = context.toCharIndex(nodeTuple.getKeyNode().getStartMark());
+        int keyEnd = context.toCharIndex(nodeTuple.getKeyNode().getEndMark());
+        int valueEnd = context.getContentEnd(nodeTuple.getValueNode());
+        if(context.getKeyColumn(keyStart) < 0 || valueEnd < keyEnd) {
+            return null;
+        }
+
+        // 删除整行，包括行尾注释和其后的换行符
+        int removeStart = context.getLineStart(keyStart);
+        int removeEnd = context.getNextLineStart(context.getLineEnd(valueEnd));
+        return new Edit(removeStart, removeEnd, "");
+    }
+
+    private static Edit createInsertEdit(@NotNull EditContext context, @NotNull MappingNode rootNode, @NotNull MappingNode parentNode, @NotNull String key, @NotNull Object newValue) {
+        List<NodeTuple> nodeTupleArray = parentNode.getValue();
+        if(parentNode.getFlowStyle() != DumperOptions.FlowStyle.BLOCK || nodeTupleArray.isEmpty()) {
+            return null;
+        }
+
+        // 新增的配置项追加到父映射的末尾，与父映射的第一个键对齐
+        int firstKeyStart = context.toCharIndex(nodeTupleArray.get(0).getKeyNode().getStartMark());
+        int column = context.getKeyColumn(firstKeyStart);
+        if(column < 0) {
+            return null;
+        }
+
+        // 插入到父映射最后一行的行尾，即该行的行尾注释之后
+        int insertIndex = context.getLineEnd(context.getContentEnd(parentNode));
+        String text;
+        if(newValue instanceof List && ((List<Object>)newValue).isEmpty() == false) {
+            // 新增的列表沿用 pubspec.yaml 中其他块风格列表的缩进
+            SequenceStyle sequenceStyle = findSequenceStyle(context, rootNode, parentNode);
+            text = key + ":" + context.renderSequenceItems((List<Object>)newValue, column + sequenceStyle.indicatorIndent, sequenceStyle.itemOffset);
+        } else {
+            text = context.renderEntry(key, newValue, column);
+        }
+        return new Edit(insertIndex, insertIndex, context.lineSeparator + createIndent(column) + text);
+    }
+
+    private static NodeTuple findNodeTuple(@NotNull MappingNode mappingNode, @NotNull String key) {
+        NodeTuple foundNodeTuple = null;
+        for (NodeTuple nodeTuple : mappingNode.getValue()) {
+            Node keyNode = nodeTuple.getKeyNode();
+            if(keyNode instanceof ScalarNode && key.equals(((ScalarNode)keyNode).getValue())) {
+                // 与解析结果保持一致：重复的键以最后一个为准
+                foundNodeTuple = nodeTuple;
+            }
+        }
+        return foundNodeTuple;
+    }
+
+    private static Node findValueNode(@NotNull MappingNode mappingNode, @NotNull String key) {
+        NodeTuple nodeTuple = findNodeTuple(mappingNode, key);
+        return nodeTuple != null ? nodeTuple.getValueNode() : null;
+    }
+
+    /*
+    * 把YAML节点或者配置值转换为便于比较的形式：标量转换为字符串，映射和列表逐项转换
+    * */
+    private static Object toPlainValue(Object value) {
+        if(value instanceof ScalarNode) {
+            ScalarNode scalarNode = (ScalarNode)value;
+            if(Tag.NULL.equals(scalarNode.getTag())) {
+                return null;
+            }
+            return scalarNode.getValue();
+        }
+        if(value instanceof SequenceNode) {
+            List<Object> plainList = new ArrayList<Object>();
+            for (Node itemNode : ((SequenceNode)value).getValue()) {
+                plainList.add(toPlainValue(itemNode));
+            }
+            return plainList;
+        }
+        if(value instanceof MappingNode) {
+            Map<Object, Object> plainMap = new LinkedHashMap<Object, Object>();
+            for (NodeTuple nodeTuple : ((MappingNode)value).getValue()) {
+                plainMap.put(toPlainValue(nodeTuple.getKeyNode()), toPlainValue(nodeTuple.getValueNode()));
+            }
+            return plainMap;
+        }
+        if(value instanceof Node) {
+            return value;
+        }
+
+        if(value instanceof Map) {
+            Map<Object, Object> plainMap = new LinkedHashMap<Object, Object>();
+            for (Map.Entry<Object, Object> entry : ((Map<Object, Object>)value).entrySet()) {
+                plainMap.put(toPlainValue(entry.getKey()), toPlainValue(entry.getValue()));
+            }
+            return plainMap;
+        }
+        if(value instanceof List) {
+            List<Object> plainList = new ArrayList<Object>();
+            for (Object item : (List<Object>)value) {
+                plainList.add(toPlainValue(item));
+            }
+            return plainList;
+        }
+        return value != null ? String.valueOf(value) : null;
+    }
+}
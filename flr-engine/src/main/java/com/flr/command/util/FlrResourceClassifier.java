@@ -0,0 +1,296 @@
+package com.flr.command.util;
+
+import com.flr.FlrConstant;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.util.List;
+import java.util.Locale;
+
+/*
+* 资源文件分类器
+*
+* 在类加载时根据 FlrConstant 中的文件类型列表预先构建扩展名表（开放寻址的哈希表，按忽略大小写的方式计算哈希），
+* 之后对每个文件的分类只需在扩展名表中查找一次，合法性判断也只是逐个字符地检查字符类别；
+* 两者都直接在文件名（或者文件路径）上按下标进行，不使用正则，也不创建新的字符串。
+*
+* 分类规则与原来基于 FlrConstant 文件类型列表的判断完全一致：
+* - 文件的扩展名为文件名中最后一个“.”及其之后的部分，不区分大小写；
+* - 若一个扩展名同时出现在多个文件类型列表中，则按 nonSvgImage、svgImage、text、font 的顺序取第一个。
+*
+* === Examples
+* FlrResourceClassifier.getFileType("~/path/to/flutter_r_demo/lib/assets/images/test.PNG") => FileType.nonSvgImage
+* FlrResourceClassifier.getFileType("~/path/to/flutter_r_demo/lib/assets/images/test.psd") => FileType.other
+* FlrResourceClassifier.isLegalFileName("~/path/to/flutter_r_demo/lib/assets/images/test-1.png") => true
+* FlrResourceClassifier.isLegalFileName("~/path/to/flutter_r_demo/lib/assets/images/test 1.png") => false
+* */
+public class FlrResourceClassifier {
+
+    /*
+    * 资源文件的分类
+    * */
+    public enum FileType {
+        nonSvgImage,
+        svgImage,
+        text,
+        font,
+        other
+    }
+
+    // 扩展名表的容量，为2的幂次，且不小于扩展名数量的4倍，以保证探测链足够短
+    private static final int EXTENSION_TABLE_CAPACITY;
+    // 扩展名表：小写的扩展名（带“.”），以及对应的文件类型
+    private static final String[] extensionTable;
+    private static final FileType[] fileTypeTable;
+
+    static {
+        int extensionCount = FlrConstant.NON_SVG_IMAGE_FILE_TYPES.size()
+                + FlrConstant.SVG_IMAGE_FILE_TYPES.size()
+                + FlrConstant.TEXT_FILE_TYPES.size()
+                + FlrConstant.FONT_FILE_TYPES.size();
+        int capacity = 16;
+        while (capacity < extensionCount * 4) {
+            capacity <<= 1;
+        }
+        EXTENSION_TABLE_CAPACITY = capacity;
+        extensionTable = new String[capacity];
+        fileTypeTable = new FileType[capacity];
+
+        putExtensions(FlrConstant.NON_SVG_IMAGE_FILE_TYPES, FileType.nonSvgImage);
+        putExtensions(FlrConstant.SVG_IMAGE_FILE_TYPES, FileType.svgImage);
+        putExtensions(FlrConstant.TEXT_FILE_TYPES, FileType.text);
+        putExtensions(FlrConstant.FONT_FILE_TYPES, FileType.font);
+    }
+
+    private static void putExtensions(@NotNull List<String> fileTypeArray, @NotNull FileType fileType) {
+        for (String fileExtName : fileTypeArray) {
+            String lowerFileExtName = fileExtName.toLowerCase(Locale.ROOT);
+            int slot = hashIgnoreCase(lowerFileExtName, 0, lowerFileExtName.length()) & (EXTENSION_TABLE_CAPACITY - 1);
+            while (extensionTable[slot] != null) {
+                if(extensionTable[slot].equals(lowerFileExtName)) {
+                    // 已出现在更靠前的文件类型列表中
+                    break;
+                }
+                slot = (slot + 1) & (EXTENSION_TABLE_CAPACITY - 1);
+            }
+            if(extensionTable[slot] == null) {
+                extensionTable[slot] = lowerFileExtName;
+                fileTypeTable[slot] = fileType;
+            }
+        }
+    }
+
+    private static int hashIgnoreCase(@NotNull CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + Character.toLowerCase(text.charAt(i));
+        }
+        // 混合高位，避免短扩展名的哈希值只落在低位
+        return hash ^ (hash >>> 16);
+    }
+
+    /*
+    * 获取文件名在路径中的起始下标：路径中最后一个“/”（或者本地文件路径分隔符）之后的位置
+    * */
+    private static int getFileNameStartIndex(@NotNull CharSequence path) {
+        for (int i = path.length() - 1; i >= 0; i--) {
+            char c = path.charAt(i);
+            if(c == '/' || c == File.separatorChar) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /*
+    * 获取文件名中最后一个“.”的下标；若文件名中没有“.”，则返回-1
+    * */
+    private static int getExtensionDotIndex(@NotNull CharSequence path, int fileNameStartIndex) {
+        for (int i = path.length() - 1; i >= fileNameStartIndex; i--) {
+            if(path.charAt(i) == '.') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+    * 根据文件路径（或者文件名）获取文件的分类，文件不必存在
+    *
+    * === Examples
+    * path = "~/path/to/flutter_r_demo/lib/assets/images/test.png" => FileType.nonSvgImage
+    * path = "test.svg" => FileType.svgImage
+    * path = "~/path/to/flutter_r_demo/lib/assets/images/.DS_Store" => FileType.other
+    * */
+    public static FileType getFileType(@NotNull CharSequence path) {
+        int fileNameStartIndex = getFileNameStartIndex(path);
+        int dotIndex = getExtensionDotIndex(path, fileNameStartIndex);
+        if(dotIndex < 0) {
+            return FileType.other;
+        }
+
+        int end = path.length();
+        int extLength = end - dotIndex;
+        int slot = hashIgnoreCase(path, dotIndex, end) & (EXTENSION_TABLE_CAPACITY - 1);
+        String fileExtName;
+        while ((fileExtName = extensionTable[slot]) != null) {
+            if(fileExtName.length() == extLength && regionEqualsIgnoreCase(fileExtName, path, dotIndex)) {
+                return fileTypeTable[slot];
+            }
+            slot = (slot + 1) & (EXTENSION_TABLE_CAPACITY - 1);
+        }
+        return FileType.other;
+    }
+
+    private static boolean regionEqualsIgnoreCase(@NotNull String lowerText, @NotNull CharSequence text, int start) {
+        for (int i = 0; i < lowerText.length(); i++) {
+            if(Character.toLowerCase(text.charAt(start + i)) != lowerText.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+    * 根据文件路径（或者文件名）判断文件名是否合法，文件不必存在
+    *
+    * 判断的标准是：文件名除去扩展名后的部分不为空，且只包含大小写字母、数字、“_”、“+”、“-”、“.”、“·”、“!”、“@”、“&”、“$”、“￥”
+    * （等价于正则：“^[a-zA-Z0-9_\+\-\.·!@&$￥]+$”）
+    *
+    * === Examples
+    * path = "~/path/to/flutter_r_demo/lib/assets/images/test_1.png" => true
+    * path = "~/path/to/flutter_r_demo/lib/assets/images/test 1.png" => false
+    * path = "~/path/to/flutter_r_demo/lib/assets/images/.png" => false
+    * */
+    public static boolean isLegalFileName(@NotNull CharSequence path) {
+        int fileNameStartIndex = getFileNameStartIndex(path);
+        int dotIndex = getExtensionDotIndex(path, fileNameStartIndex);
+        int end = (dotIndex < 0) ? path.length() : dotIndex;
+        if(end <= fileNameStartIndex) {
+            return false;
+        }
+
+        for (int i = fileNameStartIndex; i < end; i++) {
+            if(isLegalFileNameChar(path.charAt(i)) == false) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLegalFileNameChar(char c) {
+        if((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+            return true;
+        }
+        switch (c) {
+            case '_':
+            case '+':
+            case '-':
+            case '.':
+            case '·':
+            case '!':
+            case '@':
+            case '&':
+            case '$':
+            case '￥':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /*
+    * 根据文件路径判断其父目录是否为倍率变体目录，文件不必存在
+    *
+    * 倍率变体目录的特征等价于正则：“^((0\.[0-9]+)|([1-9]+[0-9]*(\.[0-9]+)?))[x]$”
+    *
+    * === Examples
+    * path = "~/path/to/flutter_r_demo/lib/assets/images/3.0x/test.png" => true
+    * path = "~/path/to/flutter_r_demo/lib/assets/images/0.5x/test.png" => true
+    * path = "~/path/to/flutter_r_demo/lib/assets/images/03x/test.png" => false
+    * path = "~/path/to/flutter_r_demo/lib/assets/images/test.png" => false
+    * */
+    public static boolean isInRatioDir(@NotNull CharSequence path) {
+        int parentDirEndIndex = path.length() - 1;
+        while (parentDirEndIndex >= 0 && path.charAt(parentDirEndIndex) != '/') {
+            parentDirEndIndex -= 1;
+        }
+        if(parentDirEndIndex < 0) {
+            return false;
+        }
+        int parentDirStartIndex = 0;
+        for (int i = parentDirEndIndex - 1; i >= 0; i--) {
+            if(path.charAt(i) == '/') {
+                parentDirStartIndex = i + 1;
+                break;
+            }
+        }
+        return isRatioDirName(path, parentDirStartIndex, parentDirEndIndex);
+    }
+
+    /*
+    * 判断目录名是否为倍率变体目录的名称
+    *
+    * === Examples
+    * dirName = "2.0x" => true
+    * dirName = "2x" => true
+    * dirName = "2.x" => false
+    * */
+    public static boolean isRatioDirName(@NotNull CharSequence dirName) {
+        return isRatioDirName(dirName, 0, dirName.length());
+    }
+
+    private static boolean isRatioDirName(@NotNull CharSequence text, int start, int end) {
+        // 至少包含一位数字和末尾的“x”
+        if(end - start < 2 || text.charAt(end - 1) != 'x') {
+            return false;
+        }
+        end -= 1;
+
+        int i = start;
+        char firstChar = text.charAt(i);
+        if(firstChar == '0') {
+            // 0\.[0-9]+
+            i += 1;
+            if(i >= end || text.charAt(i) != '.') {
+                return false;
+            }
+            return isDigits(text, i + 1, end);
+        }
+        if(firstChar < '1' || firstChar > '9') {
+            return false;
+        }
+
+        // [1-9]+[0-9]*(\.[0-9]+)?
+        i += 1;
+        while (i < end && isDigit(text.charAt(i))) {
+            i += 1;
+        }
+        if(i == end) {
+            return true;
+        }
+        if(text.charAt(i) != '.') {
+            return false;
+        }
+        return isDigits(text, i + 1, end);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /*
+    * 判断 [start, end) 是否为非空的数字序列
+    * */
+    private static boolean isDigits(@NotNull CharSequence text, int start, int end) {
+        if(start >= end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if(isDigit(text.charAt(i)) == false) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,505 @@
+package com.flr.command.util;
+
+import com.flr.FlrConstant;
+import com.flr.command.util.FlrResourceClassifier.FileType;
+import com.flr.engine.FlrFileSystem;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/*
+* 资源扫描器
+*
+* 一次性扫描指定flutter工程的所有assets_legal_resource_dir和font_family_dir，
+* 在同一次遍历中对每个文件进行分类（图片、文本、字体、非法），输出扫描结果 Result。
+* 所有目录都通过 FlrFileSystem 列举，插件使用基于IDE虚拟文件系统的实现，CI等环境使用 FlrNioFileSystem。
+*
+* 当资源目录之间存在嵌套关系时（如 "lib/assets" 和 "lib/assets/images"），
+* 只会遍历最外层的目录，保证每个子目录树只被遍历一次。
+*
+* 当 FlrConstant.SCAN_PARALLELISM 大于1时，各个最外层目录会被分发到一个有界的 ForkJoinPool 中并行扫描，
+* 然后按照目录顺序合并各个目录的扫描结果，因此并行扫描和顺序扫描的结果完全一致。
+*
+* 当传入了扫描索引 FlrScanIndex 时，扫描会基于索引进行：目录戳未变化的目录直接复用索引中的记录，不再重新列举和分类其子项。
+* */
+public class FlrResourceScanner {
+
+    private static ForkJoinPool scanPool;
+
+    /*
+    * 扫描结果
+    *
+    * 注意：结果中的所有文件均以以“/”分隔的绝对路径的形式保存
+    *
+    * === Examples
+    * legalImageFileArray = ["~/path/to/flutter_project/lib/assets/images/test.png", "~/path/to/flutter_project/lib/assets/images/2.0x/test.png"]
+    * illegalImageFileArray = ["~/path/to/flutter_project/lib/assets/images/~.png"]
+    * legalTextFileArray = ["~/path/to/flutter_project/lib/assets/jsons/city.json"]
+    * illegalTextFileArray = ["~/path/to/flutter_project/lib/assets/jsons/~.json"]
+    * fontFamilyDirArray = ["~/path/to/flutter_project/lib/assets/fonts/Amiri"]
+    * legalFontFileDict = {"~/path/to/flutter_project/lib/assets/fonts/Amiri": ["~/path/to/flutter_project/lib/assets/fonts/Amiri/Amiri-Regular.ttf"]}
+    * illegalFontFileArray = ["~/path/to/flutter_project/lib/assets/fonts/Amiri/~.ttf"]
+    * */
+    public static class Result {
+        public List<String> legalImageFileArray = new ArrayList<String>();
+        public List<String> illegalImageFileArray = new ArrayList<String>();
+
+        public List<String> legalTextFileArray = new ArrayList<String>();
+        public List<String> illegalTextFileArray = new ArrayList<String>();
+
+        // 字体家族目录数组，其顺序为fonts_legal_resource_dir的配置顺序
+        public List<String> fontFamilyDirArray = new ArrayList<String>();
+        // 字体家族目录到其legal_font_file数组的映射
+        public Map<String, List<String>> legalFontFileDict = new LinkedHashMap<String, List<String>>();
+        public List<String> illegalFontFileArray = new ArrayList<String>();
+
+        // 扫描范围：生成该扫描结果时使用的资源目录配置
+        public List<String> assetsLegalResourceDirArray = new ArrayList<String>();
+        public List<String> fontsLegalResourceDirArray = new ArrayList<String>();
+        Set<String> assetsDirPathSet = new HashSet<String>();
+        Set<String> fontsDirPathSet = new HashSet<String>();
+        Set<String> fontFamilyDirPathSet = new HashSet<String>();
+
+        /*
+        * 复制当前扫描结果；对副本的增量更新不会影响当前扫描结果
+        * */
+        public Result copy() {
+            Result result = new Result();
+            result.legalImageFileArray = new ArrayList<String>(legalImageFileArray);
+            result.illegalImageFileArray = new ArrayList<String>(illegalImageFileArray);
+            result.legalTextFileArray = new ArrayList<String>(legalTextFileArray);
+            result.illegalTextFileArray = new ArrayList<String>(illegalTextFileArray);
+            result.fontFamilyDirArray = new ArrayList<String>(fontFamilyDirArray);
+            for (Map.Entry<String, List<String>> entry : legalFontFileDict.entrySet()) {
+                result.legalFontFileDict.put(entry.getKey(), new ArrayList<String>(entry.getValue()));
+            }
+            result.illegalFontFileArray = new ArrayList<String>(illegalFontFileArray);
+            result.assetsLegalResourceDirArray = new ArrayList<String>(assetsLegalResourceDirArray);
+            result.fontsLegalResourceDirArray = new ArrayList<String>(fontsLegalResourceDirArray);
+            result.assetsDirPathSet = new HashSet<String>(assetsDirPathSet);
+            result.fontsDirPathSet = new HashSet<String>(fontsDirPathSet);
+            result.fontFamilyDirPathSet = new HashSet<String>(fontFamilyDirPathSet);
+            return result;
+        }
+
+        /*
+        * 判断当前扫描结果是不是基于指定的资源目录配置扫描得到的
+        * */
+        public boolean isScannedFrom(@NotNull List<String> assetsLegalResourceDirArray, @NotNull List<String> fontsLegalResourceDirArray) {
+            return this.assetsLegalResourceDirArray.equals(assetsLegalResourceDirArray)
+                    && this.fontsLegalResourceDirArray.equals(fontsLegalResourceDirArray);
+        }
+
+        /*
+        * 判断指定路径是否在当前扫描结果的扫描范围内
+        * */
+        public boolean isInScanScope(@NotNull String path) {
+            return getScanContext(path) != null || fontsDirPathSet.contains(getParentPath(path));
+        }
+
+        /*
+        * 把新增的资源文件更新到扫描结果中
+        * 若无法增量更新（如新增的是目录），则返回false，此时需要重新扫描
+        * */
+        public boolean addResourceFile(@NotNull String filePath, boolean isDirectory) {
+            if(isDirectory) {
+                return isInScanScope(filePath) == false;
+            }
+
+            ScanContext context = getScanContext(getParentPath(filePath));
+            if(context == null) {
+                return true;
+            }
+
+            FileType fileType = FlrResourceClassifier.getFileType(filePath);
+            if(fileType == FileType.other) {
+                return true;
+            }
+
+            removeResourceFile(filePath, false);
+            classifyFile(filePath, fileType, FlrResourceClassifier.isLegalFileName(filePath), context, this);
+            return true;
+        }
+
+        /*
+        * 把删除的资源文件从扫描结果中移除
+        * 若无法增量更新（如删除的是资源目录或者字体家族目录本身），则返回false，此时需要重新扫描
+        * */
+        public boolean removeResourceFile(@NotNull String filePath, boolean isDirectory) {
+            if(isDirectory) {
+                if(assetsDirPathSet.contains(filePath) || fontFamilyDirPathSet.contains(filePath)) {
+                    return false;
+                }
+                for (String dirPath : assetsDirPathSet) {
+                    if(dirPath.startsWith(filePath + "/")) {
+                        return false;
+                    }
+                }
+                for (String dirPath : fontFamilyDirPathSet) {
+                    if(dirPath.startsWith(filePath + "/")) {
+                        return false;
+                    }
+                }
+
+                String dirPrefix = filePath + "/";
+                legalImageFileArray.removeIf(path -> path.startsWith(dirPrefix));
+                illegalImageFileArray.removeIf(path -> path.startsWith(dirPrefix));
+                legalTextFileArray.removeIf(path -> path.startsWith(dirPrefix));
+                illegalTextFileArray.removeIf(path -> path.startsWith(dirPrefix));
+                illegalFontFileArray.removeIf(path -> path.startsWith(dirPrefix));
+                for (List<String> legalFontFileArray : legalFontFileDict.values()) {
+                    legalFontFileArray.removeIf(path -> path.startsWith(dirPrefix));
+                }
+                return true;
+            }
+
+            legalImageFileArray.remove(filePath);
+            illegalImageFileArray.remove(filePath);
+            legalTextFileArray.remove(filePath);
+            illegalTextFileArray.remove(filePath);
+            illegalFontFileArray.remove(filePath);
+            for (List<String> legalFontFileArray : legalFontFileDict.values()) {
+                legalFontFileArray.remove(filePath);
+            }
+            return true;
+        }
+
+        /*
+        * 根据扫描范围，生成指定目录的上下文；若目录不在扫描范围内，则返回null
+        * */
+        private ScanContext getScanContext(@NotNull String dirPath) {
+            boolean isInAssetsDir = false;
+            List<String> fontFamilyDirArray = new ArrayList<String>();
+
+            int slashIndex = dirPath.indexOf('/', 1);
+            while (true) {
+                String ancestorDirPath = (slashIndex == -1) ? dirPath : dirPath.substring(0, slashIndex);
+                if(assetsDirPathSet.contains(ancestorDirPath)) {
+                    isInAssetsDir = true;
+                }
+                if(fontFamilyDirPathSet.contains(ancestorDirPath)) {
+                    fontFamilyDirArray.add(ancestorDirPath);
+                }
+                if(slashIndex == -1) {
+                    break;
+                }
+                slashIndex = dirPath.indexOf('/', slashIndex + 1);
+            }
+
+            if(isInAssetsDir == false && fontFamilyDirArray.isEmpty()) {
+                return null;
+            }
+            return new ScanContext(isInAssetsDir, fontFamilyDirArray);
+        }
+    }
+
+    private static String getParentPath(@NotNull String path) {
+        int lastIndexOf = path.lastIndexOf("/");
+        if(lastIndexOf == -1) {
+            return "";
+        }
+        return path.substring(0, lastIndexOf);
+    }
+
+    /*
+    * 遍历过程中，每个目录所处的上下文：
+    * - isInAssetsDir：当前目录是否位于某个assets_legal_resource_dir中
+    * - fontFamilyDirArray：包含当前目录的所有font_family_dir
+    * */
+    private static class ScanContext {
+        final boolean isInAssetsDir;
+        final List<String> fontFamilyDirArray;
+
+        ScanContext(boolean isInAssetsDir, List<String> fontFamilyDirArray) {
+            this.isInAssetsDir = isInAssetsDir;
+            this.fontFamilyDirArray = fontFamilyDirArray;
+        }
+    }
+
+    /*
+    * 扫描assets_legal_resource_dir数组和fonts_legal_resource_dir数组，返回扫描结果
+    *
+    * 判断资源文件合法的标准参考：FlrResourceClassifier.isLegalFileName 方法
+    * */
+    public static Result scan(@NotNull FlrFileSystem fileSystem, @NotNull List<String> assetsLegalResourceDirArray, @NotNull List<String> fontsLegalResourceDirArray) {
+        return scan(fileSystem, assetsLegalResourceDirArray, fontsLegalResourceDirArray, null);
+    }
+
+    /*
+    * 扫描assets_legal_resource_dir数组和fonts_legal_resource_dir数组，返回扫描结果
+    * 若scanIndex不为null，则基于扫描索引进行扫描，并在扫描过程中更新索引
+    * */
+    public static Result scan(@NotNull FlrFileSystem fileSystem, @NotNull List<String> assetsLegalResourceDirArray, @NotNull List<String> fontsLegalResourceDirArray, FlrScanIndex scanIndex) {
+        Result result = new Result();
+        result.assetsLegalResourceDirArray = new ArrayList<String>(assetsLegalResourceDirArray);
+        result.fontsLegalResourceDirArray = new ArrayList<String>(fontsLegalResourceDirArray);
+
+        Set<String> assetsDirPathSet = result.assetsDirPathSet;
+        Set<String> fontFamilyDirPathSet = result.fontFamilyDirPathSet;
+        Set<String> rootDirPathSet = new LinkedHashSet<String>();
+
+        for (String resourceDir : assetsLegalResourceDirArray) {
+            String resourceDirPath = normalizeDirPath(resourceDir);
+            if(fileSystem.isDirectory(resourceDirPath) == false) {
+                continue;
+            }
+            assetsDirPathSet.add(resourceDirPath);
+            rootDirPathSet.add(resourceDirPath);
+        }
+
+        for (String resourceDir : fontsLegalResourceDirArray) {
+            String resourceDirPath = normalizeDirPath(resourceDir);
+            if(fileSystem.isDirectory(resourceDirPath) == false) {
+                continue;
+            }
+            result.fontsDirPathSet.add(resourceDirPath);
+
+            for (String fontFamilyDir : findTopChildDirs(fileSystem, resourceDirPath)) {
+                if(fontFamilyDirPathSet.add(fontFamilyDir) == false) {
+                    continue;
+                }
+                result.fontFamilyDirArray.add(fontFamilyDir);
+                result.legalFontFileDict.put(fontFamilyDir, new ArrayList<String>());
+                rootDirPathSet.add(fontFamilyDir);
+            }
+        }
+
+        List<String> distinctRootDirArray = getDistinctRootDirs(rootDirPathSet);
+        FlrScanIndex.ScanSession scanSession = (scanIndex != null) ? scanIndex.beginScan(fileSystem) : null;
+
+        boolean isScannedInParallel = false;
+        if(FlrConstant.SCAN_PARALLELISM > 1 && distinctRootDirArray.size() > 1) {
+            isScannedInParallel = scanInParallel(fileSystem, distinctRootDirArray, assetsDirPathSet, fontFamilyDirPathSet, scanSession, result);
+        }
+
+        if(isScannedInParallel == false) {
+            for (String rootDir : distinctRootDirArray) {
+                scanDir(fileSystem, rootDir, null, assetsDirPathSet, fontFamilyDirPathSet, scanSession, new HashSet<String>(), result);
+            }
+        }
+
+        // 移除本次扫描中没有访问到的目录（如已被删除或者重命名的资源目录）的索引记录
+        if(scanSession != null) {
+            scanIndex.endScan(scanSession);
+        }
+
+        return result;
+    }
+
+    /*
+    * 去掉目录路径末尾多余的“/”，使其与文件变化事件中的路径一致
+    *
+    * === Examples
+    * dirPath = "~/path/to/flutter_project/lib/assets/images/" => "~/path/to/flutter_project/lib/assets/images"
+    * */
+    private static String normalizeDirPath(@NotNull String dirPath) {
+        int endIndex = dirPath.length();
+        while (endIndex > 1 && dirPath.charAt(endIndex - 1) == '/') {
+            endIndex -= 1;
+        }
+        return dirPath.substring(0, endIndex);
+    }
+
+    /*
+    * 扫描指定的资源目录，返回其所有第一级子目录
+    *
+    * === Examples
+    * resourceDir = "~/path/to/flutter_project/lib/assets/fonts"
+    * topChildDirArray = ["~/path/to/flutter_project/lib/assets/fonts/Amiri", "~/path/to/flutter_project/lib/assets/fonts/Open_Sans"]
+    * */
+    private static List<String> findTopChildDirs(@NotNull FlrFileSystem fileSystem, @NotNull String resourceDir) {
+        List<String> topChildDirArray = new ArrayList<String>();
+        try {
+            for (String childName : fileSystem.listChildNames(resourceDir)) {
+                String childPath = resourceDir + "/" + childName;
+                if(fileSystem.isDirectory(childPath)) {
+                    topChildDirArray.add(childPath);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return topChildDirArray;
+    }
+
+    private static synchronized ForkJoinPool getScanPool() {
+        if(scanPool == null || scanPool.getParallelism() != FlrConstant.SCAN_PARALLELISM) {
+            if(scanPool != null) {
+                scanPool.shutdown();
+            }
+            scanPool = new ForkJoinPool(FlrConstant.SCAN_PARALLELISM);
+        }
+        return scanPool;
+    }
+
+    /*
+    * 并行扫描各个最外层目录，每个目录输出一个独立的部分扫描结果，然后按照目录顺序合并到 result
+    * 若并行扫描失败，则返回false，由调用方退回到顺序扫描
+    * */
+    private static boolean scanInParallel(@NotNull FlrFileSystem fileSystem, @NotNull List<String> rootDirArray, @NotNull Set<String> assetsDirPathSet, @NotNull Set<String> fontFamilyDirPathSet, FlrScanIndex.ScanSession scanSession, @NotNull Result result) {
+        List<Callable<Result>> scanTasks = new ArrayList<Callable<Result>>();
+        for (String rootDir : rootDirArray) {
+            scanTasks.add(new Callable<Result>() {
+                @Override
+                public Result call() {
+                    Result subResult = new Result();
+                    scanDir(fileSystem, rootDir, null, assetsDirPathSet, fontFamilyDirPathSet, scanSession, new HashSet<String>(), subResult);
+                    return subResult;
+                }
+            });
+        }
+
+        List<Result> subResultArray = new ArrayList<Result>();
+        try {
+            for (Future<Result> future : getScanPool().invokeAll(scanTasks)) {
+                subResultArray.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        for (Result subResult : subResultArray) {
+            result.legalImageFileArray.addAll(subResult.legalImageFileArray);
+            result.illegalImageFileArray.addAll(subResult.illegalImageFileArray);
+            result.legalTextFileArray.addAll(subResult.legalTextFileArray);
+            result.illegalTextFileArray.addAll(subResult.illegalTextFileArray);
+            result.illegalFontFileArray.addAll(subResult.illegalFontFileArray);
+            for (Map.Entry<String, List<String>> entry : subResult.legalFontFileDict.entrySet()) {
+                result.legalFontFileDict.get(entry.getKey()).addAll(entry.getValue());
+            }
+        }
+        return true;
+    }
+
+    /*
+    * 过滤掉嵌套在其他目录中的目录，得到需要遍历的最外层目录数组
+    *
+    * === Examples
+    * rootDirs = ["~/flutter_project/lib/assets", "~/flutter_project/lib/assets/images", "~/flutter_project/assets/fonts/Amiri"]
+    * distinctRootDirs = ["~/flutter_project/assets/fonts/Amiri", "~/flutter_project/lib/assets"]
+    * */
+    static List<String> getDistinctRootDirs(@NotNull Set<String> rootDirPathSet) {
+        List<String> rootDirPathArray = new ArrayList<String>(rootDirPathSet);
+        Collections.sort(rootDirPathArray);
+
+        List<String> distinctRootDirArray = new ArrayList<String>();
+        Set<String> distinctRootDirPathSet = new HashSet<String>();
+        for (String rootDirPath : rootDirPathArray) {
+            // 排序后，祖先目录总是排在其嵌套目录之前；
+            // 逐级检测当前目录的祖先目录是否已经被选为最外层目录
+            boolean isNested = false;
+            int slashIndex = rootDirPath.indexOf('/', 1);
+            while (slashIndex != -1) {
+                if(distinctRootDirPathSet.contains(rootDirPath.substring(0, slashIndex))) {
+                    isNested = true;
+                    break;
+                }
+                slashIndex = rootDirPath.indexOf('/', slashIndex + 1);
+            }
+            if(isNested) {
+                continue;
+            }
+            distinctRootDirPathSet.add(rootDirPath);
+            distinctRootDirArray.add(rootDirPath);
+        }
+        return distinctRootDirArray;
+    }
+
+    /*
+    * 递归扫描指定目录：若scanSession不为null，则使用扫描索引中的目录记录，否则直接列举目录
+    *
+    * visitedRealDirPathSet 用于检测符号链接导致的循环目录
+    * */
+    private static void scanDir(@NotNull FlrFileSystem fileSystem, @NotNull String dirPath, ScanContext parentContext, @NotNull Set<String> assetsDirPathSet, @NotNull Set<String> fontFamilyDirPathSet, FlrScanIndex.ScanSession scanSession, @NotNull Set<String> visitedRealDirPathSet, @NotNull Result result) {
+        try {
+            if(visitedRealDirPathSet.add(fileSystem.getRealPath(dirPath)) == false) {
+                return;
+            }
+        } catch (IOException e) {
+            return;
+        }
+
+        FlrScanIndex.DirEntry dirEntry = (scanSession != null) ? scanSession.getDirEntry(dirPath) : FlrScanIndex.listDirEntry(fileSystem, dirPath, 0L);
+        if(dirEntry == null) {
+            return;
+        }
+
+        ScanContext context = enterDir(parentContext, dirPath, assetsDirPathSet, fontFamilyDirPathSet);
+
+        // 文件记录和子目录记录均已按名称排序，按名称顺序交替处理，使结果顺序与按名称遍历目录树的结果一致
+        List<FlrScanIndex.FileEntry> fileEntryArray = dirEntry.fileEntryArray;
+        List<String> subDirNameArray = dirEntry.subDirNameArray;
+        int fileIndex = 0;
+        int subDirIndex = 0;
+        while (fileIndex < fileEntryArray.size() || subDirIndex < subDirNameArray.size()) {
+            if(subDirIndex >= subDirNameArray.size()
+                    || (fileIndex < fileEntryArray.size() && fileEntryArray.get(fileIndex).name.compareTo(subDirNameArray.get(subDirIndex)) < 0)) {
+                FlrScanIndex.FileEntry fileEntry = fileEntryArray.get(fileIndex++);
+                classifyFile(dirPath + "/" + fileEntry.name, fileEntry.fileType, fileEntry.isLegal, context, result);
+                continue;
+            }
+
+            String subDirPath = dirPath + "/" + subDirNameArray.get(subDirIndex++);
+            scanDir(fileSystem, subDirPath, context, assetsDirPathSet, fontFamilyDirPathSet, scanSession, visitedRealDirPathSet, result);
+        }
+    }
+
+    /*
+    * 进入目录时，根据父目录的上下文生成当前目录的上下文
+    * */
+    private static ScanContext enterDir(ScanContext parentContext, @NotNull String dirPath, @NotNull Set<String> assetsDirPathSet, @NotNull Set<String> fontFamilyDirPathSet) {
+        boolean isInAssetsDir = (parentContext != null && parentContext.isInAssetsDir);
+        List<String> fontFamilyDirArray = (parentContext != null) ? parentContext.fontFamilyDirArray : Collections.<String>emptyList();
+
+        if(assetsDirPathSet.contains(dirPath)) {
+            isInAssetsDir = true;
+        }
+        if(fontFamilyDirPathSet.contains(dirPath)) {
+            fontFamilyDirArray = new ArrayList<String>(fontFamilyDirArray);
+            fontFamilyDirArray.add(dirPath);
+        }
+
+        return new ScanContext(isInAssetsDir, fontFamilyDirArray);
+    }
+
+    private static void classifyFile(@NotNull String filePath, @NotNull FileType fileType, boolean isLegal, @NotNull ScanContext context, @NotNull Result result) {
+        if(context.isInAssetsDir) {
+            if(fileType == FileType.nonSvgImage || fileType == FileType.svgImage) {
+                if(isLegal) {
+                    result.legalImageFileArray.add(filePath);
+                } else {
+                    result.illegalImageFileArray.add(filePath);
+                }
+                return;
+            }
+
+            if(fileType == FileType.text) {
+                if(isLegal) {
+                    result.legalTextFileArray.add(filePath);
+                } else {
+                    result.illegalTextFileArray.add(filePath);
+                }
+                return;
+            }
+        }
+
+        if(context.fontFamilyDirArray.isEmpty() == false && fileType == FileType.font) {
+            if(isLegal) {
+                // 与逐个扫描字体家族目录的结果保持一致：嵌套的字体家族目录中的字体文件属于所有包含它的字体家族
+                for (String fontFamilyDir : context.fontFamilyDirArray) {
+                    result.legalFontFileDict.computeIfAbsent(fontFamilyDir, k -> new ArrayList<String>()).add(filePath);
+                }
+            } else {
+                result.illegalFontFileArray.add(filePath);
+            }
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.flr.command.util;
+
+import com.flr.FlrConstant;
+import com.flr.engine.FlrFileSystem;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+* 资源扫描索引
+*
+* 为每个flutter工程持久化保存资源目录的扫描结果，保存路径为：#{flutter_project_root_dir}/.dart_tool/flr/scan_index
+* 索引中记录了每个资源目录的目录戳（目录的修改时间）、子目录名称数组，以及其中每个资源文件的文件名和分类信息。
+*
+* 资源文件的分类只与其文件名有关，而目录的修改时间只在其直接子项发生增/删/重命名时才会改变，
+* 因此若一个目录的目录戳与索引中记录的一致，就可以直接复用索引中该目录的记录，而无需重新列举和分类该目录的子项；
+* 生成时只需要逐级比较目录戳，就可以跳过所有未变化的目录。
+*
+* 资源目录通过 FlrFileSystem 列举，索引文件本身是工程的 .dart_tool 中的缓存文件，直接通过 java.nio.file 读写。
+*
+* 每次完整扫描由 beginScan 和 endScan 包围：beginScan 返回本次扫描独有的 ScanSession，扫描中通过它获取目录记录；
+* endScan 会移除该次扫描中没有访问到的目录的记录，因此被删除、被重命名或者不再是资源目录的目录不会一直残留在索引中。
+* 同一个工程的多次扫描（如手动generate和监控触发的generate）可以同时进行，各自只记录自己访问到的目录。
+*
+* 索引文件格式（以 '\t' 分隔；路径和名称中的反斜杠、制表符、换行符和回车符会被转义为 \\、\t、\n 和 \r）：
+* ```
+* flr-scan-index  #{index_version}  #{classification_signature}
+* D  #{relative_dir_path}  #{dir_stamp}
+* S  #{sub_dir_name}
+* F  #{file_name}  #{file_type}  #{is_legal}
+* ```
+* */
+public class FlrScanIndex {
+
+    private static final String INDEX_HEADER = "flr-scan-index";
+    private static final String INDEX_VERSION = "2";
+
+    // 目录戳的不稳定时间间隔（毫秒）
+    private static final long UNSTABLE_STAMP_INTERVAL = 2000L;
+
+    // 已加载的索引缓存，key为flutter工程根目录
+    private static final Map<String, FlrScanIndex> loadedIndexDict = new ConcurrentHashMap<String, FlrScanIndex>();
+
+    /*
+    * 资源目录的索引记录
+    * */
+    public static class DirEntry {
+        public final long stamp;
+        public final List<String> subDirNameArray;
+        public final List<FileEntry> fileEntryArray;
+
+        public DirEntry(long stamp, @NotNull List<String> subDirNameArray, @NotNull List<FileEntry> fileEntryArray) {
+            this.stamp = stamp;
+            this.subDirNameArray = subDirNameArray;
+            this.fileEntryArray = fileEntryArray;
+        }
+    }
+
+    /*
+    * 资源文件的索引记录
+    * */
+    public static class FileEntry {
+        public final String name;
+        public final FlrResourceClassifier.FileType fileType;
+        public final boolean isLegal;
+
+        public FileEntry(@NotNull String name, @NotNull FlrResourceClassifier.FileType fileType, boolean isLegal) {
+            this.name = name;
+            this.fileType = fileType;
+            this.isLegal = isLegal;
+        }
+    }
+
+    /*
+    * 一次完整扫描：记录本次扫描使用的 FlrFileSystem 和访问到的目录
+    * */
+    public static class ScanSession {
+        private final FlrScanIndex scanIndex;
+        private final FlrFileSystem fileSystem;
+        // 本次扫描中访问到的目录的相对路径；扫描可能并行进行，因此使用线程安全的集合
+        private final Set<String> reachedDirPathSet = ConcurrentHashMap.newKeySet();
+
+        private ScanSession(@NotNull FlrScanIndex scanIndex, @NotNull FlrFileSystem fileSystem) {
+            this.scanIndex = scanIndex;
+            this.fileSystem = fileSystem;
+        }
+
+        /*
+        * 获取指定目录的索引记录，并记录该目录已被本次扫描访问到；参见 FlrScanIndex.getDirEntry
+        * */
+        public DirEntry getDirEntry(@NotNull String dirPath) {
+            return scanIndex.getDirEntry(fileSystem, dirPath, reachedDirPathSet);
+        }
+    }
+
+    private final String flutterProjectDir;
+    private final File indexFile;
+    private final Map<String, DirEntry> dirEntryDict = new ConcurrentHashMap<String, DirEntry>();
+    private volatile boolean isDirty = false;
+
+    private FlrScanIndex(@NotNull String flutterProjectDir) {
+        this.flutterProjectDir = flutterProjectDir;
+        this.indexFile = new File(flutterProjectDir + "/.dart_tool/flr/scan_index");
+    }
+
+    /*
+    * 获取指定flutter工程的扫描索引；
+    * 首次获取时从磁盘加载，若索引文件不存在或者已失效，则返回一个空索引（即进行一次完整扫描）
+    * */
+    public static FlrScanIndex getIndex(@NotNull String flutterProjectDir) {
+        return loadedIndexDict.computeIfAbsent(flutterProjectDir, k -> {
+            FlrScanIndex index = new FlrScanIndex(k);
+            index.load();
+            return index;
+        });
+    }
+
+    /*
+    * 开始一次完整扫描：返回的 ScanSession 会记录通过它访问的所有目录，直到以它调用 endScan
+    * */
+    public ScanSession beginScan(@NotNull FlrFileSystem fileSystem) {
+        return new ScanSession(this, fileSystem);
+    }
+
+    /*
+    * 结束完整扫描：移除该次扫描中没有访问到的目录的记录
+    * */
+    public void endScan(@NotNull ScanSession scanSession) {
+        if(scanSession.scanIndex != this) {
+            return;
+        }
+
+        if(dirEntryDict.keySet().retainAll(scanSession.reachedDirPathSet)) {
+            isDirty = true;
+        }
+    }
+
+    /*
+    * 获取指定目录的索引记录：
+    * - 若目录戳与索引中记录的一致，直接返回索引记录；
+    * - 否则通过 fileSystem 重新列举和分类该目录的子项，更新索引记录后返回。
+    *
+    * 若目录不存在，则返回null
+    * */
+    private DirEntry getDirEntry(@NotNull FlrFileSystem fileSystem, @NotNull String dirPath, @NotNull Set<String> reachedDirPathSet) {
+        long stamp = fileSystem.lastModified(dirPath);
+        if(stamp == 0L) {
+            return null;
+        }
+
+        String relativeDirPath = toRelativePath(dirPath);
+        reachedDirPathSet.add(relativeDirPath);
+
+        DirEntry dirEntry = dirEntryDict.get(relativeDirPath);
+        if(dirEntry != null && dirEntry.stamp == stamp) {
+            return dirEntry;
+        }
+
+        // 若目录刚刚被修改过，在同一个时间戳精度内可能还会发生变化，
+        // 此时不信任该目录戳，下次扫描时重新列举该目录
+        long recordedStamp = stamp;
+        if(System.currentTimeMillis() - stamp < UNSTABLE_STAMP_INTERVAL) {
+            recordedStamp = -1L;
+        }
+
+        dirEntry = listDirEntry(fileSystem, dirPath, recordedStamp);
+        if(dirEntry == null) {
+            return null;
+        }
+        dirEntryDict.put(relativeDirPath, dirEntry);
+        isDirty = true;
+        return dirEntry;
+    }
+
+    /*
+    * 通过 fileSystem 列举和分类指定目录的子项，生成目录戳为 stamp 的记录；若无法列举，则返回null
+    *
+    * listChildNames 已按名称排序，因此记录中的子目录名称数组和文件记录数组也都是有序的
+    * */
+    static DirEntry listDirEntry(@NotNull FlrFileSystem fileSystem, @NotNull String dirPath, long stamp) {
+        List<String> childNameArray;
+        try {
+            childNameArray = fileSystem.listChildNames(dirPath);
+        } catch (IOException e) {
+            return null;
+        }
+
+        List<String> subDirNameArray = new ArrayList<String>();
+        List<FileEntry> fileEntryArray = new ArrayList<FileEntry>();
+        for (String childName : childNameArray) {
+            if(fileSystem.isDirectory(dirPath + "/" + childName)) {
+                subDirNameArray.add(childName);
+                continue;
+            }
+
+            FlrResourceClassifier.FileType fileType = FlrResourceClassifier.getFileType(childName);
+            // 非资源文件与生成结果无关，不记录到索引中
+            if(fileType == FlrResourceClassifier.FileType.other) {
+                continue;
+            }
+            fileEntryArray.add(new FileEntry(childName, fileType, FlrResourceClassifier.isLegalFileName(childName)));
+        }
+        return new DirEntry(stamp, subDirNameArray, fileEntryArray);
+    }
+
+    /*
+    * 若索引有更新，则保存到磁盘
+    * */
+    public synchronized void saveIfNeed() {
+        if(isDirty == false) {
+            return;
+        }
+
+        File indexDir = indexFile.getParentFile();
+        if(indexDir.exists() == false && indexDir.mkdirs() == false) {
+            return;
+        }
+
+        // 先写入临时文件再替换，避免中途失败导致索引文件损坏
+        File tempIndexFile = new File(indexFile.getPath() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tempIndexFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(INDEX_HEADER + "\t" + INDEX_VERSION + "\t" + getClassificationSignature());
+            writer.newLine();
+
+            List<String> relativeDirPathArray = new ArrayList<String>(dirEntryDict.keySet());
+            Collections.sort(relativeDirPathArray);
+            for (String relativeDirPath : relativeDirPathArray) {
+                DirEntry dirEntry = dirEntryDict.get(relativeDirPath);
+                writer.write("D\t" + escapeField(relativeDirPath) + "\t" + dirEntry.stamp);
+                writer.newLine();
+                for (String subDirName : dirEntry.subDirNameArray) {
+                    writer.write("S\t" + escapeField(subDirName));
+                    writer.newLine();
+                }
+                for (FileEntry fileEntry : dirEntry.fileEntryArray) {
+                    writer.write("F\t" + escapeField(fileEntry.name) + "\t" + fileEntry.fileType.name() + "\t" + (fileEntry.isLegal ? "1" : "0"));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        try {
+            Files.move(tempIndexFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            isDirty = false;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void load() {
+        if(indexFile.exists() == false) {
+            return;
+        }
+
+        Map<String, DirEntry> loadedDirEntryDict = new HashMap<String, DirEntry>();
+        try (BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            String expectedHeader = INDEX_HEADER + "\t" + INDEX_VERSION + "\t" + getClassificationSignature();
+            if(expectedHeader.equals(header) == false) {
+                // 索引格式或者资源分类规则已变化，索引失效
+                return;
+            }
+
+            String relativeDirPath = null;
+            long stamp = 0L;
+            List<String> subDirNameArray = null;
+            List<FileEntry> fileEntryArray = null;
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                if(fields[0].equals("D") && fields.length == 3) {
+                    if(relativeDirPath != null) {
+                        loadedDirEntryDict.put(relativeDirPath, new DirEntry(stamp, subDirNameArray, fileEntryArray));
+                    }
+                    relativeDirPath = unescapeField(fields[1]);
+                    stamp = Long.parseLong(fields[2]);
+                    subDirNameArray = new ArrayList<String>();
+                    fileEntryArray = new ArrayList<FileEntry>();
+                } else if(fields[0].equals("S") && fields.length == 2 && relativeDirPath != null) {
+                    subDirNameArray.add(unescapeField(fields[1]));
+                } else if(fields[0].equals("F") && fields.length == 4 && relativeDirPath != null) {
+                    FlrResourceClassifier.FileType fileType = FlrResourceClassifier.FileType.valueOf(fields[2]);
+                    fileEntryArray.add(new FileEntry(unescapeField(fields[1]), fileType, fields[3].equals("1")));
+                } else {
+                    // 索引文件已损坏
+                    return;
+                }
+            }
+            if(relativeDirPath != null) {
+                loadedDirEntryDict.put(relativeDirPath, new DirEntry(stamp, subDirNameArray, fileEntryArray));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return;
+        }
+
+        dirEntryDict.putAll(loadedDirEntryDict);
+    }
+
+    private String toRelativePath(@NotNull String dirPath) {
+        String prefix = flutterProjectDir + "/";
+        if(dirPath.startsWith(prefix)) {
+            return dirPath.substring(prefix.length());
+        }
+        return dirPath;
+    }
+
+    /*
+    * 转义索引文件中的路径或名称，使其不包含分隔符 '\t' 和换行符
+    *
+    * === Examples
+    * "a\tb.png" => "a\\tb.png"
+    * "a\\b.png" => "a\\\\b.png"
+    * */
+    private static String escapeField(@NotNull String field) {
+        if(field.indexOf('\\') < 0 && field.indexOf('\t') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+
+        StringBuilder escapedField = new StringBuilder(field.length() + 8);
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            switch (c) {
+                case '\\':
+                    escapedField.append("\\\\");
+                    break;
+                case '\t':
+                    escapedField.append("\\t");
+                    break;
+                case '\n':
+                    escapedField.append("\\n");
+                    break;
+                case '\r':
+                    escapedField.append("\\r");
+                    break;
+                default:
+                    escapedField.append(c);
+                    break;
+            }
+        }
+        return escapedField.toString();
+    }
+
+    /*
+    * escapeField 的逆操作；遇到非法的转义序列时抛出 IllegalArgumentException（索引文件已损坏）
+    * */
+    private static String unescapeField(@NotNull String field) {
+        if(field.indexOf('\\') < 0) {
+            return field;
+        }
+
+        StringBuilder unescapedField = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if(c != '\\') {
+                unescapedField.append(c);
+                continue;
+            }
+
+            i += 1;
+            char escapedChar = (i < field.length()) ? field.charAt(i) : 0;
+            switch (escapedChar) {
+                case '\\':
+                    unescapedField.append('\\');
+                    break;
+                case 't':
+                    unescapedField.append('\t');
+                    break;
+                case 'n':
+                    unescapedField.append('\n');
+                    break;
+                case 'r':
+                    unescapedField.append('\r');
+                    break;
+                default:
+                    throw new IllegalArgumentException("illegal escape sequence in scan index: " + field);
+            }
+        }
+        return unescapedField.toString();
+    }
+
+    /*
+    * 资源分类规则的签名；当Flr支持的资源文件类型变化时，旧索引中的分类信息随之失效
+    * */
+    private static String getClassificationSignature() {
+        String rules = FlrConstant.NON_SVG_IMAGE_FILE_TYPES + "|" + FlrConstant.SVG_IMAGE_FILE_TYPES + "|" + FlrConstant.TEXT_FILE_TYPES + "|" + FlrConstant.FONT_FILE_TYPES;
+        return Integer.toHexString(rules.hashCode());
+    }
+}
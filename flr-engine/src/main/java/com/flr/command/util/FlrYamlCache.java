@@ -0,0 +1,111 @@
+package com.flr.command.util;
+
+import com.flr.engine.FlrFileSystem;
+import com.flr.engine.FlrNioFileSystem;
+import org.jetbrains.annotations.NotNull;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+* YAML文件解析结果的缓存
+*
+* 用于缓存 pubspec.yaml、.metadata 等YAML文件的解析结果，key为文件路径；
+* 每次获取时比较文件的修改时间和大小，若与缓存时记录的一致，则直接复用解析结果，否则重新解析并更新缓存。
+*
+* 调用方会修改获取到的解析结果（如 generate 时修改 pubspecConfig），
+* 因此每次获取时返回的都是解析结果的深拷贝，缓存中的解析结果始终与文件内容保持一致。
+* */
+@SuppressWarnings("unchecked")
+public class FlrYamlCache {
+
+    // 文件修改时间的不稳定时间间隔（毫秒）
+    private static final long UNSTABLE_STAMP_INTERVAL = 2000L;
+
+    // 已缓存的解析结果，key为文件路径
+    private static final Map<String, Entry> cachedEntryDict = new ConcurrentHashMap<String, Entry>();
+
+    private static class Entry {
+        final long mtime;
+        final long size;
+        // 文件中第一个Map类型的YAML文档；若不存在，则为null
+        final Map<String, Object> yamlMap;
+
+        Entry(long mtime, long size, Map<String, Object> yamlMap) {
+            this.mtime = mtime;
+            this.size = size;
+            this.yamlMap = yamlMap;
+        }
+    }
+
+    /*
+    * 读取YAML文件中第一个Map类型的文档；若不存在这样的文档，则返回null
+    * 若文件不存在或者解析失败，则抛出异常，且不会缓存失败的结果
+    *
+    * === Examples
+    * pubspecConfig = FlrYamlCache.loadYamlMap(new File("~/path/to/flutter_r_demo/pubspec.yaml"))
+    * pubspecConfig.get("name") => "flutter_r_demo"
+    * */
+    public static Map<String, Object> loadYamlMap(@NotNull File yamlFile) throws Exception {
+        return loadYamlMap(FlrNioFileSystem.getInstance(), yamlFile.getAbsolutePath());
+    }
+
+    /*
+    * 同 loadYamlMap(File)，但通过 fileSystem 获取文件的修改时间、大小和内容
+    * */
+    public static Map<String, Object> loadYamlMap(@NotNull FlrFileSystem fileSystem, @NotNull String yamlFilePath) throws Exception {
+        long mtime = fileSystem.lastModified(yamlFilePath);
+        long size = fileSystem.length(yamlFilePath);
+
+        Entry entry = cachedEntryDict.get(yamlFilePath);
+        if(entry != null && entry.mtime == mtime && entry.size == size) {
+            return (Map<String, Object>)deepCopy(entry.yamlMap);
+        }
+
+        Map<String, Object> yamlMap = null;
+        Yaml yaml = new Yaml();
+        Iterable<Object> itr = yaml.loadAll(fileSystem.readText(yamlFilePath));
+        for (Object obj : itr) {
+            if(obj instanceof Map) {
+                yamlMap = (Map<String, Object>)obj;
+                break;
+            }
+        }
+
+        // 若文件刚刚被修改过，在同一个时间戳精度内可能还会发生变化，
+        // 此时不信任其修改时间，不缓存解析结果
+        if(mtime != 0L && System.currentTimeMillis() - mtime >= UNSTABLE_STAMP_INTERVAL) {
+            cachedEntryDict.put(yamlFilePath, new Entry(mtime, size, (Map<String, Object>)deepCopy(yamlMap)));
+        } else {
+            cachedEntryDict.remove(yamlFilePath);
+        }
+        return yamlMap;
+    }
+
+    /*
+    * 深拷贝YAML解析结果：复制其中所有的Map和List，标量值（字符串、数字等）直接复用
+    * */
+    private static Object deepCopy(Object yamlNode) {
+        if(yamlNode instanceof Map) {
+            Map<Object, Object> map = (Map<Object, Object>)yamlNode;
+            Map<Object, Object> mapCopy = new LinkedHashMap<Object, Object>(Math.max(map.size() * 4 / 3 + 1, 16));
+            for (Map.Entry<Object, Object> mapEntry : map.entrySet()) {
+                mapCopy.put(mapEntry.getKey(), deepCopy(mapEntry.getValue()));
+            }
+            return mapCopy;
+        }
+
+        if(yamlNode instanceof List) {
+            List<Object> list = (List<Object>)yamlNode;
+            List<Object> listCopy = new ArrayList<Object>(list.size());
+            for (Object item : list) {
+                listCopy.add(deepCopy(item));
+            }
+            return listCopy;
+        }
+
+        return yamlNode;
+    }
+}
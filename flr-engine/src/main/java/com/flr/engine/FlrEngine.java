@@ -0,0 +1,670 @@
+package com.flr.engine;
+
+import com.flr.FlrConstant;
+import com.flr.FlrException;
+import com.flr.command.util.FlrAssetUtil;
+import com.flr.command.util.FlrCodeUtil;
+import com.flr.command.util.FlrFileWriter;
+import com.flr.command.util.FlrProfiler;
+import com.flr.command.util.FlrPubspecEditor;
+import com.flr.command.util.FlrResourceClassifier;
+import com.flr.command.util.FlrResourceScanner;
+import com.flr.command.util.FlrScanIndex;
+import com.flr.command.util.FlrYamlCache;
+import org.jetbrains.annotations.NotNull;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/*
+* flr引擎
+*
+* 不依赖IDE，通过可插拔的 FlrFileSystem 访问文件系统、通过 FlrLogger 输出日志，
+* 完整执行一次generate流程：扫描资源目录，为资源添加声明到 pubspec.yaml，生成 r.g.dart。
+* 插件的 FlrCommand.generateOne 也通过引擎完成generate，它只提供基于IDE虚拟文件系统的 FlrFileSystem 和输出到 Flr ToolWindow 的 FlrLogger；
+* 引擎不会调用dartfmt格式化 r.g.dart，也不会执行 flutter pub get，这些由调用方根据 Result 按需处理。
+*
+* 可用于CI等没有IDE的环境，也可以直接作为命令行工具运行：
+*
+* === Examples
+* java -cp flr-engine.jar:snakeyaml.jar com.flr.engine.FlrEngine ~/path/to/flutter_r_demo
+*
+* FlrEngine engine = new FlrEngine(FlrNioFileSystem.getInstance(), new FlrPrintStreamLogger(System.out, System.err), true)
+* FlrEngine.Result result = engine.generate("~/path/to/flutter_r_demo")
+* */
+@SuppressWarnings("unchecked")
+public class FlrEngine {
+
+    /*
+    * 一个flutter工程的generate结果
+    * */
+    public static class Result {
+        public String flutterProjectRootDir;
+        public boolean isSucceeded = false;
+        public int warningCount = 0;
+        // pubspec.yaml 是否被修改
+        public boolean isPubspecChanged = false;
+        // pubspec.yaml 中的flutter-assets配置或者flutter-fonts配置是否发生了变化，若是，则需要执行 flutter pub get
+        public boolean isFlutterAssetsChanged = false;
+        // r.g.dart 是否被修改
+        public boolean isRDartFileChanged = false;
+        // 生成的 r.g.dart 是否已经符合dartfmt格式；若为false，则调用方应该对其执行dartfmt
+        public boolean isRDartFilePreformatted = false;
+        // generate失败的原因；成功时为null
+        public FlrException exception = null;
+        // 本次generate使用的资源扫描结果；调用方可以缓存它，在资源变化时增量更新后再传给下一次generate，从而避免重新扫描资源目录
+        public FlrResourceScanner.Result scanResult = null;
+    }
+
+    /*
+    * 根据扫描结果生成的各类asset，均已去重并排序
+    * */
+    static class AssetResult {
+        List<String> imageAssetArray;
+        final List<String> nonSvgImageAssetArray = new ArrayList<String>();
+        final List<String> svgImageAssetArray = new ArrayList<String>();
+        List<String> textAssetArray;
+        final List<Map> fontFamilyConfigArray = new ArrayList<Map>();
+    }
+
+    /*
+    * 一条警告日志：由若干行警告日志和提示日志组成，generate结束时统一输出
+    * */
+    private static class WarningLog {
+        final List<String> textArray = new ArrayList<String>();
+        final List<FlrLogger.LogType> logTypeArray = new ArrayList<FlrLogger.LogType>();
+
+        WarningLog add(@NotNull String text, @NotNull FlrLogger.LogType logType) {
+            textArray.add(text);
+            logTypeArray.add(logType);
+            return this;
+        }
+    }
+
+    private final FlrFileSystem curFileSystem;
+    private final FlrLogger curLogger;
+    private final boolean shouldSupportNullsafety;
+    // 记录每次generate的各个步骤的耗时和计数
+    private final FlrProfiler curProfiler;
+
+    /*
+    * @param fileSystem 访问文件系统的接口
+    * @param logger 输出日志的接口
+    * @param shouldSupportNullsafety 生成的 r.g.dart 是否需要支持Dart 2.12的空安全特性
+    * */
+    public FlrEngine(@NotNull FlrFileSystem fileSystem, @NotNull FlrLogger logger, boolean shouldSupportNullsafety) {
+        this(fileSystem, logger, shouldSupportNullsafety, new FlrProfiler());
+    }
+
+    /*
+    * 同 FlrEngine(FlrFileSystem, FlrLogger, boolean)，但把各个步骤的耗时和计数记录到指定的 profiler 中，
+    * 多个引擎（如并行地为多个工程generate时）可以共用同一个 profiler
+    * */
+    public FlrEngine(@NotNull FlrFileSystem fileSystem, @NotNull FlrLogger logger, boolean shouldSupportNullsafety, @NotNull FlrProfiler profiler) {
+        this.curFileSystem = fileSystem;
+        this.curLogger = logger;
+        this.shouldSupportNullsafety = shouldSupportNullsafety;
+        this.curProfiler = profiler;
+    }
+
+    public FlrProfiler getProfiler() {
+        return curProfiler;
+    }
+
+    /*
+    * 命令行入口：依次为参数指定的每个flutter工程执行generate操作；若任一工程失败，则以非0状态退出
+    *
+    * 参数“--no-nullsafety”表示生成不支持空安全特性的 r.g.dart
+    * 参数“--profile”表示结束后输出各个步骤的耗时汇总表格，并导出到第1个工程的 .dart_tool/flr 中：
+    * generate_profile.json（JSON格式）和 generate_trace.json（Chrome Trace格式）
+    * */
+    public static void main(String[] args) {
+        boolean shouldSupportNullsafety = true;
+        boolean shouldProfile = false;
+        List<String> flutterProjectRootDirArray = new ArrayList<String>();
+        for (String arg : args) {
+            if(arg.equals("--no-nullsafety")) {
+                shouldSupportNullsafety = false;
+            } else if(arg.equals("--profile")) {
+                shouldProfile = true;
+            } else {
+                flutterProjectRootDirArray.add(new File(arg).getAbsolutePath().replace(File.separatorChar, '/'));
+            }
+        }
+
+        if(flutterProjectRootDirArray.isEmpty()) {
+            System.err.println("usage: FlrEngine [--no-nullsafety] [--profile] <flutter_project_root_dir>...");
+            System.exit(2);
+        }
+
+        FlrEngine engine = new FlrEngine(FlrNioFileSystem.getInstance(), new FlrPrintStreamLogger(System.out, System.err), shouldSupportNullsafety);
+        boolean isAllSucceeded = true;
+        for (String flutterProjectRootDir : flutterProjectRootDirArray) {
+            Result result = engine.generate(flutterProjectRootDir);
+            isAllSucceeded = isAllSucceeded && result.isSucceeded;
+        }
+
+        if(shouldProfile) {
+            FlrProfiler profiler = engine.getProfiler();
+            System.out.println();
+            System.out.println(profiler.formatSummaryTable());
+
+            String profileDir = flutterProjectRootDirArray.get(0) + "/.dart_tool/flr";
+            try {
+                engine.curFileSystem.writeText(profileDir + "/generate_profile.json", profiler.toJson());
+                engine.curFileSystem.writeText(profileDir + "/generate_trace.json", profiler.toChromeTrace());
+                System.out.println(String.format("[*]: the profile and trace are exported to %s", profileDir));
+            } catch (IOException e) {
+                System.err.println(String.format("[!]: export the profile to %s failed: %s", profileDir, e.getMessage()));
+            }
+        }
+        System.exit(isAllSucceeded ? 0 : 1);
+    }
+
+    /*
+    * 扫描资源目录，自动为资源添加声明到 pubspec.yaml 和生成 r.g.dart
+    * */
+    public Result generate(@NotNull String flutterProjectRootDir) {
+        return generate(flutterProjectRootDir, null);
+    }
+
+    /*
+    * 扫描资源目录，自动为资源添加声明到 pubspec.yaml 和生成 r.g.dart
+    * 若 presetScanResult 不为null，且其扫描范围与当前的资源目录配置一致，则直接使用该扫描结果，不再扫描资源目录
+    *
+    * 每个步骤的耗时、处理的文件数量、asset数量和写入的字节数都记录到 profiler 中
+    * */
+    public Result generate(@NotNull String flutterProjectRootDir, FlrResourceScanner.Result presetScanResult) {
+        Result result = new Result();
+        result.flutterProjectRootDir = flutterProjectRootDir;
+
+        // 警告日志数组
+        List<WarningLog> warningLogArray = new ArrayList<WarningLog>();
+
+        curLogger.println(String.format("generate for %s now ...", flutterProjectRootDir), FlrLogger.LogType.normal);
+
+        // ----- Step-1 Begin -----
+        // 进行环境检测；若发现不合法的环境，则终止generate：
+        // - 检测当前flutter工程根目录是否存在pubspec.yaml
+        // - 检测当前pubspec.yaml中是否存在Flr的配置
+        // - 检测当前flr_config中的resource_dir配置是否合法：
+        //    判断合法的标准是：assets配置或者fonts配置了至少1个legal_resource_dir
+        //
+
+        FlrProfiler.Step step = curProfiler.beginStep(flutterProjectRootDir, "Step-1 check environment");
+
+        String pubspecFilePath = flutterProjectRootDir + "/pubspec.yaml";
+        if(curFileSystem.exists(pubspecFilePath) == false) {
+            curLogger.println(String.format("[x]: %s not found", pubspecFilePath), FlrLogger.LogType.error);
+            curLogger.println(String.format("[*]: please make sure %s is existed", pubspecFilePath), FlrLogger.LogType.tips);
+            step.end();
+            result.exception = FlrException.ILLEGAL_ENV;
+            return result;
+        }
+
+        String oldPubspecContent;
+        Map<String, Object> pubspecConfig;
+        try {
+            pubspecConfig = FlrYamlCache.loadYamlMap(curFileSystem, pubspecFilePath);
+            oldPubspecContent = curFileSystem.readText(pubspecFilePath);
+        } catch (Exception e) {
+            e.printStackTrace();
+            curLogger.println(String.valueOf(e.getMessage()), FlrLogger.LogType.normal);
+            curLogger.println("", FlrLogger.LogType.normal);
+            curLogger.println("[x]: pubspec.yaml is damaged, maybe it has some syntax errors", FlrLogger.LogType.error);
+            curLogger.println(String.format("[*]: please correct the pubspec.yaml file at %s", pubspecFilePath), FlrLogger.LogType.tips);
+            step.end();
+            result.exception = FlrException.ILLEGAL_ENV;
+            return result;
+        }
+        if(pubspecConfig == null || pubspecConfig.get("flr") instanceof Map == false) {
+            curLogger.println("[x]: have no flr configuration in pubspec.yaml", FlrLogger.LogType.error);
+            curLogger.println("[*]: please click menu \"Tools-Flr-Init\" to fix it", FlrLogger.LogType.tips);
+            step.end();
+            result.exception = FlrException.ILLEGAL_ENV;
+            return result;
+        }
+        Map<String, Object> flrConfig = (Map<String, Object>)pubspecConfig.get("flr");
+
+        // 合法的资源目录数组
+        List<String> assetsLegalResourceDirArray = new ArrayList<String>();
+        List<String> fontsLegalResourceDirArray = new ArrayList<String>();
+        // 非法的资源目录数组
+        List<String> illegalResourceDirArray = new ArrayList<String>();
+        collectResourceDirs(flutterProjectRootDir, flrConfig.get("assets"), assetsLegalResourceDirArray, illegalResourceDirArray);
+        collectResourceDirs(flutterProjectRootDir, flrConfig.get("fonts"), fontsLegalResourceDirArray, illegalResourceDirArray);
+
+        if(assetsLegalResourceDirArray.isEmpty() && fontsLegalResourceDirArray.isEmpty()) {
+            printNoLegalResourceDirError(flrConfig, illegalResourceDirArray);
+            step.end();
+            result.exception = FlrException.ILLEGAL_ENV;
+            return result;
+        }
+
+        String packageName = (String)pubspecConfig.get("name");
+        boolean isPackageProjectType = isPackageProjectType(flutterProjectRootDir, pubspecConfig);
+
+        step.end();
+
+        // ----- Step-1 End -----
+
+        // ----- Step-2 Begin -----
+        // 进行核心逻辑版本检测：
+        // 检测flr_config中的core_version和当前工具的core_version是否一致；若不一致，则按照以下规则处理：
+        //  - 更新flr_config中的core_version的值为当前工具的core_version；
+        //  - 生成“核心逻辑版本不一致”的警告日志，存放到警告日志数组。
+        //
+
+        step = curProfiler.beginStep(flutterProjectRootDir, "Step-2 check core_version");
+
+        Object flrCoreVersion = flrConfig.get("core_version");
+        if(FlrConstant.CORE_VERSION.equals(flrCoreVersion) == false) {
+            flrConfig.put("core_version", FlrConstant.CORE_VERSION);
+
+            String warningText = String.format("[!]: warning, some team members may be using Flr tool with core_version %s, while you are using Flr tool with core_version %s",
+                    flrCoreVersion instanceof String ? flrCoreVersion : "unknown", FlrConstant.CORE_VERSION);
+            String tipsText = "[*]: to fix it, you and your team members should use the Flr tool with same core_version"
+                    + "\n"
+                    + "[*]: \"core_version\" is the core logic version of Flr tool, you can click menu \"Tools-Flr-Version\" to get it";
+            warningLogArray.add(new WarningLog().add(warningText, FlrLogger.LogType.warning).add(tipsText, FlrLogger.LogType.tips));
+        }
+
+        step.end();
+
+        // ----- Step-2 End -----
+
+        // ----- Step-3 Begin -----
+        // 检测是否存在非法的资源目录（即不存在的资源目录）：若存在，则生成“存在非法的资源目录”的警告日志，存放到警告日志数组
+        //
+
+        step = curProfiler.beginStep(flutterProjectRootDir, "Step-3 check resource dirs");
+
+        if(illegalResourceDirArray.size() > 0) {
+            String warningText = "[!]: warning, found the following resource directory which is not existed: ";
+            for (String resourceDir : illegalResourceDirArray) {
+                warningText += "\n" + String.format("  - %s", resourceDir);
+            }
+            warningLogArray.add(new WarningLog().add(warningText, FlrLogger.LogType.warning));
+        }
+
+        step.addCount(FlrProfiler.FILE_COUNT, assetsLegalResourceDirArray.size() + fontsLegalResourceDirArray.size() + illegalResourceDirArray.size()).end();
+
+        // ----- Step-3 End -----
+
+        curLogger.println("scan assets now ...", FlrLogger.LogType.normal);
+
+        // ----- Step-4 ~ Step-6 Begin -----
+        // 扫描资源目录，获取合法的图片文件、文本文件、字体文件和非法的资源文件，然后分别生成image_asset数组、text_asset数组和font_family_config数组：
+        // - 一次性扫描所有资源目录，同时查找出所有image_file、text_file和font_file；嵌套的资源目录中的文件只会被记录一次；
+        // - 若启用了资源扫描索引，则只重新扫描发生变化的资源目录；
+        // - 若调用方提供了扫描范围一致的扫描结果，则直接使用它，不再扫描。
+        //
+
+        step = curProfiler.beginStep(flutterProjectRootDir, "Step-4 scan resource dirs");
+        FlrResourceScanner.Result scanResult = presetScanResult;
+        if(scanResult == null || scanResult.isScannedFrom(assetsLegalResourceDirArray, fontsLegalResourceDirArray) == false) {
+            FlrScanIndex scanIndex = FlrConstant.SCAN_INDEX_ENABLED ? FlrScanIndex.getIndex(flutterProjectRootDir) : null;
+            scanResult = FlrResourceScanner.scan(curFileSystem, assetsLegalResourceDirArray, fontsLegalResourceDirArray, scanIndex);
+            if(scanIndex != null) {
+                scanIndex.saveIfNeed();
+            }
+        }
+        result.scanResult = scanResult;
+
+        int scannedFileCount = scanResult.legalImageFileArray.size() + scanResult.illegalImageFileArray.size()
+                + scanResult.legalTextFileArray.size() + scanResult.illegalTextFileArray.size()
+                + scanResult.illegalFontFileArray.size();
+        for (List<String> legalFontFileArray : scanResult.legalFontFileDict.values()) {
+            scannedFileCount += legalFontFileArray.size();
+        }
+        step.addCount(FlrProfiler.FILE_COUNT, scannedFileCount).end();
+
+        AssetResult assetResult = new AssetResult();
+
+        step = curProfiler.beginStep(flutterProjectRootDir, "Step-4 generate image assets");
+        generateImageAssets(flutterProjectRootDir, packageName, scanResult, assetResult);
+        step.addCount(FlrProfiler.FILE_COUNT, scanResult.legalImageFileArray.size()).addCount(FlrProfiler.ASSET_COUNT, assetResult.imageAssetArray.size()).end();
+
+        step = curProfiler.beginStep(flutterProjectRootDir, "Step-5 generate text assets");
+        generateTextAssets(flutterProjectRootDir, packageName, scanResult, assetResult);
+        step.addCount(FlrProfiler.FILE_COUNT, scanResult.legalTextFileArray.size()).addCount(FlrProfiler.ASSET_COUNT, assetResult.textAssetArray.size()).end();
+
+        step = curProfiler.beginStep(flutterProjectRootDir, "Step-6 generate font assets");
+        generateFontAssets(flutterProjectRootDir, packageName, scanResult, assetResult);
+        for (Map fontFamilyConfig : assetResult.fontFamilyConfigArray) {
+            int fontAssetCount = ((List<Map>)fontFamilyConfig.get("fonts")).size();
+            step.addCount(FlrProfiler.FILE_COUNT, fontAssetCount).addCount(FlrProfiler.ASSET_COUNT, fontAssetCount);
+        }
+        step.end();
+
+        List<String> imageAssetArray = assetResult.imageAssetArray;
+        List<String> nonSvgImageAssetArray = assetResult.nonSvgImageAssetArray;
+        List<String> svgImageAssetArray = assetResult.svgImageAssetArray;
+        List<String> textAssetArray = assetResult.textAssetArray;
+        List<Map> fontFamilyConfigArray = assetResult.fontFamilyConfigArray;
+
+        // ----- Step-4 ~ Step-6 End -----
+
+        curLogger.println("scan assets done !!!", FlrLogger.LogType.normal);
+
+        // ----- Step-7 Begin -----
+        // 检测是否存在illegal_resource_file：
+        // - 合并illegal_image_file数组、illegal_text_file数组和illegal_font_file数组为illegal_resource_file数组；
+        // - 若illegal_resource_file数组长度大于0，则生成“存在非法的资源文件”的警告日志，存放到警告日志数组。
+        //
+
+        step = curProfiler.beginStep(flutterProjectRootDir, "Step-7 check illegal files");
+
+        List<String> illegalResourceFileArray = new ArrayList<String>();
+        illegalResourceFileArray.addAll(scanResult.illegalImageFileArray);
+        illegalResourceFileArray.addAll(scanResult.illegalTextFileArray);
+        illegalResourceFileArray.addAll(scanResult.illegalFontFileArray);
+
+        if(illegalResourceFileArray.size() > 0) {
+            String warningText = "[!]: warning, found the following illegal resource file who's file basename contains illegal characters: ";
+            for (String resourceFile : illegalResourceFileArray) {
+                warningText += "\n" + String.format("  - %s", resourceFile);
+            }
+            String tipsText = "[*]: to fix it, you should only use letters (a-z, A-Z), numbers (0-9), and the other legal characters ('_', '+', '-', '.', '·', '!', '@', '&', '$', '￥') to name the file";
+            warningLogArray.add(new WarningLog().add(warningText, FlrLogger.LogType.warning).add(tipsText, FlrLogger.LogType.tips));
+        }
+
+        step.addCount(FlrProfiler.FILE_COUNT, illegalResourceFileArray.size()).end();
+
+        // ----- Step-7 End -----
+
+        curLogger.println("specify scanned assets in pubspec.yaml now ...", FlrLogger.LogType.normal);
+
+        // ----- Step-8 Begin -----
+        // 为扫描得到的legal_resource_file添加资源声明到pubspec.yaml：
+        // - 合并image_asset数组和text_asset数组为new_asset_array（image_asset数组元素在前）；
+        // - 读取pubspec.yaml中flutter-assets配置，获得old_asset_array，然后和new_asset_array合并为asset数组；
+        // - 修改pubspec.yaml中flutter-assets配置的值为asset数组；
+        // - 修改pubspec.yaml中flutter-fonts配置的值为font_family_config数组；
+        // - 优先通过 FlrPubspecEditor 就地编辑 pubspec.yaml，若无法就地编辑，则重新序列化整个pubspecConfig；若内容没有变化，则不会写入。
+        //
+
+        step = curProfiler.beginStep(flutterProjectRootDir, "Step-8 update pubspec.yaml");
+
+        Map<String, Object> flutterConfig = (pubspecConfig.get("flutter") instanceof Map) ? (Map<String, Object>)pubspecConfig.get("flutter") : new LinkedHashMap<String, Object>();
+        // 记录旧的flutter-assets配置和flutter-fonts配置，用于判断它们是否有变化
+        Object oldFlutterAssets = flutterConfig.get("assets");
+        Object oldFlutterFonts = flutterConfig.get("fonts");
+
+        List<String> newAssetArray = new ArrayList<String>(imageAssetArray);
+        newAssetArray.addAll(textAssetArray);
+        List<String> oldAssetArray = (oldFlutterAssets instanceof List) ? (List<String>)oldFlutterAssets : new ArrayList<String>();
+
+        List<String> assetArray = FlrAssetUtil.mergeFlutterAssets(flutterProjectRootDir, packageName, newAssetArray, oldAssetArray, curFileSystem);
+        if(assetArray.size() > 0) {
+            flutterConfig.put("assets", assetArray);
+        } else {
+            flutterConfig.remove("assets");
+        }
+        if(fontFamilyConfigArray.size() > 0) {
+            flutterConfig.put("fonts", fontFamilyConfigArray);
+        } else {
+            flutterConfig.remove("fonts");
+        }
+        pubspecConfig.put("flutter", flutterConfig);
+
+        String newPubspecContent;
+        try {
+            newPubspecContent = FlrPubspecEditor.edit(oldPubspecContent, pubspecConfig);
+            if(newPubspecContent == null) {
+                newPubspecContent = new Yaml(FlrPubspecEditor.createDumperOptions()).dump(pubspecConfig);
+            }
+            result.isPubspecChanged = FlrFileWriter.writeTextIfChanged(curFileSystem, pubspecFilePath, newPubspecContent);
+        } catch (Exception e) {
+            e.printStackTrace();
+            step.end();
+            result.exception = new FlrException(String.format("save %s failed: %s", pubspecFilePath, e.getMessage()));
+            curLogger.println(result.exception.getMessage(), FlrLogger.LogType.error);
+            return result;
+        }
+        if(result.isPubspecChanged) {
+            boolean isAssetsChanged = Objects.equals(oldFlutterAssets, flutterConfig.get("assets")) == false;
+            boolean isFontsChanged = Objects.equals(oldFlutterFonts, flutterConfig.get("fonts")) == false;
+            result.isFlutterAssetsChanged = isAssetsChanged || isFontsChanged;
+            step.addCount(FlrProfiler.BYTES_WRITTEN, newPubspecContent.getBytes(StandardCharsets.UTF_8).length);
+        }
+        step.addCount(FlrProfiler.ASSET_COUNT, assetArray.size()).end();
+
+        // ----- Step-8 End -----
+
+        curLogger.println("specify scanned assets in pubspec.yaml done !!!", FlrLogger.LogType.normal);
+
+        curLogger.println("generate \"r.g.dart\" now ...", FlrLogger.LogType.normal);
+
+        // ----- Step-9 ~ Step-19 Begin -----
+        // 为各类asset分配asset_id，然后依次生成 R 类、各个 AssetResource 类和 _R_FontFamily 类的代码，组成 r.g.dart 的内容；
+        // 具体步骤参见 FlrCodeUtil.generateRDartFileContent，每个步骤的耗时由它分别记录到 profiler 中
+        //
+        // 若启用了预格式化，则直接按dartfmt的默认行长生成符合dartfmt格式的代码；若最终生成的代码符合dartfmt格式，则无需再格式化 r.g.dart
+        //
+
+        int dartfmtLineLength = FlrConstant.PREFORMAT_R_DART_FILE_ENABLED ? FlrConstant.DARTFMT_LINE_LENGTH : 0;
+        String rDartFileContent = FlrCodeUtil.generateRDartFileContent(packageName, isPackageProjectType, shouldSupportNullsafety,
+                nonSvgImageAssetArray, svgImageAssetArray, textAssetArray, fontFamilyConfigArray, dartfmtLineLength, curProfiler, flutterProjectRootDir);
+
+        // ----- Step-9 ~ Step-19 End -----
+
+        // ----- Step-20 Begin -----
+        // 保存 r.g.dart；若内容没有变化，则不会写入
+        //
+
+        step = curProfiler.beginStep(flutterProjectRootDir, "Step-20 write r.g.dart");
+        String rDartFilePath = flutterProjectRootDir + "/lib/r.g.dart";
+        try {
+            result.isRDartFileChanged = FlrFileWriter.writeTextIfChanged(curFileSystem, rDartFilePath, rDartFileContent);
+            if(result.isRDartFileChanged) {
+                step.addCount(FlrProfiler.BYTES_WRITTEN, rDartFileContent.getBytes(StandardCharsets.UTF_8).length);
+            }
+            step.end();
+        } catch (IOException e) {
+            e.printStackTrace();
+            step.end();
+            result.exception = new FlrException(String.format("save %s failed: %s", rDartFilePath, e.getMessage()));
+            curLogger.println(result.exception.getMessage(), FlrLogger.LogType.error);
+            return result;
+        }
+
+        // ----- Step-20 End -----
+
+        // ----- Step-21 Begin -----
+        // 判断生成的 r.g.dart 是否已经符合dartfmt格式；若不符合，则由调用方对其执行dartfmt
+        //
+
+        step = curProfiler.beginStep(flutterProjectRootDir, "Step-21 check r.g.dart format");
+        result.isRDartFilePreformatted = FlrCodeUtil.isPreformattedCode(rDartFileContent, dartfmtLineLength);
+        if(result.isRDartFileChanged == false) {
+            curLogger.println("[*]: r.g.dart is unchanged, skip writing and formatting it", FlrLogger.LogType.normal);
+        } else if(result.isRDartFilePreformatted) {
+            curLogger.println("[*]: r.g.dart is generated in dartfmt style, skip formatting it", FlrLogger.LogType.normal);
+        }
+        step.end();
+
+        // ----- Step-21 End -----
+
+        // ----- Step-22 Begin -----
+        // 判断警告日志数组是否为空，若不为空，输出所有警告日志
+        //
+
+        step = curProfiler.beginStep(flutterProjectRootDir, "Step-22 print warnings");
+        for (WarningLog warningLog : warningLogArray) {
+            curLogger.println("", FlrLogger.LogType.normal);
+            for (int i = 0; i < warningLog.textArray.size(); i++) {
+                curLogger.println(warningLog.textArray.get(i), warningLog.logTypeArray.get(i));
+            }
+        }
+        step.end();
+
+        // ----- Step-22 End -----
+
+        curLogger.println(String.format("[√]: generate for %s done !!!", flutterProjectRootDir), FlrLogger.LogType.normal);
+
+        result.isSucceeded = true;
+        result.warningCount = warningLogArray.size();
+        return result;
+    }
+
+    /*
+    * 筛选flr配置中的资源目录：存在的目录加入 legalResourceDirArray，不存在的目录加入 illegalResourceDirArray；
+    * 忽略空的和重复的资源目录
+    * */
+    private void collectResourceDirs(@NotNull String flutterProjectRootDir, Object resourceDirConfig, @NotNull List<String> legalResourceDirArray, @NotNull List<String> illegalResourceDirArray) {
+        if(resourceDirConfig instanceof List == false) {
+            return;
+        }
+
+        for (Object relativeResourceDir : new LinkedHashSet<Object>((List<Object>)resourceDirConfig)) {
+            if(relativeResourceDir instanceof String == false || ((String)relativeResourceDir).isEmpty()) {
+                continue;
+            }
+            String resourceDir = flutterProjectRootDir + "/" + relativeResourceDir;
+            if(curFileSystem.isDirectory(resourceDir)) {
+                legalResourceDirArray.add(resourceDir);
+            } else {
+                illegalResourceDirArray.add(resourceDir);
+            }
+        }
+    }
+
+    /*
+    * 没有配置任何合法的资源目录时，输出非法的资源目录，以及配置资源目录的示例
+    * */
+    private void printNoLegalResourceDirError(@NotNull Map<String, Object> flrConfig, @NotNull List<String> illegalResourceDirArray) {
+        String flrCoreVersion = FlrConstant.CORE_VERSION;
+        if(flrConfig.containsKey("core_version")) {
+            flrCoreVersion = String.format("%s", flrConfig.get("core_version"));
+        }
+        String dartfmtLineLengthStr = String.format("%d", FlrConstant.DARTFMT_LINE_LENGTH);
+        if(flrConfig.containsKey("dartfmt_line_length")) {
+            dartfmtLineLengthStr = String.format("%s", flrConfig.get("dartfmt_line_length"));
+        }
+
+        if(illegalResourceDirArray.size() > 0) {
+            String warningText = "[!]: warning, found the following resource directory which is not existed: ";
+            for (String resourceDir : illegalResourceDirArray) {
+                warningText += "\n" + String.format("  - %s", resourceDir);
+            }
+            warningText += "\n";
+            curLogger.println(warningText, FlrLogger.LogType.warning);
+        }
+
+        curLogger.println("[x]: have no valid resource directories configuration in pubspec.yaml", FlrLogger.LogType.error);
+        curLogger.println(String.format(
+                "[*]: please manually configure the resource directories to fix it, for example:\n" +
+                        "\u202D \n" +
+                        "\u202D     flr:\n" +
+                        "\u202D       core_version: %s\n" +
+                        "\u202D       dartfmt_line_length: %s\n" +
+                        "\u202D       # config the image and text resource directories that need to be scanned\n" +
+                        "\u202D       assets:\n" +
+                        "\u202D         - lib/assets/images\n" +
+                        "\u202D         - lib/assets/texts\n" +
+                        "\u202D       # config the font resource directories that need to be scanned\n" +
+                        "\u202D       fonts:\n" +
+                        "\u202D         - lib/assets/fonts\n",
+                flrCoreVersion, dartfmtLineLengthStr
+        ), FlrLogger.LogType.tips);
+    }
+
+    /*
+     * 判断指定flutter工程的工程类型是不是Package工程类型
+     *
+     * flutter工程共有4种工程类型：
+     * - app：Flutter App工程，用于开发纯Flutter的App
+     * - module：Flutter Component工程，用于开发Flutter组件以嵌入iOS和Android原生工程
+     * - package：General Dart Package工程，用于开发一个供应用层开发者使用的包
+     * - plugin：Plugin Package工程（属于特殊的Dart Package工程），用于开发一个调用特定平台API的包*
+     *
+     * flutter工程的工程类型可从flutter工程目录的 .metadata 文件中读取获得
+     * 如果不存在 .metadata 文件，则判断 pubspec.yaml 是否存在 author 配置，若存在，说明是一个 Package工程
+     * */
+    private boolean isPackageProjectType(@NotNull String flutterProjectRootDir, @NotNull Map<String, Object> pubspecConfig) {
+        String metadataFilePath = flutterProjectRootDir + "/.metadata";
+        if(curFileSystem.exists(metadataFilePath) == false) {
+            String warningStr = "[!]: warning, metadata file is missed, flr can not make sure to get a right project type of this flutter project"
+                    + "\n"
+                    + "[!]: then flr maybe generate buggy r.g.dart";
+            curLogger.println(warningStr, FlrLogger.LogType.warning);
+            String tipsStr = String.format("[*]: to fix it, you can manually copy the metadata file of a flutter project with same project type to %s\n", metadataFilePath);
+            curLogger.println(tipsStr, FlrLogger.LogType.tips);
+            return pubspecConfig.containsKey("author");
+        }
+
+        try {
+            Map<String, Object> metadataConfig = FlrYamlCache.loadYamlMap(curFileSystem, metadataFilePath);
+            Object projectType = (metadataConfig != null) ? metadataConfig.get("project_type") : null;
+            return "package".equals(projectType) || "plugin".equals(projectType);
+        } catch (Exception e) {
+            e.printStackTrace();
+            curLogger.println(String.valueOf(e.getMessage()), FlrLogger.LogType.normal);
+            curLogger.println("", FlrLogger.LogType.normal);
+            return false;
+        }
+    }
+
+    /*
+    * 根据扫描结果生成有序的image_asset数组（及按SVG分类得到的non_svg_image_asset数组、svg_image_asset数组）、text_asset数组和font_family_config数组
+    * */
+    AssetResult generateAssets(@NotNull String flutterProjectRootDir, @NotNull String packageName, @NotNull FlrResourceScanner.Result scanResult) {
+        AssetResult assetResult = new AssetResult();
+        generateImageAssets(flutterProjectRootDir, packageName, scanResult, assetResult);
+        generateTextAssets(flutterProjectRootDir, packageName, scanResult, assetResult);
+        generateFontAssets(flutterProjectRootDir, packageName, scanResult, assetResult);
+        return assetResult;
+    }
+
+    /*
+    * 根据扫描结果生成有序的image_asset数组，并按SVG分类得到non_svg_image_asset数组和svg_image_asset数组，输出到 assetResult
+    * */
+    void generateImageAssets(@NotNull String flutterProjectRootDir, @NotNull String packageName, @NotNull FlrResourceScanner.Result scanResult, @NotNull AssetResult assetResult) {
+        assetResult.imageAssetArray = uniqAndSort(FlrAssetUtil.generateImageAssets(flutterProjectRootDir, packageName, scanResult.legalImageFileArray));
+        for (String asset : assetResult.imageAssetArray) {
+            if(FlrResourceClassifier.getFileType(asset) == FlrResourceClassifier.FileType.svgImage) {
+                assetResult.svgImageAssetArray.add(asset);
+            } else {
+                assetResult.nonSvgImageAssetArray.add(asset);
+            }
+        }
+    }
+
+    /*
+    * 根据扫描结果生成有序的text_asset数组，输出到 assetResult
+    * */
+    void generateTextAssets(@NotNull String flutterProjectRootDir, @NotNull String packageName, @NotNull FlrResourceScanner.Result scanResult, @NotNull AssetResult assetResult) {
+        assetResult.textAssetArray = uniqAndSort(FlrAssetUtil.generateTextAssets(flutterProjectRootDir, packageName, scanResult.legalTextFileArray));
+    }
+
+    /*
+    * 根据扫描结果生成有序的font_family_config数组，输出到 assetResult
+    * */
+    void generateFontAssets(@NotNull String flutterProjectRootDir, @NotNull String packageName, @NotNull FlrResourceScanner.Result scanResult, @NotNull AssetResult assetResult) {
+        for (String fontFamilyDir : scanResult.fontFamilyDirArray) {
+            List<String> legalFontFileArray = scanResult.legalFontFileDict.get(fontFamilyDir);
+            if(legalFontFileArray.isEmpty()) {
+                continue;
+            }
+
+            List<Map> fontAssetConfigArray = FlrAssetUtil.generateFontAssetConfigs(flutterProjectRootDir, packageName, legalFontFileArray);
+            fontAssetConfigArray.sort(Comparator.comparing(fontAssetConfig -> (String)fontAssetConfig.get("asset")));
+
+            Map<String, Object> fontFamilyConfig = new LinkedHashMap<String, Object>();
+            fontFamilyConfig.put("family", new File(fontFamilyDir).getName());
+            fontFamilyConfig.put("fonts", fontAssetConfigArray);
+            assetResult.fontFamilyConfigArray.add(fontFamilyConfig);
+        }
+        assetResult.fontFamilyConfigArray.sort(Comparator.comparing(fontFamilyConfig -> (String)fontFamilyConfig.get("family")));
+    }
+
+    private static List<String> uniqAndSort(@NotNull List<String> stringArray) {
+        List<String> uniqStringArray = new ArrayList<String>(new HashSet<String>(stringArray));
+        Collections.sort(uniqStringArray);
+        return uniqStringArray;
+    }
+}
@@ -0,0 +1,54 @@
+package com.flr.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.List;
+
+/*
+* flr-engine 访问文件系统的接口
+*
+* 所有路径均为以“/”分隔的绝对路径（如 "~/path/to/flutter_r_demo/lib/assets/images/test.png"），
+* 文本文件均以UTF-8编码读写。
+*
+* 默认实现是基于 java.nio.file 的 FlrNioFileSystem；
+* 插件等宿主环境可以提供自己的实现（如插件中基于IDE虚拟文件系统的 FlrVfsFileSystem，或者用于测试的内存文件系统）。
+* */
+public interface FlrFileSystem {
+
+    /*
+    * 判断路径对应的文件或者目录是否存在
+    * */
+    boolean exists(@NotNull String path);
+
+    /*
+    * 判断路径对应的是否为一个存在的目录
+    * */
+    boolean isDirectory(@NotNull String path);
+
+    /*
+    * 获取目录的所有子项（文件和子目录）的名称，按名称升序排列
+    * */
+    List<String> listChildNames(@NotNull String dirPath) throws IOException;
+
+    /*
+    * 获取路径的真实路径（解析其中的符号链接），用于在遍历目录时检测符号链接导致的循环目录
+    * */
+    String getRealPath(@NotNull String path) throws IOException;
+
+    /*
+    * 获取文件或者目录的修改时间（毫秒）；若不存在，则返回0
+    *
+    * 目录的修改时间只在其直接子项发生增/删/重命名时才会改变，FlrScanIndex 以此作为目录戳
+    * */
+    long lastModified(@NotNull String path);
+
+    /*
+    * 获取文件的大小（字节）；若不存在，则返回0
+    * */
+    long length(@NotNull String filePath);
+
+    String readText(@NotNull String filePath) throws IOException;
+
+    void writeText(@NotNull String filePath, @NotNull String content) throws IOException;
+}
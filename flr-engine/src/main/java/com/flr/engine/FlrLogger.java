@@ -0,0 +1,21 @@
+package com.flr.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+/*
+* flr-engine 输出日志的接口
+*
+* 日志类型与插件的 FlrLogConsole.LogType 一一对应；
+* 默认实现是输出到标准输出的 FlrPrintStreamLogger，插件可以把日志转发到 Flr ToolWindow。
+* */
+public interface FlrLogger {
+
+    enum LogType {
+        normal,
+        tips,
+        warning,
+        error
+    }
+
+    void println(@NotNull String text, @NotNull LogType logType);
+}
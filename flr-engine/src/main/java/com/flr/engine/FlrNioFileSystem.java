@@ -0,0 +1,79 @@
+package com.flr.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+* 基于 java.nio.file 的 FlrFileSystem 实现，直接访问本地文件系统
+* */
+public class FlrNioFileSystem implements FlrFileSystem {
+
+    private static final FlrNioFileSystem instance = new FlrNioFileSystem();
+
+    public static FlrNioFileSystem getInstance() {
+        return instance;
+    }
+
+    @Override
+    public boolean exists(@NotNull String path) {
+        return Files.exists(Paths.get(path));
+    }
+
+    @Override
+    public boolean isDirectory(@NotNull String path) {
+        return Files.isDirectory(Paths.get(path));
+    }
+
+    @Override
+    public List<String> listChildNames(@NotNull String dirPath) throws IOException {
+        List<String> childNameArray = new ArrayList<String>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(dirPath))) {
+            for (Path child : stream) {
+                childNameArray.add(child.getFileName().toString());
+            }
+        }
+        Collections.sort(childNameArray);
+        return childNameArray;
+    }
+
+    @Override
+    public String getRealPath(@NotNull String path) throws IOException {
+        return Paths.get(path).toRealPath().toString();
+    }
+
+    @Override
+    public long lastModified(@NotNull String path) {
+        return new File(path).lastModified();
+    }
+
+    @Override
+    public long length(@NotNull String filePath) {
+        return new File(filePath).length();
+    }
+
+    @Override
+    public String readText(@NotNull String filePath) throws IOException {
+        byte[] bytes = Files.readAllBytes(Paths.get(filePath));
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void writeText(@NotNull String filePath, @NotNull String content) throws IOException {
+        Path path = Paths.get(filePath);
+        Path parentDir = path.getParent();
+        if(parentDir != null) {
+            Files.createDirectories(parentDir);
+        }
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,31 @@
+package com.flr.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.PrintStream;
+
+/*
+* 输出到 PrintStream 的 FlrLogger 实现：警告和错误日志输出到 errorStream，其他日志输出到 outStream
+*
+* === Examples
+* FlrLogger logger = new FlrPrintStreamLogger(System.out, System.err)
+* */
+public class FlrPrintStreamLogger implements FlrLogger {
+
+    private final PrintStream outStream;
+    private final PrintStream errorStream;
+
+    public FlrPrintStreamLogger(@NotNull PrintStream outStream, @NotNull PrintStream errorStream) {
+        this.outStream = outStream;
+        this.errorStream = errorStream;
+    }
+
+    @Override
+    public void println(@NotNull String text, @NotNull LogType logType) {
+        if(logType == LogType.warning || logType == LogType.error) {
+            errorStream.println(text);
+        } else {
+            outStream.println(text);
+        }
+    }
+}
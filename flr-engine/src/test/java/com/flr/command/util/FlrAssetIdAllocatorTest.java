@@ -0,0 +1,107 @@
+package com.flr.command.util;
+
+import com.flr.FlrConstant;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/*
+* FlrAssetIdAllocator 的等价性测试
+*
+* 验证依次调用 FlrAssetIdAllocator.allocate 的结果，与按相同顺序调用 FlrCodeUtil.generateAssetId（传入此前已分配的所有assetId）的结果完全一致
+* */
+public class FlrAssetIdAllocatorTest {
+
+    private static final List<String> PRIOR_ASSET_TYPE_ARRAY = Arrays.asList(
+            FlrConstant.PRIOR_NON_SVG_IMAGE_FILE_TYPE,
+            FlrConstant.PRIOR_SVG_IMAGE_FILE_TYPE,
+            FlrConstant.PRIOR_TEXT_FILE_TYPE,
+            null);
+
+    @Test
+    public void testRepeatedBaseAssetId() {
+        assertEquivalent(Arrays.asList(
+                "assets/images/test.png",
+                "assets/icons/test.png",
+                "assets/others/test.png",
+                "packages/flutter_r_demo/assets/images/test.png",
+                "assets/images/test.jpg",
+                "assets/icons/test.jpg",
+                "assets/images/Test.png",
+                "assets/images/1test.png",
+                "assets/icons/1test.png"));
+    }
+
+    @Test
+    public void testDollarInFileName() {
+        // 文件名中的“$”会保留在assetId中，可能与重名时生成的asset_id_brother相同
+        assertEquivalent(Arrays.asList(
+                "assets/images/test$1.png",
+                "assets/images/test.png",
+                "assets/icons/test.png",
+                "assets/others/test.png",
+                "assets/others/test$1.png",
+                "assets/images/test$01.png",
+                "assets/icons/test$01.png",
+                "assets/images/test$0.png",
+                "assets/images/test$.png",
+                "assets/icons/test$.png",
+                "assets/images/test$1$1.png",
+                "assets/icons/test$1.png"));
+    }
+
+    @Test
+    public void testDollarBrotherBeforeBaseAssetId() {
+        // asset_id_brother 先于 asset_id 分配时，asset_id 重名后的编号需要跳过已分配的asset_id_brother
+        assertEquivalent(Arrays.asList(
+                "assets/images/test$2.png",
+                "assets/images/test$3.png",
+                "assets/images/test.png",
+                "assets/icons/test.png",
+                "assets/others/test.png"));
+    }
+
+    @Test
+    public void testRandomAssets() {
+        String[] nameArray = {"test", "test$1", "test$01", "test$2", "test$10", "Test", "1test", "te-st", "te st", "$test"};
+        String[] extArray = {".png", ".jpg", ".svg", ".json", ".PNG"};
+        String[] dirArray = {"assets/images/", "assets/icons/", "packages/flutter_r_demo/assets/images/"};
+
+        Random random = new Random(20200101L);
+        for (int round = 0; round < 50; round++) {
+            List<String> assetArray = new ArrayList<String>();
+            int assetCount = 1 + random.nextInt(40);
+            for (int i = 0; i < assetCount; i++) {
+                assetArray.add(dirArray[random.nextInt(dirArray.length)]
+                        + nameArray[random.nextInt(nameArray.length)]
+                        + extArray[random.nextInt(extArray.length)]);
+            }
+            assertEquivalent(assetArray);
+        }
+    }
+
+    /*
+    * 对每种 priorAssetType，验证分配结果与 FlrCodeUtil.generateAssetId 的结果一致
+    * */
+    private static void assertEquivalent(List<String> assetArray) {
+        for (String priorAssetType : PRIOR_ASSET_TYPE_ARRAY) {
+            List<String> expectedAssetIdArray = new ArrayList<String>();
+            for (String asset : assetArray) {
+                expectedAssetIdArray.add(FlrCodeUtil.generateAssetId(asset, expectedAssetIdArray, priorAssetType));
+            }
+
+            FlrAssetIdAllocator allocator = new FlrAssetIdAllocator(priorAssetType);
+            List<String> actualAssetIdArray = new ArrayList<String>();
+            for (String asset : assetArray) {
+                actualAssetIdArray.add(allocator.allocate(asset));
+            }
+
+            assertEquals(String.format("priorAssetType = %s, assets = %s", priorAssetType, assetArray), expectedAssetIdArray, actualAssetIdArray);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.flr.command.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+* 预格式化 r.g.dart 的golden测试
+*
+* 验证按 DARTFMT_LINE_LENGTH 生成的 r.g.dart 与对其执行dartfmt后的结果完全一致，
+* 即 FlrCodeUtil.isPreformattedCode 返回true时，跳过格式化不会改变 r.g.dart 的最终内容。
+*
+* golden文件位于 src/test/resources/golden/r_dart，其内容是按 dartfmt 的 short style（即 Dart SDK 3.7 之前的格式化风格）手工编写的期望结果，
+* 本测试只能保证生成结果与golden文件一致；golden文件本身是否符合 `dart format -l 80` 的结果，
+* 由CI（.github/workflows/flr-engine.yml）使用 Dart SDK 3.6 执行以下命令检查：
+* ```
+* dart format --output=none --set-exit-if-changed -l 80 flr-engine/src/test/resources/golden/r_dart
+* ```
+* 该检查通过之前，FlrConstant.PREFORMAT_R_DART_FILE_ENABLED 保持不启用。
+*
+* 生成结果与golden文件不一致时，实际生成结果会写入 build/golden-actual；更新golden文件的方式：
+* ```
+* dart format -l 80 flr-engine/build/golden-actual
+* cp flr-engine/build/golden-actual/*.r.g.dart flr-engine/src/test/resources/golden/r_dart
+* ```
+* 若 dart format 改变了实际生成结果，说明生成代码的格式有误，应修改 FlrCodeUtil 而不是golden文件。
+* */
+public class FlrCodeUtilGoldenTest {
+
+    private static final String PACKAGE_NAME = "flutter_r_demo";
+
+    private static final int DARTFMT_LINE_LENGTH = 80;
+
+    @Test
+    public void testNullsafety() throws IOException {
+        assertMatchesGolden("nullsafety", true,
+                Arrays.asList("assets/images/test.png", "packages/flutter_r_demo/assets/images/logo.jpg"),
+                Arrays.asList("assets/svg/ic_home.svg"),
+                Arrays.asList("assets/jsons/config.json"),
+                Arrays.asList(createFontFamilyConfig("Amiri"), createFontFamilyConfig("Baloo-Thambi-2")));
+    }
+
+    @Test
+    public void testLegacy() throws IOException {
+        // 不支持空安全时，AssetResource 的构造函数带有 assert 初始化列表，需要在“:”之前换行
+        assertMatchesGolden("legacy", false,
+                Arrays.asList("assets/images/test.png", "packages/flutter_r_demo/assets/images/logo.jpg"),
+                Arrays.asList("assets/svg/ic_home.svg"),
+                Arrays.asList("assets/jsons/config.json"),
+                Arrays.asList(createFontFamilyConfig("Amiri"), createFontFamilyConfig("Baloo-Thambi-2")));
+    }
+
+    @Test
+    public void testLongAssetIds() throws IOException {
+        // 单行代码超出行长，但是按结尾逗号拆分后不超出行长
+        assertMatchesGolden("long_asset_ids", true,
+                Arrays.asList("assets/images/home_page_background_gradient.png",
+                        "assets/images/onboarding_welcome_page_illustration_night_mode.png",
+                        "packages/flutter_r_demo/assets/images/settings_page_header_banner.png"),
+                Arrays.asList("assets/svg/navigation_bar_home_selected.svg"),
+                Arrays.asList("assets/jsons/remote_config_default_values.json"),
+                Arrays.asList(createFontFamilyConfig("Noto-Sans-Simplified-Chinese")));
+    }
+
+    @Test
+    public void testDollarNames() throws IOException {
+        // assetId 可以包含 '$'，asset 中的 '$' 需要转义；重名的 assetId 以 $1、$2…… 区分
+        assertMatchesGolden("dollar_names", true,
+                Arrays.asList("assets/icons/test.png", "assets/images/price$.png", "assets/images/test.png"),
+                Arrays.asList("assets/svg/cost$tag.svg"),
+                Arrays.asList("assets/texts/a$b.txt"),
+                Arrays.asList(createFontFamilyConfig("Roboto")));
+    }
+
+    @Test
+    public void testEmptySections() throws IOException {
+        // 没有任何asset和字体时，各个类体的末尾不能有空行
+        assertMatchesGolden("empty_sections", true,
+                Collections.<String>emptyList(),
+                Collections.<String>emptyList(),
+                Collections.<String>emptyList(),
+                Collections.<Map>emptyList());
+    }
+
+    @Test
+    public void testUnsplittableLineIsNotPreformatted() {
+        // dartfmt无法拆分过长的assetId和asset，此时必须执行dartfmt
+        String rDartFileContent = generateRDartFileContent(true,
+                Arrays.asList("assets/images/an_extremely_long_image_file_name_that_dartfmt_cannot_split_at_all.png"),
+                Collections.<String>emptyList(),
+                Collections.<String>emptyList(),
+                Collections.<Map>emptyList());
+        assertFalse(FlrCodeUtil.isPreformattedCode(rDartFileContent, DARTFMT_LINE_LENGTH));
+    }
+
+    @Test
+    public void testTemplateCodeIsNotPreformatted() {
+        // 按原模板生成的代码（dartfmtLineLength <= 0）总是需要执行dartfmt
+        String rDartFileContent = FlrCodeUtil.generateRDartFileContent(PACKAGE_NAME, false, true,
+                Arrays.asList("assets/images/test.png"),
+                Collections.<String>emptyList(),
+                Collections.<String>emptyList(),
+                Collections.<Map>emptyList(),
+                0);
+        assertFalse(FlrCodeUtil.isPreformattedCode(rDartFileContent, 0));
+    }
+
+    private static void assertMatchesGolden(String caseName, boolean shouldSupportNullsafety, List<String> nonSvgImageAssetArray, List<String> svgImageAssetArray, List<String> textAssetArray, List<Map> fontFamilyConfigArray) throws IOException {
+        String rDartFileContent = generateRDartFileContent(shouldSupportNullsafety, nonSvgImageAssetArray, svgImageAssetArray, textAssetArray, fontFamilyConfigArray);
+        String goldenFileName = caseName + ".r.g.dart";
+        String goldenContent = readGoldenFile(goldenFileName);
+
+        if(goldenContent.equals(rDartFileContent) == false) {
+            File actualFile = new File("build/golden-actual/" + goldenFileName);
+            Files.createDirectories(actualFile.getParentFile().toPath());
+            Files.write(actualFile.toPath(), rDartFileContent.getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(String.format("%s differs from golden file, actual content is written to build/golden-actual", goldenFileName), goldenContent, rDartFileContent);
+        assertTrue(String.format("%s should be preformatted", goldenFileName), FlrCodeUtil.isPreformattedCode(rDartFileContent, DARTFMT_LINE_LENGTH));
+    }
+
+    private static String generateRDartFileContent(boolean shouldSupportNullsafety, List<String> nonSvgImageAssetArray, List<String> svgImageAssetArray, List<String> textAssetArray, List<Map> fontFamilyConfigArray) {
+        return FlrCodeUtil.generateRDartFileContent(PACKAGE_NAME, false, shouldSupportNullsafety, nonSvgImageAssetArray, svgImageAssetArray, textAssetArray, fontFamilyConfigArray, DARTFMT_LINE_LENGTH);
+    }
+
+    private static String readGoldenFile(String goldenFileName) throws IOException {
+        try (InputStream inputStream = FlrCodeUtilGoldenTest.class.getResourceAsStream("/golden/r_dart/" + goldenFileName)) {
+            if(inputStream == null) {
+                throw new IOException("golden file not found: " + goldenFileName);
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int readCount;
+            while ((readCount = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, readCount);
+            }
+            return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, Object> createFontFamilyConfig(String fontFamilyName) {
+        Map<String, Object> fontFamilyConfig = new LinkedHashMap<String, Object>();
+        fontFamilyConfig.put("family", fontFamilyName);
+        return fontFamilyConfig;
+    }
+}
@@ -0,0 +1,263 @@
+package com.flr.command.util;
+
+import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/*
+* FlrPubspecEditor 的测试
+*
+* 每个用例给出编辑前和期望的编辑后的 pubspec.yaml 内容，以期望内容的解析结果作为待保存的 pubspecConfig，
+* 验证就地编辑的结果与期望内容完全一致（包括缩进、引号和注释）
+* */
+@SuppressWarnings("unchecked")
+public class FlrPubspecEditorTest {
+
+    private static final String HEADER =
+            "name: flutter_r_demo\n" +
+            "# flr 的配置\n" +
+            "flr:\n" +
+            "  core_version: 3.2.0\n" +
+            "  dartfmt_line_length: 80\n" +
+            "  assets:\n" +
+            "  - lib/assets/images\n" +
+            "\n";
+
+    @Test
+    public void testReplaceAssetsKeepsIndentQuotesAndComments() {
+        assertEdited(HEADER +
+                        "flutter:\n" +
+                        "  assets:\n" +
+                        "    # logo\n" +
+                        "    - \"lib/assets/images/logo.png\"\n" +
+                        "    - lib/assets/images/old.png # 旧的图片\n" +
+                        "    - 'lib/assets/images/test.png'\n" +
+                        "\n" +
+                        "  uses-material-design: true\n",
+                HEADER +
+                        "flutter:\n" +
+                        "  assets:\n" +
+                        "    # logo\n" +
+                        "    - \"lib/assets/images/logo.png\"\n" +
+                        "    - 'lib/assets/images/test.png'\n" +
+                        "    - lib/assets/images/new.png\n" +
+                        "\n" +
+                        "  uses-material-design: true\n");
+    }
+
+    @Test
+    public void testReplaceAssetsKeepsWideIndicatorOffset() {
+        assertEdited(HEADER +
+                        "flutter:\n" +
+                        "    assets:\n" +
+                        "      -   lib/assets/images/a.png\n",
+                HEADER +
+                        "flutter:\n" +
+                        "    assets:\n" +
+                        "      -   lib/assets/images/a.png\n" +
+                        "      -   lib/assets/images/b.png\n");
+    }
+
+    @Test
+    public void testInsertAssetsUsesIndentOfOtherSequences() {
+        assertEdited(HEADER +
+                        "flutter:\n" +
+                        "  fonts:\n" +
+                        "    - family: Amiri\n" +
+                        "      fonts:\n" +
+                        "        - asset: lib/assets/fonts/Amiri/Amiri-Regular.ttf\n",
+                HEADER +
+                        "flutter:\n" +
+                        "  fonts:\n" +
+                        "    - family: Amiri\n" +
+                        "      fonts:\n" +
+                        "        - asset: lib/assets/fonts/Amiri/Amiri-Regular.ttf\n" +
+                        "  assets:\n" +
+                        "    - lib/assets/images/a.png\n");
+    }
+
+    @Test
+    public void testRemoveAssets() {
+        assertEdited(HEADER +
+                        "flutter:\n" +
+                        "  uses-material-design: true\n" +
+                        "  assets:\n" +
+                        "    - lib/assets/images/a.png\n" +
+                        "# 结尾的注释\n",
+                HEADER +
+                        "flutter:\n" +
+                        "  uses-material-design: true\n" +
+                        "# 结尾的注释\n");
+    }
+
+    @Test
+    public void testReplaceEmptyAssets() {
+        assertEdited(HEADER +
+                        "flutter:\n" +
+                        "  assets:\n" +
+                        "  uses-material-design: true\n",
+                HEADER +
+                        "flutter:\n" +
+                        "  assets:\n" +
+                        "  - lib/assets/images/a.png\n" +
+                        "  uses-material-design: true\n");
+    }
+
+    @Test
+    public void testReplaceFontsKeepsExistingFamilies() {
+        assertEdited(HEADER +
+                        "flutter:\n" +
+                        "  fonts:\n" +
+                        "    - family: Amiri # 阿拉伯字体\n" +
+                        "      fonts:\n" +
+                        "        - asset: lib/assets/fonts/Amiri/Amiri-Regular.ttf\n" +
+                        "    - family: Old\n" +
+                        "      fonts:\n" +
+                        "        - asset: lib/assets/fonts/Old/Old-Regular.ttf\n",
+                HEADER +
+                        "flutter:\n" +
+                        "  fonts:\n" +
+                        "    - family: Amiri # 阿拉伯字体\n" +
+                        "      fonts:\n" +
+                        "        - asset: lib/assets/fonts/Amiri/Amiri-Regular.ttf\n" +
+                        "    - family: Baloo\n" +
+                        "      fonts:\n" +
+                        "      - asset: lib/assets/fonts/Baloo/Baloo-Regular.ttf\n");
+    }
+
+    @Test
+    public void testInsertFonts() {
+        assertEdited(HEADER +
+                        "flutter:\n" +
+                        "  assets:\n" +
+                        "  - lib/assets/images/a.png\n",
+                HEADER +
+                        "flutter:\n" +
+                        "  assets:\n" +
+                        "  - lib/assets/images/a.png\n" +
+                        "  fonts:\n" +
+                        "  - family: Amiri\n" +
+                        "    fonts:\n" +
+                        "    - asset: lib/assets/fonts/Amiri/Amiri-Regular.ttf\n");
+    }
+
+    @Test
+    public void testRemoveFonts() {
+        assertEdited(HEADER +
+                        "flutter:\n" +
+                        "  fonts:\n" +
+                        "  - family: Amiri\n" +
+                        "    fonts:\n" +
+                        "    - asset: lib/assets/fonts/Amiri/Amiri-Regular.ttf\n" +
+                        "  assets:\n" +
+                        "  - lib/assets/images/a.png\n",
+                HEADER +
+                        "flutter:\n" +
+                        "  assets:\n" +
+                        "  - lib/assets/images/a.png\n");
+    }
+
+    @Test
+    public void testReplaceInsertAndRemoveCoreVersion() {
+        String pubspecContent =
+                "name: flutter_r_demo\n" +
+                "flr:\n" +
+                "  core_version: 3.1.0 # 版本\n" +
+                "  assets:\n" +
+                "  - lib/assets/images\n";
+        assertEdited(pubspecContent, pubspecContent.replace("3.1.0", "3.2.0"));
+        assertEdited(pubspecContent.replace("  core_version: 3.1.0 # 版本\n", ""),
+                "name: flutter_r_demo\n" +
+                "flr:\n" +
+                "  assets:\n" +
+                "  - lib/assets/images\n" +
+                "  core_version: 3.2.0\n");
+        assertEdited(pubspecContent, pubspecContent.replace("  core_version: 3.1.0 # 版本\n", ""));
+    }
+
+    @Test
+    public void testCrlf() {
+        assertEdited((HEADER +
+                        "flutter:\n" +
+                        "    assets:\n" +
+                        "        - lib/assets/images/a.png # a\n" +
+                        "    uses-material-design: true\n").replace("\n", "\r\n"),
+                (HEADER +
+                        "flutter:\n" +
+                        "    assets:\n" +
+                        "        - lib/assets/images/a.png # a\n" +
+                        "        - lib/assets/images/b.png\n" +
+                        "    uses-material-design: true\n" +
+                        "    fonts:\n" +
+                        "        - family: Amiri\n" +
+                        "          fonts:\n" +
+                        "          - asset: lib/assets/fonts/Amiri/Amiri-Regular.ttf\n").replace("\n", "\r\n"));
+    }
+
+    @Test
+    public void testFlowStyle() {
+        assertEdited(HEADER +
+                        "flutter:\n" +
+                        "  assets: [lib/assets/images/a.png, \"lib/assets/images/b.png\"] # 资源\n",
+                HEADER +
+                        "flutter:\n" +
+                        "  assets: [lib/assets/images/a.png, lib/assets/images/c.png] # 资源\n");
+    }
+
+    @Test
+    public void testFlowStyleParentMapping() {
+        // 父映射不是块风格时无法就地编辑
+        String pubspecContent = HEADER + "flutter: {uses-material-design: true}\n";
+        Map<String, Object> pubspecConfig = new Yaml().load(pubspecContent);
+        ((Map<String, Object>)pubspecConfig.get("flutter")).put("assets", java.util.Arrays.asList("lib/assets/images/a.png"));
+        assertNull(FlrPubspecEditor.edit(pubspecContent, pubspecConfig));
+    }
+
+    @Test
+    public void testMissingFlutterKey() {
+        assertEdited(HEADER +
+                        "dependencies:\n" +
+                        "    flutter:\n" +
+                        "        sdk: flutter\n",
+                HEADER +
+                        "dependencies:\n" +
+                        "    flutter:\n" +
+                        "        sdk: flutter\n" +
+                        "flutter:\n" +
+                        "  assets:\n" +
+                        "  - lib/assets/images/a.png\n");
+    }
+
+    @Test
+    public void testEmptyFlutterKey() {
+        assertEdited(HEADER +
+                        "flutter:\n" +
+                        "# 结尾的注释\n",
+                HEADER +
+                        "flutter:\n" +
+                        "  assets:\n" +
+                        "  - lib/assets/images/a.png\n" +
+                        "# 结尾的注释\n");
+    }
+
+    @Test
+    public void testUnchanged() {
+        String pubspecContent = HEADER +
+                "flutter:\n" +
+                "  assets:\n" +
+                "    - lib/assets/images/a.png\n";
+        assertEdited(pubspecContent, pubspecContent);
+    }
+
+    /*
+    * 以 expectedPubspecContent 的解析结果作为 pubspecConfig，验证就地编辑 pubspecContent 的结果与 expectedPubspecContent 完全一致
+    * */
+    private static void assertEdited(String pubspecContent, String expectedPubspecContent) {
+        Map<String, Object> pubspecConfig = new Yaml().load(expectedPubspecContent);
+        assertEquals(expectedPubspecContent, FlrPubspecEditor.edit(pubspecContent, pubspecConfig));
+    }
+}
@@ -0,0 +1,343 @@
+package com.flr.engine;
+
+import com.flr.FlrConstant;
+import com.flr.command.util.FlrProfiler;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+* FlrEngine 的generate流程测试
+*
+* 在临时目录中构造flutter工程，执行 FlrEngine.generate，然后检查 pubspec.yaml、r.g.dart 和日志；
+* 覆盖资源目录检测、core_version检测、非法资源文件检测、嵌套资源目录、资源声明的合并、工程类型和写入跳过。
+*
+* === Examples
+* 测试工程的结构：
+* flutter_r_demo
+* ├── .metadata
+* ├── pubspec.yaml
+* └── lib/assets
+*     ├── images：test.png、2.0x/test.png、icons/home.svg、illegal name.png
+*     ├── texts：config.json
+*     ├── htmls：page.html（不在资源目录中，但 pubspec.yaml 中已有其资源声明）
+*     └── fonts/Amiri：Amiri-Regular.ttf、Amiri-Bold.ttf
+* */
+@SuppressWarnings("unchecked")
+public class FlrEngineTest {
+
+    /*
+    * 记录所有日志的 FlrLogger
+    * */
+    private static class RecordingLogger implements FlrLogger {
+        final List<String> textArray = new ArrayList<String>();
+        final List<LogType> logTypeArray = new ArrayList<LogType>();
+
+        @Override
+        public void println(String text, LogType logType) {
+            textArray.add(text);
+            logTypeArray.add(logType);
+        }
+
+        List<String> getTexts(LogType logType) {
+            List<String> matchedTextArray = new ArrayList<String>();
+            for (int i = 0; i < textArray.size(); i++) {
+                if(logTypeArray.get(i) == logType) {
+                    matchedTextArray.add(textArray.get(i));
+                }
+            }
+            return matchedTextArray;
+        }
+    }
+
+    private static final String PUBSPEC_CONTENT = "name: flutter_r_demo\n" +
+            "description: A demo flutter project.\n" +
+            "\n" +
+            "# the dependencies of flutter_r_demo\n" +
+            "dependencies:\n" +
+            "  flutter:\n" +
+            "    sdk: flutter\n" +
+            "\n" +
+            "flutter:\n" +
+            "  uses-material-design: true\n" +
+            "  assets:\n" +
+            "    - packages/flutter_r_demo/assets/htmls/page.html\n" +
+            "    - packages/flutter_r_demo/assets/images/removed.png\n" +
+            "    - packages/third_party/assets/images/logo.png\n" +
+            "\n" +
+            "flr:\n" +
+            "  core_version: 3.1.0\n" +
+            "  dartfmt_line_length: 80\n" +
+            "  assets:\n" +
+            "    - lib/assets/images\n" +
+            "    - lib/assets/images/icons\n" +
+            "    - lib/assets/texts\n" +
+            "    - lib/assets/missing\n" +
+            "  fonts:\n" +
+            "    - lib/assets/fonts\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String flutterProjectRootDir;
+    private RecordingLogger logger;
+    private FlrEngine engine;
+
+    @Before
+    public void setUp() throws IOException {
+        flutterProjectRootDir = new File(temporaryFolder.getRoot(), "flutter_r_demo").getAbsolutePath().replace(File.separatorChar, '/');
+        writeFile("pubspec.yaml", PUBSPEC_CONTENT);
+        writeMetadataFile("app");
+        for (String relativeFilePath : Arrays.asList(
+                "lib/assets/images/test.png",
+                "lib/assets/images/2.0x/test.png",
+                "lib/assets/images/icons/home.svg",
+                "lib/assets/images/illegal name.png",
+                "lib/assets/texts/config.json",
+                "lib/assets/htmls/page.html",
+                "lib/assets/fonts/Amiri/Amiri-Regular.ttf",
+                "lib/assets/fonts/Amiri/Amiri-Bold.ttf")) {
+            writeFile(relativeFilePath, "");
+        }
+
+        logger = new RecordingLogger();
+        engine = new FlrEngine(FlrNioFileSystem.getInstance(), logger, true);
+    }
+
+    @Test
+    public void testGenerateUpdatesPubspec() throws IOException {
+        FlrEngine.Result result = engine.generate(flutterProjectRootDir);
+
+        assertTrue(result.isSucceeded);
+        assertTrue(result.isPubspecChanged);
+        assertTrue(result.isFlutterAssetsChanged);
+        assertTrue(result.isRDartFileChanged);
+
+        Map<String, Object> pubspecConfig = loadPubspecConfig();
+        Map<String, Object> flutterConfig = (Map<String, Object>)pubspecConfig.get("flutter");
+        // 扫描得到的asset按字典顺序排在前面；仍然存在的非扫描asset和其他package的asset保留在后面，已不存在的asset被移除
+        // 倍率变体（2.0x/test.png）和非法资源文件不会被声明；嵌套资源目录中的文件只声明一次
+        assertEquals(Arrays.asList(
+                "packages/flutter_r_demo/assets/images/icons/home.svg",
+                "packages/flutter_r_demo/assets/images/test.png",
+                "packages/flutter_r_demo/assets/texts/config.json",
+                "packages/flutter_r_demo/assets/htmls/page.html",
+                "packages/third_party/assets/images/logo.png"), flutterConfig.get("assets"));
+
+        Map<String, Object> fontFamilyConfig = new LinkedHashMap<String, Object>();
+        fontFamilyConfig.put("family", "Amiri");
+        fontFamilyConfig.put("fonts", Arrays.asList(
+                Collections.singletonMap("asset", "packages/flutter_r_demo/assets/fonts/Amiri/Amiri-Bold.ttf"),
+                Collections.singletonMap("asset", "packages/flutter_r_demo/assets/fonts/Amiri/Amiri-Regular.ttf")));
+        assertEquals(Collections.singletonList(fontFamilyConfig), flutterConfig.get("fonts"));
+
+        Map<String, Object> flrConfig = (Map<String, Object>)pubspecConfig.get("flr");
+        assertEquals(FlrConstant.CORE_VERSION, flrConfig.get("core_version"));
+
+        // 只重写发生变化的配置，其余内容（包括注释）保持不变
+        String pubspecContent = readFile("pubspec.yaml");
+        assertTrue(pubspecContent.contains("# the dependencies of flutter_r_demo\n"));
+        assertTrue(pubspecContent.contains("    - lib/assets/missing\n"));
+    }
+
+    @Test
+    public void testGenerateWritesRDartFile() throws IOException {
+        engine.generate(flutterProjectRootDir);
+
+        String rDartFileContent = readFile("lib/r.g.dart");
+        assertTrue(rDartFileContent.startsWith("// IT IS GENERATED BY FLR - DO NOT MODIFY BY HAND\n"));
+        assertTrue(rDartFileContent.contains("  static const package = \"flutter_r_demo\";\n"));
+        assertTrue(rDartFileContent.contains("  AssetImage test() {\n"));
+        assertTrue(rDartFileContent.contains("  AssetSvg home({required double width, required double height}) {\n"));
+        assertTrue(rDartFileContent.contains("  Future<String> config_json() {\n"));
+        assertTrue(rDartFileContent.contains("  final amiri = \"Amiri\";\n"));
+        // 嵌套资源目录中的文件只生成一次
+        assertEquals(1, countOccurrences(rDartFileContent, "  AssetSvg home("));
+        // lib 目录中的资源总是需要指定package
+        assertTrue(rDartFileContent.contains("const AssetResource(\"assets/images/test.png\", packageName: R.package);"));
+    }
+
+    @Test
+    public void testGenerateReportsWarnings() {
+        FlrEngine.Result result = engine.generate(flutterProjectRootDir);
+
+        List<String> warningTextArray = logger.getTexts(FlrLogger.LogType.warning);
+        assertEquals(3, result.warningCount);
+        assertEquals(3, warningTextArray.size());
+        // 按 core_version、资源目录、资源文件的顺序警告
+        assertTrue(warningTextArray.get(0).contains("core_version 3.1.0"));
+        assertTrue(warningTextArray.get(1).endsWith("resource directory which is not existed: \n  - " + flutterProjectRootDir + "/lib/assets/missing"));
+        assertTrue(warningTextArray.get(2).endsWith("contains illegal characters: \n  - " + flutterProjectRootDir + "/lib/assets/images/illegal name.png"));
+    }
+
+    @Test
+    public void testGenerateProfilesEachStep() {
+        engine.generate(flutterProjectRootDir);
+
+        List<String> stepNameArray = new ArrayList<String>();
+        for (FlrProfiler.Step step : engine.getProfiler().getEndedSteps()) {
+            assertEquals(flutterProjectRootDir, step.flutterProjectRootDir);
+            stepNameArray.add(step.name);
+        }
+        assertEquals(Arrays.asList(
+                "Step-1 check environment",
+                "Step-2 check core_version",
+                "Step-3 check resource dirs",
+                "Step-4 scan resource dirs",
+                "Step-4 generate image assets",
+                "Step-5 generate text assets",
+                "Step-6 generate font assets",
+                "Step-7 check illegal files",
+                "Step-8 update pubspec.yaml",
+                "Step-9 allocate asset ids",
+                "Step-10 create r.g.dart buffer",
+                "Step-11 generate R class",
+                "Step-12 generate AssetResource class",
+                "Step-13 generate _R_Image_AssetResource class",
+                "Step-14 generate _R_Svg_AssetResource class",
+                "Step-15 generate _R_Text_AssetResource class",
+                "Step-16 generate _R_Image class",
+                "Step-17 generate _R_Svg class",
+                "Step-18 generate _R_Text class",
+                "Step-19 generate _R_FontFamily class",
+                "Step-20 write r.g.dart",
+                "Step-21 check r.g.dart format",
+                "Step-22 print warnings"), stepNameArray);
+    }
+
+    @Test
+    public void testGenerateAgainChangesNothing() throws IOException {
+        engine.generate(flutterProjectRootDir);
+        String pubspecContent = readFile("pubspec.yaml");
+        String rDartFileContent = readFile("lib/r.g.dart");
+
+        FlrEngine.Result result = engine.generate(flutterProjectRootDir);
+
+        assertTrue(result.isSucceeded);
+        assertFalse(result.isPubspecChanged);
+        assertFalse(result.isFlutterAssetsChanged);
+        assertFalse(result.isRDartFileChanged);
+        // core_version 已经更新，不再警告
+        assertEquals(2, result.warningCount);
+        assertEquals(pubspecContent, readFile("pubspec.yaml"));
+        assertEquals(rDartFileContent, readFile("lib/r.g.dart"));
+    }
+
+    @Test
+    public void testGenerateAfterRemovingResource() throws IOException {
+        engine.generate(flutterProjectRootDir);
+        Files.delete(resolve("lib/assets/images/test.png"));
+        Files.delete(resolve("lib/assets/images/2.0x/test.png"));
+
+        FlrEngine.Result result = engine.generate(flutterProjectRootDir);
+
+        assertTrue(result.isFlutterAssetsChanged);
+        assertTrue(result.isRDartFileChanged);
+        Map<String, Object> flutterConfig = (Map<String, Object>)loadPubspecConfig().get("flutter");
+        assertEquals(Arrays.asList(
+                "packages/flutter_r_demo/assets/images/icons/home.svg",
+                "packages/flutter_r_demo/assets/texts/config.json",
+                "packages/flutter_r_demo/assets/htmls/page.html",
+                "packages/third_party/assets/images/logo.png"), flutterConfig.get("assets"));
+        assertFalse(readFile("lib/r.g.dart").contains("AssetImage test()"));
+    }
+
+    @Test
+    public void testGenerateForPackageProject() throws IOException {
+        // Package工程中，lib 目录之外的资源也需要指定package
+        writeMetadataFile("package");
+        writeFile("pubspec.yaml", "name: flutter_r_demo\n" +
+                "\n" +
+                "flr:\n" +
+                "  core_version: " + FlrConstant.CORE_VERSION + "\n" +
+                "  assets:\n" +
+                "    - assets/images\n");
+        writeFile("assets/images/banner.png", "");
+
+        FlrEngine.Result result = engine.generate(flutterProjectRootDir);
+
+        assertTrue(result.isSucceeded);
+        assertEquals(0, result.warningCount);
+        Map<String, Object> flutterConfig = (Map<String, Object>)loadPubspecConfig().get("flutter");
+        assertEquals(Collections.singletonList("assets/images/banner.png"), flutterConfig.get("assets"));
+        assertTrue(readFile("lib/r.g.dart").contains("const AssetResource(\"assets/images/banner.png\", packageName: R.package);"));
+
+        writeMetadataFile("app");
+        engine.generate(flutterProjectRootDir);
+        assertTrue(readFile("lib/r.g.dart").contains("const AssetResource(\"assets/images/banner.png\", packageName: null);"));
+    }
+
+    @Test
+    public void testGenerateWithoutFlrConfigFails() throws IOException {
+        String pubspecContent = "name: flutter_r_demo\n";
+        writeFile("pubspec.yaml", pubspecContent);
+
+        FlrEngine.Result result = engine.generate(flutterProjectRootDir);
+
+        assertFalse(result.isSucceeded);
+        assertEquals(Collections.singletonList("[x]: have no flr configuration in pubspec.yaml"), logger.getTexts(FlrLogger.LogType.error));
+        assertEquals(pubspecContent, readFile("pubspec.yaml"));
+        assertFalse(Files.exists(resolve("lib/r.g.dart")));
+    }
+
+    @Test
+    public void testGenerateWithoutPubspecFails() throws IOException {
+        Files.delete(resolve("pubspec.yaml"));
+
+        FlrEngine.Result result = engine.generate(flutterProjectRootDir);
+
+        assertFalse(result.isSucceeded);
+        assertEquals(1, logger.getTexts(FlrLogger.LogType.error).size());
+        assertFalse(Files.exists(resolve("lib/r.g.dart")));
+    }
+
+    private Path resolve(String relativeFilePath) {
+        return new File(flutterProjectRootDir, relativeFilePath).toPath();
+    }
+
+    private void writeFile(String relativeFilePath, String content) throws IOException {
+        Path path = resolve(relativeFilePath);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeMetadataFile(String projectType) throws IOException {
+        writeFile(".metadata", "version:\n  revision: 0\n  channel: stable\n\nproject_type: " + projectType + "\n");
+    }
+
+    private String readFile(String relativeFilePath) throws IOException {
+        return new String(Files.readAllBytes(resolve(relativeFilePath)), StandardCharsets.UTF_8);
+    }
+
+    private Map<String, Object> loadPubspecConfig() throws IOException {
+        return (Map<String, Object>)new Yaml().load(readFile("pubspec.yaml"));
+    }
+
+    private static int countOccurrences(String text, String subText) {
+        int count = 0;
+        int index = text.indexOf(subText);
+        while (index >= 0) {
+            count += 1;
+            index = text.indexOf(subText, index + subText.length());
+        }
+        return count;
+    }
+}
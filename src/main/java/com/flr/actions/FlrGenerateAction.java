@@ -12,6 +12,9 @@ import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import org.jetbrains.annotations.NotNull;
 
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
 public class FlrGenerateAction extends AnAction {
 
     @Override
@@ -32,6 +35,13 @@ public class FlrGenerateAction extends AnAction {
         ProgressManager.getInstance().run(new Task.Backgroundable(project, "Flr Generate", false) {
             @Override
             public void run(@NotNull ProgressIndicator indicator) {
+                // 资源变化监控服务运行时不会清空日志，因此把本次generate作为一次运行，日志过多时可以被折叠为一行摘要
+                boolean isMonitoringAssets = flrApp.getFlrCommand().isMonitoringAssets;
+                if(isMonitoringAssets) {
+                    String nowStr = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
+                    flrLogConsole.beginRun(String.format("%s run Flr-Generate Action", nowStr));
+                }
+
                 flrApp.getFlrCommand().generateAll(e, flrLogConsole);
 
                 // 如果当前资源变化监控服务正在运行，则在执行 generate 后，打印监控服务在运行的提示
@@ -43,6 +53,10 @@ public class FlrGenerateAction extends AnAction {
                                     "[*]: you can click menu \"Tools-Flr-Stop Monitor\" to terminate it\n";
                     flrLogConsole.println(indicatorMessage, FlrLogConsole.LogType.tips);
                 }
+
+                if(isMonitoringAssets) {
+                    flrLogConsole.endRun();
+                }
             }
         });
     }
@@ -0,0 +1,44 @@
+package com.flr.actions;
+
+import com.flr.FlrApp;
+import com.flr.logConsole.FlrLogConsole;
+import com.flr.toolWindow.FlrToolWindowFactory;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.PlatformDataKeys;
+import com.intellij.openapi.actionSystem.ToggleAction;
+import com.intellij.openapi.project.Project;
+
+public class FlrProfileAction extends ToggleAction {
+
+    @Override
+    public boolean isSelected(AnActionEvent e) {
+        Project project = e.getData(PlatformDataKeys.PROJECT);
+        if (project == null) return false;
+
+        FlrApp flrApp = FlrApp.getInstance(project);
+        return flrApp.getFlrCommand().isProfilingGenerate;
+    }
+
+    @Override
+    public void setSelected(AnActionEvent e, boolean state) {
+        Project project = e.getData(PlatformDataKeys.PROJECT);
+        if (project == null) return;
+
+        FlrLogConsole flrLogConsole = FlrToolWindowFactory.getLogConsole(project);
+        FlrToolWindowFactory.showCurLogConsole(project);
+
+        FlrApp flrApp = FlrApp.getInstance(project);
+        flrApp.getFlrCommand().isProfilingGenerate = state;
+
+        flrLogConsole.println("", FlrLogConsole.LogType.normal);
+        if(state) {
+            String tipsMessage =
+                    "[*]: profiling generate is enabled, the time and counts of each generate step will be displayed after each generate,\n" +
+                            "     and exported to \".dart_tool/flr/generate_profile.json\" and \".dart_tool/flr/generate_trace.json\" of the flutter main project\n" +
+                            "[*]: you can click menu \"Tools-Flr-Profile Generate\" again to disable it";
+            flrLogConsole.println(tipsMessage, FlrLogConsole.LogType.tips);
+        } else {
+            flrLogConsole.println("[*]: profiling generate is disabled", FlrLogConsole.LogType.tips);
+        }
+    }
+}
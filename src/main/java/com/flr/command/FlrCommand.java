@@ -2,22 +2,35 @@ package com.flr.command;
 
 import com.flr.FlrConstant;
 import com.flr.FlrException;
-import com.flr.command.util.FlrAssetUtil;
-import com.flr.command.util.FlrCodeUtil;
 import com.flr.command.util.FlrFileUtil;
+import com.flr.command.util.FlrPathTrie;
+import com.flr.command.util.FlrProfiler;
+import com.flr.command.util.FlrResourceScanner;
 import com.flr.command.util.FlrUtil;
-import com.flr.logConsole.FlrColoredLogEntity;
+import com.flr.command.util.FlrVfsFileSystem;
+import com.flr.engine.FlrEngine;
+import com.flr.logConsole.FlrBufferedLogConsole;
 import com.flr.logConsole.FlrLogConsole;
+import com.flr.logConsole.FlrLogConsoleLogger;
 import com.flr.messageBox.FlrMessageBox;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.events.*;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import io.flutter.sdk.*;
 import com.jetbrains.lang.dart.sdk.DartSdk;
@@ -44,12 +57,37 @@ import org.snakeyaml.engine.v2.exceptions.YamlEngineException;
 @SuppressWarnings("unchecked")
 public class FlrCommand implements Disposable {
 
+    /*
+    * 单个flutter工程的generate操作结果
+    * */
+    private static class GenerateOneResult {
+        // flutter工程根目录
+        String flutterProjectRootDir;
+        // generate操作是否成功
+        boolean isSucceeded = false;
+        // 警告数量
+        int warningCount = 0;
+        // pubspec.yaml 是否有变化（即是否实际写入）
+        boolean isPubspecChanged = false;
+        // pubspec.yaml 中的 flutter.assets 或者 flutter.fonts 是否有变化；只有它们变化时才需要获取依赖
+        boolean isFlutterAssetsChanged = false;
+        // r.g.dart 是否有变化（即是否实际写入）
+        boolean isRDartFileChanged = false;
+        // 待格式化的 r.g.dart；若无需格式化，则为null
+        File unformattedRDartFile = null;
+    }
+
     public boolean isMonitoringAssets = false;
 
+    // 是否输出并导出 generate 的各个步骤的耗时和计数，可通过菜单“Tools-Flr-Profile Generate”切换，参见 reportProfile
+    public volatile boolean isProfilingGenerate = false;
+
     private final Project curProject;
 
     private FlrListener curFlrListener;
 
+    private FlrGenerateScheduler curGenerateScheduler;
+
     private String messageBoxTitle = "Flr";
 
     private FlrLogConsole.LogType titleLogType = FlrLogConsole.LogType.tips;
@@ -60,6 +98,17 @@ public class FlrCommand implements Disposable {
 
     public boolean isFlutterProject = false;
 
+    // 各个flutter工程最近一次的资源扫描结果，key为flutter工程根目录；
+    // 资源变化监控服务运行时，资源变化事件会更新到这些扫描结果的副本中，generate成功后再替换缓存，从而避免重新扫描资源目录
+    private final Map<String, FlrResourceScanner.Result> scanResultCache = new ConcurrentHashMap<String, FlrResourceScanner.Result>();
+
+    // generate操作的锁：手动generate和资源变化监控服务触发的generate不会同时执行，
+    // 避免它们同时写入同一个工程的 pubspec.yaml 和 r.g.dart，以及同时更新 scanResultCache
+    private final Object generateLock = new Object();
+
+    // 资源变化监控服务所监控的资源目录（绝对路径）的前缀树，其关联值为资源目录所属的flutter工程根目录
+    private volatile FlrPathTrie<String> monitoredDirOwnerTrie = new FlrPathTrie<String>();
+
     public FlrCommand(Project project) {
         curProject = project;
     }
@@ -102,6 +151,10 @@ public class FlrCommand implements Disposable {
             curFlrListener.dispose();
             curFlrListener = null;
         }
+        if(curGenerateScheduler != null) {
+            curGenerateScheduler.dispose();
+            curGenerateScheduler = null;
+        }
     }
 
     // MARK: Private Util Methods
@@ -347,7 +400,18 @@ public class FlrCommand implements Disposable {
         // ----- Step-3 End -----
 
         // 保存并刷新 pubspec.yaml
-        FlrFileUtil.dumpPubspecConfigToFile(pubspecConfig, pubspecFile);
+        try {
+            FlrFileUtil.dumpPubspecConfigToFile(pubspecConfig, pubspecFile);
+        } catch (FlrException e) {
+            handleFlrException(flrExceptionTitle, e);
+
+            flrLogConsole.println(e.getMessage(), FlrLogConsole.LogType.error);
+            flrLogConsole.println(flrExceptionTitle, FlrLogConsole.LogType.error);
+
+            indicatorMessage = "--------------------------------------------------------------------------------------";
+            flrLogConsole.println(indicatorMessage, indicatorType);
+            return;
+        }
 
         String contentTitle = String.format("[√]: init %s done !!!", flutterProjectRootDir);
         showSuccessMessage(contentTitle, "", false);
@@ -359,7 +423,17 @@ public class FlrCommand implements Disposable {
         flrLogConsole.println(indicatorMessage, indicatorType);
     }
 
+    /*
+    * 为flutter主工程和其所有子工程执行generate操作
+    * 与其他generate操作（包括资源变化监控服务触发的generate操作）互斥，若有generate操作正在执行，则等待其完成
+    * */
     public void generateAll(@NotNull AnActionEvent actionEvent, @NotNull FlrLogConsole flrLogConsole) {
+        synchronized (generateLock) {
+            doGenerateAll(actionEvent, flrLogConsole);
+        }
+    }
+
+    private void doGenerateAll(@NotNull AnActionEvent actionEvent, @NotNull FlrLogConsole flrLogConsole) {
         if (checkIsFlutterProjectAndShowTips(flrLogConsole) == false) {
             return;
         }
@@ -392,578 +466,492 @@ public class FlrCommand implements Disposable {
         // - 获取flutter主工程根目录下所有的子工程目录
         // - 对主工程执行generate_one操作
         // - 对所有子工程执行generate_one操作
+        // - 若 GENERATE_PARALLELISM 大于1且存在子工程，则并行地对所有工程执行generate_one操作，并汇总各工程的结果
 
         List<String> flutterSubProjectRootDirArray = FlrFileUtil.getFlutterSubProjectRootDirs(flutterMainProjectRootDir);
 
-        flrLogConsole.println("", indicatorType);
-        generateOne(actionEvent, flrLogConsole, flutterMainProjectRootDir);
+        List<String> flutterProjectRootDirArray = new ArrayList<String>();
+        flutterProjectRootDirArray.add(flutterMainProjectRootDir);
+        flutterProjectRootDirArray.addAll(flutterSubProjectRootDirArray);
 
-        for(String flutterProjectRootDir : flutterSubProjectRootDirArray) {
-            flrLogConsole.println("", indicatorType);
-            generateOne(actionEvent, flrLogConsole, flutterProjectRootDir);
+        FlrProfiler profiler = new FlrProfiler();
+        String summaryMessage = null;
+        boolean hasWarning = false;
+        List<GenerateOneResult> generateOneResultArray = new ArrayList<GenerateOneResult>();
+        if(FlrConstant.GENERATE_PARALLELISM > 1 && flutterSubProjectRootDirArray.isEmpty() == false) {
+            generateOneResultArray = generateInParallel(actionEvent, flrLogConsole, flutterProjectRootDirArray, profiler);
+
+            int warningCount = 0;
+            int failureCount = 0;
+            for(GenerateOneResult generateOneResult : generateOneResultArray) {
+                if(generateOneResult.isSucceeded) {
+                    warningCount += generateOneResult.warningCount;
+                } else {
+                    failureCount += 1;
+                }
+            }
+            hasWarning = (warningCount > 0 || failureCount > 0);
+            summaryMessage = String.format("[*]: %d flutter projects, %d failed, found %d %s, you can get the details from Flr ToolWindow",
+                    flutterProjectRootDirArray.size(),
+                    failureCount,
+                    warningCount,
+                    warningCount > 1 ? "warnings" : "warning");
+        } else {
+            for(String flutterProjectRootDir : flutterProjectRootDirArray) {
+                flrLogConsole.println("", indicatorType);
+                generateOneResultArray.add(generateOne(actionEvent, flrLogConsole, flutterProjectRootDir, null, true, profiler));
+            }
         }
 
+        // 一次性格式化所有工程中待格式化的 r.g.dart
+        formatRDartFilesIfNeed(flrLogConsole, generateOneResultArray);
+
         // ----- Step-2 End -----
 
         // ----- Step-3 Begin -----
         // 调用flutter工具，为flutter工程获取依赖
+        // 若所有工程的pubspec.yaml都没有变化，则无需获取依赖
         //
 
-        flrLogConsole.println("", indicatorType);
-        indicatorMessage = "get dependencies for all flutter projects via running \"Flutter Packages Get\" action now ...";
-        flrLogConsole.println(indicatorMessage, indicatorType);
-        FlrUtil.runFlutterPubGet(actionEvent);
-        indicatorMessage = "[√]: get dependencies for all flutter projects done !!!";
-        flrLogConsole.println(indicatorMessage, indicatorType);
+        runFlutterPubGetIfNeed(actionEvent, flrLogConsole, generateOneResultArray, "all flutter projects");
 
         // ----- Step-3 End -----
 
+        reportProfile(flrLogConsole, profiler, flutterMainProjectRootDir);
+
         flrLogConsole.println("", indicatorType);
+        if(summaryMessage != null) {
+            flrLogConsole.println(summaryMessage, hasWarning ? FlrLogConsole.LogType.warning : indicatorType);
+        }
         indicatorMessage = "[√]: generate for all flutter projects done !!!\n";
         flrLogConsole.println(indicatorMessage, indicatorType);
 
         String contentTitle = "[√]: generate for all flutter projects done !!!";
-        showSuccessMessage(contentTitle, "", false);
+        showSuccessMessage(contentTitle, summaryMessage != null ? summaryMessage : "", hasWarning);
     }
 
     /*
-    * 扫描资源目录，自动为资源添加声明到 pubspec.yaml 和生成 r.g.dart
+    * 使用有界线程池并行地对指定的flutter工程执行generate_one操作：
+    * - 最大并行线程数为 GENERATE_PARALLELISM；
+    * - 每个工程的日志先缓存起来，再按工程顺序统一输出，避免不同工程的日志交错在一起；
+    * - 不弹出各个工程的结果通知，由调用方根据返回的结果统一通知。
+    *
+    * 返回各个工程的generate_one操作结果数组，其顺序与 flutterProjectRootDirArray 一致
     * */
-    public void generateOne(@NotNull AnActionEvent actionEvent, @NotNull FlrLogConsole flrLogConsole, @NotNull String flutterProjectRootDir) {
-        String indicatorMessage = "--------------------------- generate for specified project ---------------------------";
-        FlrLogConsole.LogType indicatorType = FlrLogConsole.LogType.normal;
-        flrLogConsole.println(indicatorMessage, indicatorType);
+    private List<GenerateOneResult> generateInParallel(@NotNull AnActionEvent actionEvent, @NotNull FlrLogConsole flrLogConsole, @NotNull List<String> flutterProjectRootDirArray, @NotNull FlrProfiler profiler) {
+        int threadCount = Math.min(FlrConstant.GENERATE_PARALLELISM, flutterProjectRootDirArray.size());
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "Flr-Generate-Worker");
+            thread.setDaemon(true);
+            return thread;
+        });
 
-        String flrExceptionTitle = String.format("[x]: generate for %s failed", flutterProjectRootDir) ;;
+        List<FlrBufferedLogConsole> bufferedLogConsoleArray = new ArrayList<FlrBufferedLogConsole>();
+        List<Future<GenerateOneResult>> futureArray = new ArrayList<Future<GenerateOneResult>>();
+        for(String flutterProjectRootDir : flutterProjectRootDirArray) {
+            FlrBufferedLogConsole bufferedLogConsole = new FlrBufferedLogConsole(curProject);
+            bufferedLogConsoleArray.add(bufferedLogConsole);
+            futureArray.add(executor.submit(() -> generateOne(actionEvent, bufferedLogConsole, flutterProjectRootDir, null, false, profiler)));
+        }
+        executor.shutdown();
+
+        List<GenerateOneResult> generateOneResultArray = new ArrayList<GenerateOneResult>();
+        for(int i = 0; i < futureArray.size(); i++) {
+            String flutterProjectRootDir = flutterProjectRootDirArray.get(i);
+            GenerateOneResult generateOneResult;
+            // 工程的generate_one操作抛出了异常时的失败原因
+            Throwable failureCause = null;
+            try {
+                generateOneResult = futureArray.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                e.printStackTrace();
+                failureCause = e;
+                generateOneResult = new GenerateOneResult();
+                generateOneResult.flutterProjectRootDir = flutterProjectRootDir;
+            } catch (ExecutionException e) {
+                e.printStackTrace();
+                failureCause = (e.getCause() != null) ? e.getCause() : e;
+                generateOneResult = new GenerateOneResult();
+                generateOneResult.flutterProjectRootDir = flutterProjectRootDir;
+            }
 
-        // 警告日志数组
-        List<FlrColoredLogEntity> warningMessages = new ArrayList<FlrColoredLogEntity>();
+            // 按工程顺序输出日志；前面的工程完成后即可输出，无需等待所有工程完成
+            flrLogConsole.println("", FlrLogConsole.LogType.normal);
+            bufferedLogConsoleArray.get(i).flushTo(flrLogConsole);
 
-        String pubspecFilePath;
-        File pubspecFile;
-        Map<String, Object> pubspecConfig;
-        Map<String, Object> flrConfig;
-        List<List<String>> resourceDirResultTuple;
+            // 与串行generate时异常直接抛出不同，并行generate时异常只会导致该工程失败，因此需要在该工程的日志之后输出失败原因
+            if(failureCause != null) {
+                String errorMessage = String.format("[x]: generate for %s failed: %s", flutterProjectRootDir, failureCause);
+                flrLogConsole.println(errorMessage, FlrLogConsole.LogType.error);
+            }
 
-        indicatorMessage = String.format("generate for %s now ...", flutterProjectRootDir);
-        flrLogConsole.println(indicatorMessage, indicatorType);
+            generateOneResultArray.add(generateOneResult);
+        }
 
-        // ----- Step-1 Begin -----
-        // 进行环境检测；若发现不合法的环境，则抛出异常，终止当前进程：
-        // - 检测当前flutter工程根目录是否存在pubspec.yaml
-        // - 检测当前pubspec.yaml中是否存在Flr的配置
-        // - 检测当前flr_config中的resource_dir配置是否合法：
-        //    判断合法的标准是：assets配置或者fonts配置了至少1个legal_resource_dir
-        //
+        return generateOneResultArray;
+    }
 
-        try {
-            FlrChecker.checkPubspecFileIsExisted(flrLogConsole, flutterProjectRootDir);
+    /*
+    * 收集各个工程待格式化的 r.g.dart，然后通过一次dartfmt调用全部格式化，
+    * 避免每个工程都单独切换到UI线程、单独启动一次dartfmt
+    * */
+    private void formatRDartFilesIfNeed(@NotNull FlrLogConsole flrLogConsole, @NotNull List<GenerateOneResult> generateOneResultArray) {
+        FlrLogConsole.LogType indicatorType = FlrLogConsole.LogType.normal;
+        String indicatorMessage;
 
-            pubspecFilePath = FlrFileUtil.getPubspecFilePath(flutterProjectRootDir);
-            pubspecFile = new File(pubspecFilePath);
-            pubspecConfig = FlrFileUtil.loadPubspecConfigFromFile(flrLogConsole, pubspecFile);
+        List<File> rDartFileArray = new ArrayList<File>();
+        for(GenerateOneResult generateOneResult : generateOneResultArray) {
+            if(generateOneResult.unformattedRDartFile != null) {
+                rDartFileArray.add(generateOneResult.unformattedRDartFile);
+            }
+        }
+        if(rDartFileArray.isEmpty()) {
+            return;
+        }
 
-            FlrChecker.checkFlrConfigIsExisted(flrLogConsole, pubspecConfig);
-            flrConfig = (Map<String, Object>)pubspecConfig.get("flr");
+        flrLogConsole.println("", indicatorType);
+        indicatorMessage = String.format("format %d r.g.dart %s now ...", rDartFileArray.size(), rDartFileArray.size() > 1 ? "files" : "file");
+        flrLogConsole.println(indicatorMessage, indicatorType);
+        FlrUtil.formatDartFiles(curProject, rDartFileArray);
+        indicatorMessage = String.format("format %d r.g.dart %s done !!!", rDartFileArray.size(), rDartFileArray.size() > 1 ? "files" : "file");
+        flrLogConsole.println(indicatorMessage, indicatorType);
+    }
 
-            resourceDirResultTuple = FlrChecker.checkFlrAssetsIsLegal(flrLogConsole, flrConfig, flutterProjectRootDir);
-        } catch (FlrException e) {
-            handleFlrException(flrExceptionTitle, e);
+    /*
+    * 若有工程的pubspec.yaml中的flutter-assets配置或者flutter-fonts配置发生了变化，则调用flutter工具为这些工程获取依赖，否则跳过；
+    * 只修改了其他配置（如flr配置）时，无需获取依赖
+    * */
+    private void runFlutterPubGetIfNeed(@NotNull AnActionEvent actionEvent, @NotNull FlrLogConsole flrLogConsole, @NotNull List<GenerateOneResult> generateOneResultArray, @NotNull String projectsDesc) {
+        FlrLogConsole.LogType indicatorType = FlrLogConsole.LogType.normal;
+        String indicatorMessage;
 
-            flrLogConsole.println(flrExceptionTitle, FlrLogConsole.LogType.error);
+        List<String> changedFlutterProjectRootDirArray = new ArrayList<String>();
+        for(GenerateOneResult generateOneResult : generateOneResultArray) {
+            if(generateOneResult.isFlutterAssetsChanged) {
+                changedFlutterProjectRootDirArray.add(generateOneResult.flutterProjectRootDir);
+            }
+        }
 
-            indicatorMessage = "--------------------------------------------------------------------------------------";
+        flrLogConsole.println("", indicatorType);
+        if(changedFlutterProjectRootDirArray.isEmpty()) {
+            indicatorMessage = String.format("[*]: assets and fonts of %s are unchanged, skip getting dependencies", projectsDesc);
             flrLogConsole.println(indicatorMessage, indicatorType);
             return;
         }
 
-        String packageName = (String) pubspecConfig.get("name");
-        boolean isPackageProjectType = FlrFileUtil.isPackageProjectType(flrLogConsole, flutterProjectRootDir);
-
-        // ----- Step-1 End -----
-
-        // ----- Step-2 Begin -----
-        // 进行核心逻辑版本检测：
-        // 检测flr_config中的core_version和当前工具的core_version是否一致；若不一致，则按照以下规则处理：
-        //  - 更新flr_config中的core_version的值为当前工具的core_version；
-        //  - 生成“核心逻辑版本不一致”的警告日志，存放到警告日志数组。
-        //
-
-        String flrCoreVersion = (String)flrConfig.get("core_version");
-
-        if(flrCoreVersion instanceof String == false) {
-            flrCoreVersion = "unknown";
+        for(String flutterProjectRootDir : changedFlutterProjectRootDirArray) {
+            indicatorMessage = String.format("get dependencies for %s via running \"flutter pub get\" now ...", flutterProjectRootDir);
+            flrLogConsole.println(indicatorMessage, indicatorType);
         }
+        FlrUtil.runFlutterPubGet(actionEvent, flrLogConsole, changedFlutterProjectRootDirArray);
+        indicatorMessage = String.format("[√]: get dependencies for %d changed %s done !!!",
+                changedFlutterProjectRootDirArray.size(),
+                changedFlutterProjectRootDirArray.size() > 1 ? "projects" : "project");
+        flrLogConsole.println(indicatorMessage, indicatorType);
+    }
 
-        if(flrCoreVersion.equals(FlrConstant.CORE_VERSION) == false) {
-            flrConfig.put("core_version", FlrConstant.CORE_VERSION);
-
-            String warningText = String.format("[!]: warning, some team members may be using Flr tool with core_version %s, while you are using Flr tool with core_version %s", flrCoreVersion,FlrConstant.CORE_VERSION);
-            String tipsText = "[*]: to fix it, you and your team members should use the Flr tool with same core_version"
-                    + "\n"
-                    + "[*]: \"core_version\" is the core logic version of Flr tool, you can click menu \"Tools-Flr-Version\" to get it";
+    /*
+    * 输出 profiler 记录的各个工程各个步骤的耗时和计数：
+    * - 若启用了 GENERATE_PROFILE_SUMMARY_ENABLED 或者 isProfilingGenerate，则在 Flr ToolWindow 中输出汇总表格；
+    * - 若启用了 GENERATE_PROFILE_EXPORT_ENABLED 或者 isProfilingGenerate，则导出到 #{flutter_main_project_root_dir}/.dart_tool/flr 中的
+    *   generate_profile.json（JSON格式）和 generate_trace.json（Chrome Trace格式）；每次generate都会覆盖上一次的导出结果。
+    * */
+    private void reportProfile(@NotNull FlrLogConsole flrLogConsole, @NotNull FlrProfiler profiler, String flutterMainProjectRootDir) {
+        FlrLogConsole.LogType indicatorType = FlrLogConsole.LogType.normal;
+        String indicatorMessage;
+        boolean isSummaryEnabled = FlrConstant.GENERATE_PROFILE_SUMMARY_ENABLED || isProfilingGenerate;
+        boolean isExportEnabled = FlrConstant.GENERATE_PROFILE_EXPORT_ENABLED || isProfilingGenerate;
 
-            FlrColoredLogEntity.Item warningItem = new FlrColoredLogEntity.Item(warningText, FlrLogConsole.LogType.warning);
-            FlrColoredLogEntity.Item tipsItem = new FlrColoredLogEntity.Item(tipsText, FlrLogConsole.LogType.tips);
-            List<FlrColoredLogEntity.Item> items = Arrays.asList(warningItem, tipsItem);
+        if(isSummaryEnabled) {
+            flrLogConsole.println("", indicatorType);
+            indicatorMessage = "[*]: time and counts of each generate step:";
+            flrLogConsole.println(indicatorMessage, FlrLogConsole.LogType.tips);
+            flrLogConsole.println(profiler.formatSummaryTable(), indicatorType);
+        }
 
-            FlrColoredLogEntity logEntity = new FlrColoredLogEntity(items);
-            warningMessages.add(logEntity);
+        if(isExportEnabled == false || flutterMainProjectRootDir == null) {
+            return;
         }
 
-        // ----- Step-2 End -----
+        File profileDir = new File(flutterMainProjectRootDir + "/.dart_tool/flr");
+        File profileFile = new File(profileDir, "generate_profile.json");
+        File traceFile = new File(profileDir, "generate_trace.json");
+        try {
+            Files.createDirectories(profileDir.toPath());
+            Files.write(profileFile.toPath(), profiler.toJson().getBytes(StandardCharsets.UTF_8));
+            Files.write(traceFile.toPath(), profiler.toChromeTrace().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
 
-        // ----- Step-3 Begin -----
-        // 获取assets_legal_resource_dir数组、fonts_legal_resource_dir数组和illegal_resource_dir数组：
-        // - 从flr_config中的assets配置获取assets_legal_resource_dir数组和assets_illegal_resource_dir数组；
-        // - 从flr_config中的fonts配置获取fonts_legal_resource_dir数组和fonts_illegal_resource_dir数组；
-        // - 合并assets_illegal_resource_dir数组和fonts_illegal_resource_dir数组为illegal_resource_dir数组‘；若illegal_resource_dir数组长度大于0，则生成“存在非法的资源目录”的警告日志，存放到警告日志数组。
+        if(isSummaryEnabled) {
+            indicatorMessage = String.format("[*]: the profile is exported to %s, and the trace (open it in chrome://tracing) is exported to %s", profileFile.getPath(), traceFile.getPath());
+            flrLogConsole.println(indicatorMessage, FlrLogConsole.LogType.tips);
+        }
+    }
 
-        // 合法的资源目录数组
-        List<String> assetsLegalResourceDirArray = resourceDirResultTuple.get(0);
-        List<String> fontsLegalResourceDirArray = resourceDirResultTuple.get(1);
-        // 非法的资源目录数组
-        List<String>  illegalResourceDirArray = resourceDirResultTuple.get(2);
+    /*
+    * 扫描资源目录，自动为资源添加声明到 pubspec.yaml 和生成 r.g.dart
+    * 与其他generate操作互斥，若有generate操作正在执行，则等待其完成
+    * */
+    public void generateOne(@NotNull AnActionEvent actionEvent, @NotNull FlrLogConsole flrLogConsole, @NotNull String flutterProjectRootDir) {
+        synchronized (generateLock) {
+            FlrProfiler profiler = new FlrProfiler();
+            GenerateOneResult generateOneResult = generateOne(actionEvent, flrLogConsole, flutterProjectRootDir, null, true, profiler);
+            formatRDartFilesIfNeed(flrLogConsole, Collections.singletonList(generateOneResult));
+            reportProfile(flrLogConsole, profiler, flutterProjectRootDir);
+        }
+    }
 
-        if(illegalResourceDirArray.size() > 0) {
-            String warningText = "[!]: warning, found the following resource directory which is not existed: ";
-            for (String resourceDir : illegalResourceDirArray) {
-                warningText += "\n" + String.format("  - %s", resourceDir);
-            }
+    /*
+    * 扫描资源目录，自动为资源添加声明到 pubspec.yaml 和生成 r.g.dart
+    * 若 presetScanResult 不为null，且其扫描范围与当前的资源目录配置一致，则直接使用该扫描结果，不再扫描资源目录
+    * 若 shouldShowMessage 为false，则不弹出该工程的结果通知，由调用方汇总后统一通知
+    *
+    * generate流程由 flr-engine 的 FlrEngine 完成：通过 FlrVfsFileSystem 访问文件，通过 FlrLogConsoleLogger 输出日志；
+    * 生成的 r.g.dart 不会在这里格式化，而是记录在结果的 unformattedRDartFile 中，由调用方通过 formatRDartFilesIfNeed 统一格式化
+    *
+    * 每个步骤的耗时、处理的文件数量、asset数量和写入的字节数都记录到 profiler 中，由调用方通过 reportProfile 统一输出
+    * */
+    private GenerateOneResult generateOne(@NotNull AnActionEvent actionEvent, @NotNull FlrLogConsole flrLogConsole, @NotNull String flutterProjectRootDir, FlrResourceScanner.Result presetScanResult, boolean shouldShowMessage, @NotNull FlrProfiler profiler) {
+        String indicatorMessage = "--------------------------- generate for specified project ---------------------------";
+        FlrLogConsole.LogType indicatorType = FlrLogConsole.LogType.normal;
+        flrLogConsole.println(indicatorMessage, indicatorType);
 
-            FlrColoredLogEntity.Item warningItem = new FlrColoredLogEntity.Item(warningText, FlrLogConsole.LogType.warning);
-            List<FlrColoredLogEntity.Item> items = Arrays.asList(warningItem);
+        String flrExceptionTitle = String.format("[x]: generate for %s failed", flutterProjectRootDir);
 
-            FlrColoredLogEntity logEntity = new FlrColoredLogEntity(items);
-            warningMessages.add(logEntity);
+        FlrEngine engine = new FlrEngine(FlrVfsFileSystem.getInstance(), new FlrLogConsoleLogger(flrLogConsole), this.shouldSupportNullsafety, profiler);
+        FlrEngine.Result engineResult = engine.generate(flutterProjectRootDir, presetScanResult);
+        // 只缓存generate成功时的扫描结果；generate失败时，缓存的扫描结果可能已经过期，下次需要重新扫描
+        if(engineResult.isSucceeded && engineResult.scanResult != null) {
+            scanResultCache.put(flutterProjectRootDir, engineResult.scanResult);
+        } else {
+            scanResultCache.remove(flutterProjectRootDir);
         }
 
-        // ----- Step-3 End -----
+        GenerateOneResult generateOneResult = new GenerateOneResult();
+        generateOneResult.flutterProjectRootDir = flutterProjectRootDir;
+        generateOneResult.isPubspecChanged = engineResult.isPubspecChanged;
+        generateOneResult.isFlutterAssetsChanged = engineResult.isFlutterAssetsChanged;
+        generateOneResult.isRDartFileChanged = engineResult.isRDartFileChanged;
 
-        indicatorMessage = "scan assets now ...";
-        flrLogConsole.println(indicatorMessage, indicatorType);
+        if(engineResult.isSucceeded == false) {
+            if(shouldShowMessage) {
+                handleFlrException(flrExceptionTitle, engineResult.exception);
+            }
+            flrLogConsole.println(flrExceptionTitle, FlrLogConsole.LogType.error);
 
-        // ----- Step-4 Begin -----
-        // 扫描assets_legal_resource_dir数组中的legal_resource_dir，输出有序的image_asset数组、non_svg_image_asset数组、svg_image_asset数组、illegal_image_file数组：
-        // - 创建image_asset数组、illegal_image_file数组；
-        // - 遍历assets_legal_resource_dir数组，按照如下处理每个资源目录：
-        //  - 扫描当前资源目录和其所有层级的子目录，查找所有image_file；
-        //  - 根据legal_resource_file的标准，筛选查找结果生成legal_image_file子数组和illegal_image_file子数组；illegal_image_file子数组合并到illegal_image_file数组；
-        //  - 根据image_asset的定义，遍历legal_image_file子数组，生成image_asset子数；组；image_asset子数组合并到image_asset数组。
-        // - 对image_asset数组做去重处理；
-        // - 按照字典顺序对image_asset数组做升序排列（一般使用开发语言提供的默认的sort算法即可）；
-        // - 按照SVG分类，从image_asset数组筛选得到有序的non_svg_image_asset数组和svg_image_asset数组：
-        //  - 按照SVG分类，从image_asset数组筛选得到non_svg_image_asset数组和svg_image_asset数组；
-        //  - 按照字典顺序对non_svg_image_asset数组和svg_image_asset数组做升序排列（一般使用开发语言提供的默认的sort算法即可）；
-        // - 输出有序的image_asset数组、non_svg_image_asset数组、svg_image_asset数组、illegal_image_file数组。
-
-        List<String> imageAssetArray = new ArrayList<String>();
-        List<VirtualFile> illegalImageFileArray = new ArrayList<VirtualFile>();
-
-        for (String resourceDir : assetsLegalResourceDirArray) {
-            List<List<VirtualFile>> imageFileResultTuple = FlrFileUtil.findImageFiles(resourceDir);
-            List<VirtualFile> legalImageFileSubArray = imageFileResultTuple.get(0);
-            List<VirtualFile> illegalImageFileSubArray = imageFileResultTuple.get(1);
-
-            illegalImageFileArray.addAll(illegalImageFileSubArray);
-
-            List<String> imageAssetSubArray = FlrAssetUtil.generateImageAssets(flutterProjectRootDir, packageName, legalImageFileSubArray);
-            imageAssetArray.addAll(imageAssetSubArray);
+            indicatorMessage = "--------------------------------------------------------------------------------------";
+            flrLogConsole.println(indicatorMessage, indicatorType);
+            return generateOneResult;
         }
 
-        // uniq
-        imageAssetArray = new ArrayList<String>(new HashSet<String>(imageAssetArray));
-        // sort
-        Collections.sort(imageAssetArray);
-
-        List<String> nonSvgImageAssetArray = new ArrayList<String>();
-        List<String> svgImageAssetArray = new ArrayList<String>();
+        // r.g.dart 有变化，且生成的代码不符合dartfmt格式时，才需要格式化
+        if(engineResult.isRDartFileChanged && engineResult.isRDartFilePreformatted == false) {
+            generateOneResult.unformattedRDartFile = new File(flutterProjectRootDir + "/lib/r.g.dart");
+        }
 
-        for (String asset : imageAssetArray) {
-            File assetFile = new File(asset);
-            if(FlrFileUtil.isSvgImageResourceFile(assetFile)) {
-                svgImageAssetArray.add(asset);
+        int warningCount = engineResult.warningCount;
+        if(shouldShowMessage) {
+            String contentTitle = String.format("[√]: generate for %s done!", flutterProjectRootDir);
+            if(warningCount > 0) {
+                String warningUnitDesc = "warning";
+                if(warningCount > 1) {
+                    warningUnitDesc = "warnings";
+                }
+                String warningMessage = String.format("[!]: found %d %s, you can get the details from Flr ToolWindow", warningCount, warningUnitDesc);
+                showSuccessMessage(contentTitle, warningMessage, true);
             } else {
-                nonSvgImageAssetArray.add(asset);
+                showSuccessMessage(contentTitle, "", false);
             }
         }
 
-        Collections.sort(nonSvgImageAssetArray);
-        Collections.sort(svgImageAssetArray);
-
-        // ----- Step-4 End -----
-
-        // ----- Step-5 Begin -----
-        // 扫描assets_legal_resource_dir数组中的legal_resource_dir，输出text_asset数组和illegal_text_file数组：
-        // - 创建text_asset数组、illegal_text_file数组；
-        // - 遍历assets_legal_resource_dir数组，按照如下处理每个资源目录：
-        //  - 扫描当前资源目录和其所有层级的子目录，查找所有text_file；
-        //  - 根据legal_resource_file的标准，筛选查找结果生成legal_text_file子数组和illegal_text_file子数组；illegal_text_file子数组合并到illegal_text_file数组；
-        //  - 根据text_asset的定义，遍历legal_text_file子数组，生成text_asset子数组；text_asset子数组合并到text_asset数组。
-        // - 对text_asset数组做去重处理；
-        // - 按照字典顺序对text_asset数组做升序排列（一般使用开发语言提供的默认的sort算法即可）；
-        // - 输出text_asset数组和illegal_image_file数组。
-        //
-
-        List<String> textAssetArray = new ArrayList<String>();
-        List<VirtualFile> illegalTextFileArray = new ArrayList<VirtualFile>();
-
-        for (String resourceDir : assetsLegalResourceDirArray) {
-            List<List<VirtualFile>> textFileResultTuple = FlrFileUtil.findTextFiles(resourceDir);
-            List<VirtualFile> legalTextFileSubArray = textFileResultTuple.get(0);
-            List<VirtualFile> illegalTextFileSubArray = textFileResultTuple.get(1);
+        indicatorMessage = "--------------------------------------------------------------------------------------";
+        flrLogConsole.println(indicatorMessage, indicatorType);
 
-            illegalTextFileArray.addAll(illegalTextFileSubArray);
+        generateOneResult.isSucceeded = true;
+        generateOneResult.warningCount = warningCount;
+        return generateOneResult;
+    }
 
-            List<String> textAssetSubArray = FlrAssetUtil.generateTextAssets(flutterProjectRootDir, packageName, legalTextFileSubArray);
-            textAssetArray.addAll(textAssetSubArray);
+    /*
+    * 根据资源变化事件，增量地为受影响的flutter工程执行generate操作：
+    * - 把资源变化事件更新到受影响工程的扫描结果（的副本）中，不再重新扫描资源目录；
+    * - 只对受影响的工程执行generate操作；
+    * - 若某个事件无法增量处理（如新增了资源目录），则重新扫描受影响的工程；
+    * - 事件所属的工程由资源变化监控服务所监控的资源目录确定，若找不到其所属的工程，则退回到对所有工程执行generate操作。
+    *
+    * 若事件中只有文件内容变化，由于其不影响 pubspec.yaml 和 r.g.dart，因此不会执行generate操作
+    *
+    * 若 indicator 不为null，则在为每个工程执行generate操作前检查其是否已被取消；
+    * 被取消时，剩余的工程不再执行generate操作
+    *
+    * 与其他generate操作（包括手动执行的generate操作）互斥，若有generate操作正在执行，则等待其完成；
+    * 资源变化事件只会应用到缓存的扫描结果的副本上，工程generate成功后才会替换缓存中的扫描结果
+    *
+    * @return 是否执行了generate操作
+    * */
+    public boolean generateIncrementally(@NotNull AnActionEvent actionEvent, @NotNull FlrLogConsole flrLogConsole, @NotNull List<? extends VFileEvent> events, ProgressIndicator indicator) {
+        synchronized (generateLock) {
+            return doGenerateIncrementally(actionEvent, flrLogConsole, events, indicator);
         }
+    }
 
-        // uniq
-        textAssetArray = new ArrayList<String>(new HashSet<String>(textAssetArray));
-        // sort
-        Collections.sort(textAssetArray);
-
-        // ----- Step-5 End -----
-
-        // ----- Step-6 Begin -----
-        // 扫描fonts_legal_resource_dir数组中的legal_resource_dir，输出font_family_config数组、illegal_font_file数组：
-        // - 创建font_family_config数组、illegal_font_file数组；
-        // - 遍历fonts_legal_resource_dir数组，按照如下处理每个资源目录：
-        //  - 扫描当前资源目录，获得其第1级子目录数组，并按照字典顺序对数组做升序排列（一般使用开发语言提供的默认的sort算法即可）；
-        //  - 遍历第1级子目录数组，按照如下处理每个子目录：
-        //    - 获取当前子目录的名称，生成font_family_name；
-        //    - 扫描当前子目录和其所有子目录，查找所有font_file；
-        //    - 根据legal_resource_file的标准，筛选查找结果生成legal_font_file数组和illegal_font_file子数组；illegal_font_file子数组合并到illegal_font_file数组；
-        //    - 据font_asset的定义，遍历legal_font_file数组，生成font_asset_config数组；
-        //    - 按照字典顺序对生成font_asset_config数组做升序排列（比较asset的值）；
-        //    - 根据font_family_config的定义，为当前子目录组织font_family_name和font_asset_config数组生成font_family_config对象，添加到font_family_config子数组；font_family_config子数组合并到font_family_config数组。
-        // - 输出font_family_config数组、illegal_font_file数组；
-        // - 按照字典顺序对font_family_config数组做升序排列（比较family的值）。
-
-
-        List<Map> fontFamilyConfigArray = new ArrayList<Map>();
-        List<VirtualFile> illegalFontFileArray = new ArrayList<VirtualFile>();
-
-        for (String resourceDir : fontsLegalResourceDirArray) {
-            List<VirtualFile> fontFamilyDirArray = FlrFileUtil.findTopChildDirs(resourceDir);
-
-            for (VirtualFile fontFamilyDirFile : fontFamilyDirArray) {
-               String fontFamilyName = fontFamilyDirFile.getName();
-
-                List<List<VirtualFile>> fontFileResultTuple = FlrFileUtil.findFontFilesInFontFamilyDir(fontFamilyDirFile);
-                List<VirtualFile> legalFontFileArray = fontFileResultTuple.get(0);
-                List<VirtualFile> illegalFontFileSubArray = fontFileResultTuple.get(1);
+    private boolean doGenerateIncrementally(@NotNull AnActionEvent actionEvent, @NotNull FlrLogConsole flrLogConsole, @NotNull List<? extends VFileEvent> events, ProgressIndicator indicator) {
+        // 需要重新生成的工程，value为可直接使用的扫描结果（null意味着需要重新扫描）
+        Map<String, FlrResourceScanner.Result> dirtyProjectDict = new LinkedHashMap<String, FlrResourceScanner.Result>();
+        boolean shouldGenerateAll = false;
 
-                illegalFontFileArray.addAll(illegalFontFileSubArray);
+        for (VFileEvent event : events) {
+            if(event instanceof VFileContentChangeEvent) {
+                continue;
+            }
 
-                if(legalFontFileArray.size() <= 0) {
+            // 把事件转换为“移除的路径”和“新增的路径”
+            String removedPath = null;
+            String addedPath = null;
+            boolean isDirectory = event.getFile() != null && event.getFile().isDirectory();
+            if(event instanceof VFileCreateEvent) {
+                addedPath = event.getPath();
+                isDirectory = ((VFileCreateEvent) event).isDirectory();
+            } else if(event instanceof VFileDeleteEvent) {
+                removedPath = event.getPath();
+            } else if(event instanceof VFileMoveEvent) {
+                removedPath = ((VFileMoveEvent) event).getOldPath();
+                addedPath = ((VFileMoveEvent) event).getNewPath();
+            } else if(event instanceof VFileCopyEvent) {
+                VFileCopyEvent copyEvent = (VFileCopyEvent) event;
+                addedPath = copyEvent.getNewParent().getPath() + "/" + copyEvent.getNewChildName();
+            } else if(event instanceof VFilePropertyChangeEvent) {
+                VFilePropertyChangeEvent propertyChangeEvent = (VFilePropertyChangeEvent) event;
+                if(propertyChangeEvent.isRename() == false) {
                     continue;
                 }
-
-                List<Map> fontAssetConfigArray = FlrAssetUtil.generateFontAssetConfigs(flutterProjectRootDir, packageName, legalFontFileArray);
-                fontAssetConfigArray.sort(new Comparator<Map>() {
-                    @Override
-                    public int compare(Map o1, Map o2) {
-                        String assetValue1 = (String)o1.get("asset");
-                        String assetValue2 = (String)o2.get("asset");
-                        return assetValue1.compareTo(assetValue2);
-                    }
-                });
-
-                Map<String, Object> fontFamilyConfig = new LinkedHashMap<String, Object>();
-                fontFamilyConfig.put("family", fontFamilyName);
-                fontFamilyConfig.put("fonts", fontAssetConfigArray);
-
-                fontFamilyConfigArray.add(fontFamilyConfig);
+                removedPath = propertyChangeEvent.getOldPath();
+                addedPath = propertyChangeEvent.getNewPath();
+            } else {
+                shouldGenerateAll = true;
+                break;
             }
-        }
 
-        fontFamilyConfigArray.sort(new Comparator<Map>() {
-            @Override
-            public int compare(Map o1, Map o2) {
-                String familyValue1 = (String)o1.get("family");
-                String familyValue2 = (String)o2.get("family");
-                return familyValue1.compareTo(familyValue2);
+            // 找出变化路径所属的工程
+            Set<String> ownerProjectRootDirSet = new LinkedHashSet<String>();
+            ownerProjectRootDirSet.addAll(getOwnerProjectRootDirs(removedPath));
+            ownerProjectRootDirSet.addAll(getOwnerProjectRootDirs(addedPath));
+            if(ownerProjectRootDirSet.isEmpty()) {
+                shouldGenerateAll = true;
+                break;
             }
-        });
-
-        // ----- Step-6 End -----
 
-        indicatorMessage = "scan assets done !!!";
-        flrLogConsole.println(indicatorMessage, indicatorType);
+            for (String flutterProjectRootDir : ownerProjectRootDirSet) {
+                if(dirtyProjectDict.containsKey(flutterProjectRootDir) && dirtyProjectDict.get(flutterProjectRootDir) == null) {
+                    // 该工程已确定需要重新扫描
+                    continue;
+                }
 
-        //  ----- Step-7 Begin -----
-        //  检测是否存在illegal_resource_file：
-        // - 合并illegal_image_file数组、illegal_text_file数组和illegal_font_file数组为illegal_resource_file数组；
-        // - 若illegal_resource_file数组长度大于0，则生成“存在非法的资源文件”的警告日志，存放到警告日志数组。
+                FlrResourceScanner.Result scanResult = dirtyProjectDict.get(flutterProjectRootDir);
+                if(scanResult == null) {
+                    FlrResourceScanner.Result cachedScanResult = scanResultCache.get(flutterProjectRootDir);
+                    if(cachedScanResult == null) {
+                        // 该工程没有可用的扫描结果，需重新扫描
+                        dirtyProjectDict.put(flutterProjectRootDir, null);
+                        continue;
+                    }
+                    // 在缓存的扫描结果的副本上应用事件；只有该工程generate成功后，副本才会替换缓存中的扫描结果
+                    scanResult = cachedScanResult.copy();
+                }
 
-        List<VirtualFile> illegalResourceFileArray = new ArrayList<VirtualFile>();
-        illegalResourceFileArray.addAll(illegalImageFileArray);
-        illegalResourceFileArray.addAll(illegalTextFileArray);
-        illegalResourceFileArray.addAll(illegalFontFileArray);
+                boolean isRemovedPathInScope = (removedPath != null && scanResult.isInScanScope(removedPath));
+                boolean isAddedPathInScope = (addedPath != null && scanResult.isInScanScope(addedPath));
 
-        if(illegalResourceFileArray.size() > 0) {
-            String warningText = "[!]: warning, found the following illegal resource file who's file basename contains illegal characters: ";
-            for (VirtualFile resourceFile : illegalResourceFileArray) {
-                warningText += "\n" + String.format("  - %s", resourceFile.getPath());
+                boolean didApply = true;
+                if(isRemovedPathInScope) {
+                    didApply = scanResult.removeResourceFile(removedPath, isDirectory);
+                }
+                if(didApply && isAddedPathInScope) {
+                    didApply = scanResult.addResourceFile(addedPath, isDirectory);
+                }
+                dirtyProjectDict.put(flutterProjectRootDir, didApply ? scanResult : null);
             }
-
-            String tipsText  = "[*]: to fix it, you should only use letters (a-z, A-Z), numbers (0-9), and the other legal characters ('_', '+', '-', '.', '·', '!', '@', '&', '$', '￥') to name the file";
-
-            FlrColoredLogEntity.Item warningItem = new FlrColoredLogEntity.Item(warningText, FlrLogConsole.LogType.warning);
-            FlrColoredLogEntity.Item tipsItem = new FlrColoredLogEntity.Item(tipsText, FlrLogConsole.LogType.tips);
-            List<FlrColoredLogEntity.Item> items = Arrays.asList(warningItem, tipsItem);
-
-            FlrColoredLogEntity logEntity = new FlrColoredLogEntity(items);
-            warningMessages.add(logEntity);
         }
 
-        // ----- Step-7 End -----
-
-        // 添加资源声明到 `pubspec.yaml`
-        indicatorMessage = "specify scanned assets in pubspec.yaml now ...";
-        flrLogConsole.println(indicatorMessage, indicatorType);
-
-        // ----- Step-8 Begin -----
-        // 为扫描得到的legal_resource_file添加资源声明到pubspec.yaml：
-        // - 合并image_asset数组和text_asset数组为new_asset_array（image_asset数组元素在前）；
-        // - 读取pubspec.yaml中flutter-assets配置，获得old_asset_array，然后和new_asset_array合并为asset数组；
-        // - 修改pubspec.yaml中flutter-assets配置的值为asset数组；
-        // - 修改pubspec.yaml中flutter-fonts配置的值为font_family_config数组。
-        //
-        Map<String, Object> flutterConfig = (Map<String, Object>)pubspecConfig.get("flutter");
-        if(flutterConfig == null || flrConfig instanceof Map == false) {
-            flutterConfig = new LinkedHashMap<>();
-        }
-
-        List<String> newAssetArray = new ArrayList<>();
-        newAssetArray.addAll(imageAssetArray);
-        newAssetArray.addAll(textAssetArray);
+        FlrLogConsole.LogType indicatorType = FlrLogConsole.LogType.normal;
+        String indicatorMessage;
 
-        List<String> oldAssetArray = new ArrayList<>();
-        if (flutterConfig.containsKey("assets")) {
-            Object assets = flutterConfig.get("assets");
-            if(assets instanceof List) {
-                oldAssetArray = (List<String>)assets;
-            }
+        if(shouldGenerateAll) {
+            generateAll(actionEvent, flrLogConsole);
+            return true;
         }
 
-        List<String> assetArray = FlrAssetUtil.mergeFlutterAssets(flutterProjectRootDir, packageName, newAssetArray, oldAssetArray);
-        if(assetArray.size() > 0) {
-            flutterConfig.put("assets", assetArray);
-        } else {
-            flutterConfig.remove("assets");
+        if(dirtyProjectDict.isEmpty()) {
+            indicatorMessage = "[*]: no asset was added, removed or renamed, skip generating";
+            flrLogConsole.println(indicatorMessage, FlrLogConsole.LogType.tips);
+            return false;
         }
 
-        if(fontFamilyConfigArray.size() > 0) {
-            flutterConfig.put("fonts", fontFamilyConfigArray);
-        } else {
-            flutterConfig.remove("fonts");
+        if (checkIsFlutterProjectAndShowTips(flrLogConsole) == false) {
+            return false;
         }
-        pubspecConfig.put("flutter", flutterConfig);
 
-        // 保存刷新 pubspec.yaml
-        FlrFileUtil.dumpPubspecConfigToFile(pubspecConfig, pubspecFile);
-
-        // ----- Step-8 End -----
+        indicatorMessage = "[Flr Generate]";
+        flrLogConsole.println(indicatorMessage, titleLogType);
 
-        indicatorMessage = "specify scanned assets in pubspec.yaml done !!!";
+        indicatorMessage = "generate for the changed flutter projects now...";
         flrLogConsole.println(indicatorMessage, indicatorType);
 
-        // ----- Step-9 Begin -----
-        // 分别遍历non_svg_image_asset数组、svg_image_asset数组、text_asset数组，
-        // 根据asset_id生成算法，分别输出non_svg_image_asset_id字典、svg_image_asset_id 字典、text_asset_id字典。
-        // 字典的key为asset，value为asset_id。
-        //
-        Map<String, String> nonSvgImageAssetIdDict = new HashMap<>();
-        Map<String, String> svgImageAssetIdDict = new HashMap<>();
-        Map<String, String> textAssetIdDict = new HashMap<>();
-
-        for (String asset : nonSvgImageAssetArray) {
-            List<String> usedAssetIdArray = new ArrayList<>(nonSvgImageAssetIdDict.values());
-            String assetId = FlrCodeUtil.generateAssetId(asset, usedAssetIdArray, FlrConstant.PRIOR_NON_SVG_IMAGE_FILE_TYPE);
-            nonSvgImageAssetIdDict.put(asset, assetId);
-        }
-
-        for (String asset : svgImageAssetArray) {
-            List<String> usedAssetIdArray = new ArrayList<>(svgImageAssetIdDict.values());
-            String assetId = FlrCodeUtil.generateAssetId(asset, usedAssetIdArray, FlrConstant.PRIOR_SVG_IMAGE_FILE_TYPE);
-            svgImageAssetIdDict.put(asset, assetId);
-        }
+        FlrProfiler profiler = new FlrProfiler();
+        List<GenerateOneResult> generateOneResultArray = new ArrayList<GenerateOneResult>();
+        Set<String> generatedProjectRootDirSet = new HashSet<String>();
+        for (Map.Entry<String, FlrResourceScanner.Result> entry : dirtyProjectDict.entrySet()) {
+            if(indicator != null && indicator.isCanceled()) {
+                // 未generate的工程的资源变化事件已被丢弃，其缓存的扫描结果已过期，下次需要重新扫描
+                for (String flutterProjectRootDir : dirtyProjectDict.keySet()) {
+                    if(generatedProjectRootDirSet.contains(flutterProjectRootDir) == false) {
+                        scanResultCache.remove(flutterProjectRootDir);
+                    }
+                }
+                // 已生成的 r.g.dart 仍需格式化
+                formatRDartFilesIfNeed(flrLogConsole, generateOneResultArray);
+                flrLogConsole.println("", indicatorType);
+                indicatorMessage = "[!]: generate for the changed flutter projects is canceled, you can run Flr-Generate Action to generate for all projects";
+                flrLogConsole.println(indicatorMessage, FlrLogConsole.LogType.warning);
+                return true;
+            }
+            if(indicator != null) {
+                indicator.setText(String.format("Flr: generate for %s", entry.getKey()));
+            }
 
-        for (String asset : textAssetArray) {
-            List<String> usedAssetIdArray = new ArrayList<>(textAssetIdDict.values());
-            String assetId = FlrCodeUtil.generateAssetId(asset, usedAssetIdArray, FlrConstant.PRIOR_TEXT_FILE_TYPE);
-            textAssetIdDict.put(asset, assetId);
+            flrLogConsole.println("", indicatorType);
+            generateOneResultArray.add(generateOne(actionEvent, flrLogConsole, entry.getKey(), entry.getValue(), true, profiler));
+            generatedProjectRootDirSet.add(entry.getKey());
         }
 
-        // ----- Step-9 End -----
-
-        // 创建生成 `r.g.dart`
-        indicatorMessage = "generate \"r.g.dart\" now ...";
-        flrLogConsole.println(indicatorMessage, indicatorType);
-
-
-        // ----- Step-10 Begin -----
-        // 在当前根目录下创建新的r.g.dart文件。
-        //
-
-        String r_dart_file_content = "";
-
-        // ----- Step-10 End -----
-
-        // ----- Step-11 Begin -----
-        // 生成 R 类的代码，追加写入r.g.dart
-        //
-
-        String g_R_class_code = FlrCodeUtil.generate_R_class(packageName);
-        r_dart_file_content += g_R_class_code;
-
-        // ----- Step-11 End -----
+        formatRDartFilesIfNeed(flrLogConsole, generateOneResultArray);
 
+        runFlutterPubGetIfNeed(actionEvent, flrLogConsole, generateOneResultArray, "the changed flutter projects");
 
-        // ----- Step-12 Begin -----
-        // 生成 AssetResource 类的代码，追加写入r.g.dart
-        //
-
-        r_dart_file_content += "\n";
-        String g_AssetResource_class_code = FlrCodeUtil.generate_AssetResource_class(packageName, this.shouldSupportNullsafety);
-        r_dart_file_content += g_AssetResource_class_code;
-
-        // ----- Step-12 End -----
-
-
-        // ----- Step-13 Begin -----
-        // 遍历 non_svg_image_asset 数组，生成 _R_Image_AssetResource 类，追加写入 r.g.dart
-        //
-
-        r_dart_file_content += "\n";
-        String g__R_Image_AssetResource_class_code = FlrCodeUtil.generate__R_Image_AssetResource_class(nonSvgImageAssetArray, nonSvgImageAssetIdDict, packageName, isPackageProjectType);
-        r_dart_file_content += g__R_Image_AssetResource_class_code;
-
-        // ----- Step-13 End -----
-
-
-        // ----- Step-14 Begin -----
-        // 遍历 svg_image_asset 数组，生成 _R_Svg_AssetResource 类，追加写入 r.g.dart。
-        //
-
-        r_dart_file_content += "\n";
-        String g__R_Svg_AssetResource_class_code = FlrCodeUtil.generate__R_Svg_AssetResource_class(svgImageAssetArray, svgImageAssetIdDict, packageName, isPackageProjectType);
-        r_dart_file_content += g__R_Svg_AssetResource_class_code;
-
-        // ----- Step-14 End -----
-
-        // ----- Step-15 Begin -----
-        // 遍历 text_asset 数组，生成 _R_Image_AssetResource 类，追加写入 r.g.dart
-        //
-
-        r_dart_file_content += "\n";
-        String g__R_Text_AssetResource_class_code = FlrCodeUtil.generate__R_Text_AssetResource_class(textAssetArray, textAssetIdDict, packageName, isPackageProjectType);
-        r_dart_file_content += g__R_Text_AssetResource_class_code;
-
-        // ----- Step-15 End -----
-
-        // ----- Step-16 Begin -----
-        // 遍历non_svg_image_asset数组，生成 _R_Image 类，追加写入 r.g.dart
-        //
+        reportProfile(flrLogConsole, profiler, curProject.getBasePath());
 
-        r_dart_file_content += "\n";
-        String g__R_Image_class_code = FlrCodeUtil.generate__R_Image_class(nonSvgImageAssetArray, nonSvgImageAssetIdDict, packageName);
-        r_dart_file_content += g__R_Image_class_code;
-
-        // ----- Step-16 End -----
-
-        // ----- Step-17 Begin -----
-        // 遍历 svg_image_asset 数组，生成 _R_Svg 类，追加写入 r.g.dart。
-        //
-
-        r_dart_file_content += "\n";
-        String g__R_Svg_class_code = FlrCodeUtil.generate__R_Svg_class(svgImageAssetArray, svgImageAssetIdDict, packageName, this.shouldSupportNullsafety);
-        r_dart_file_content += g__R_Svg_class_code;
-
-        // ----- Step-17 End -----
-
-        // ----- Step-18 Begin -----
-        // 遍历 text_asset 数组，生成 _R_Image 类，追加写入 r.g.dart。
-        //
-
-        r_dart_file_content += "\n";
-        String g__R_Text_class_code = FlrCodeUtil.generate__R_Text_class(textAssetArray, textAssetIdDict, packageName);
-        r_dart_file_content += g__R_Text_class_code;
-
-        // ----- Step-18 End -----
-
-        // ----- Step-19 Begin -----
-        // 遍历font_family_config数组，根据下面的模板生成_R_Font_Family类，追加写入r.g.dart。
-
-        r_dart_file_content += "\n";
-        String g__R_Font_Family_class_code = FlrCodeUtil.generate__R_FontFamily_class(fontFamilyConfigArray, packageName);
-        r_dart_file_content += g__R_Font_Family_class_code;
-
-        // ----- Step-19 End -----
-
-
-        // ----- Step-20 Begin -----
-        // 结束操作，保存 r.g.dart
-        //
-
-        // 把 rDartContent 写到 r.g.dart 中
-        String rDartFilePath = flutterProjectRootDir + "/lib/r.g.dart";
-        File rDartFile = new File(rDartFilePath);
-        try {
-            FlrFileUtil.writeContentToFile(curProject, r_dart_file_content, rDartFile);
-        } catch (FlrException e) {
-            handleFlrException(flrExceptionTitle, e);
-            return;
-        }
-        // ----- Step-20 End -----
-
-
-        // ----- Step-21 Begin -----
-        // 调用 flutter 工具对 r.g.dart 进行格式化操作
-        //
-
-        // 格式化 r.g.dart
-        indicatorMessage = "format r.g.dart now ...";
-        flrLogConsole.println(indicatorMessage, indicatorType);
-        FlrUtil.formatDartFile(curProject, rDartFile);
-        indicatorMessage = "format r.g.dart done !!!";
+        flrLogConsole.println("", indicatorType);
+        indicatorMessage = "[√]: generate for the changed flutter projects done !!!\n";
         flrLogConsole.println(indicatorMessage, indicatorType);
 
-        // ----- Step-21 End -----
-
-        // ----- Step-22 Begin -----
-        // 判断警告日志数组是否为空，若不为空，输出所有警告日志
-        //
-
-        int warningCount = warningMessages.size();
-        if(warningCount > 0) {
-            for (FlrColoredLogEntity coloredLogEntity : warningMessages) {
-                flrLogConsole.println(coloredLogEntity);
-            }
-        }
+        String contentTitle = "[√]: generate for the changed flutter projects done !!!";
+        showSuccessMessage(contentTitle, "", false);
+        return true;
+    }
 
-        String contentTitle = String.format("[√]: generate for %s done!", flutterProjectRootDir);
-        if(warningCount > 0) {
-            String warningUnitDesc = "warning";
-            if(warningCount > 1) {
-                warningUnitDesc = "warnings";
-            }
-            String warningMessage = String.format("[!]: found %d %s, you can get the details from Flr ToolWindow", warningCount, warningUnitDesc);
-            showSuccessMessage(contentTitle, warningMessage, true);
-        } else {
-            showSuccessMessage(contentTitle, "", false);
+    /*
+    * 获取指定路径所属的flutter工程根目录数组，即所监控的资源目录中包含该路径的工程
+    * 若路径为null或者不属于任一被监控的资源目录，则返回空数组
+    * */
+    private List<String> getOwnerProjectRootDirs(String path) {
+        if(path == null) {
+            return new ArrayList<String>();
         }
-        // ----- Step-22 End -----
-
-        indicatorMessage = String.format("[√]: generate for %s done !!!", flutterProjectRootDir);
-        flrLogConsole.println(indicatorMessage, indicatorType);
-
-        indicatorMessage = "--------------------------------------------------------------------------------------";
-        flrLogConsole.println(indicatorMessage, indicatorType);
-
+        return monitoredDirOwnerTrie.getValuesOnPath(path);
     }
 
     /*
@@ -1017,6 +1005,8 @@ public class FlrCommand implements Disposable {
         List<String> legalResourceDirArray = new ArrayList<>();
         // 非法的资源目录数组
         List<String> illegalResourceDirArray = new ArrayList<>();
+        // 合法的资源目录与其所属工程根目录的映射
+        FlrPathTrie<String> legalResourceDirOwnerTrie = new FlrPathTrie<>();
 
         for(String flutterProjectRootDir : flutterProjectRootDirArray) {
             try {
@@ -1043,6 +1033,12 @@ public class FlrCommand implements Disposable {
                 List<String> fontsLegalResourceDirArray = resourceDirResultTuple.get(1);
                 legalResourceDirArray.addAll(assetsLegalResourceDirArray);
                 legalResourceDirArray.addAll(fontsLegalResourceDirArray);
+                for(String resourceDir : assetsLegalResourceDirArray) {
+                    legalResourceDirOwnerTrie.put(resourceDir, flutterProjectRootDir);
+                }
+                for(String resourceDir : fontsLegalResourceDirArray) {
+                    legalResourceDirOwnerTrie.put(resourceDir, flutterProjectRootDir);
+                }
                 // 非法的资源目录数组
                 illegalResourceDirArray.addAll(resourceDirResultTuple.get(2));
 
@@ -1103,6 +1099,7 @@ public class FlrCommand implements Disposable {
         // 启动资源监控服务
         //  - 启动一个文件监控服务，对 legal_resource_dir 数组中的资源目录进行文件监控
         //  - 若服务检测到资源变化（资源目录下的发生增/删/改文件），则执行一次 flr generate 操作
+        //  - 资源变化事件先交给 FlrGenerateScheduler 合并，静默期过后才执行 flr generate 操作，且同一时刻最多只执行一次
         //
         SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");//设置日期格式
         String nowStr = df.format(new Date());// new Date()为获取当前系统时间，也可使用当前时间戳
@@ -1117,9 +1114,9 @@ public class FlrCommand implements Disposable {
         indicatorMessage = "launching ...";
         flrLogConsole.println(indicatorMessage, indicatorType);
 
-        FlrListener.AssetChangesEventCallback assetChangesEventCallback = new FlrListener.AssetChangesEventCallback() {
+        FlrGenerateScheduler.GenerateCallback generateCallback = new FlrGenerateScheduler.GenerateCallback() {
             @Override
-            public void run() {
+            public void run(@NotNull List<VFileEvent> events, @NotNull ProgressIndicator indicator) {
                 String contentTitle = "[!]: detect some asset changes !!!";
                 String contentMessage = "[*]: invoke Flr-Generate Action now ... ";
                 showSuccessMessage(contentTitle, contentMessage, false);
@@ -1128,20 +1125,23 @@ public class FlrCommand implements Disposable {
                 SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
                 String nowStr = df.format(new Date());
 
+                // 每次触发的generate作为一次运行，Flr ToolWindow 中保留的日志过多时，较早的运行会被折叠为一行摘要
+                flrLogConsole.beginRun(String.format("%s detect some asset changes", nowStr));
+
                 indicatorMessage = String.format("--------------------------- %s ---------------------------", nowStr);
                 flrLogConsole.println(indicatorMessage, indicatorType);
 
                 indicatorMessage = "detect some asset changes, run Flr-Generate Action now";
                 flrLogConsole.println(indicatorMessage, indicatorType);
 
-                indicatorMessage = "generate for all projects now ...";
+                indicatorMessage = "generate for the changed projects now ...";
                 flrLogConsole.println(indicatorMessage, indicatorType);
 
                 flrLogConsole.println("", indicatorType);
-                generateAll(actionEvent, flrLogConsole);
+                generateIncrementally(actionEvent, flrLogConsole, events, indicator);
 
                 flrLogConsole.println("", indicatorType);
-                indicatorMessage = "generate for all projects done !!!";
+                indicatorMessage = "generate for the changed projects done !!!";
                 flrLogConsole.println(indicatorMessage, indicatorType);
 
                 indicatorMessage = "---------------------------------------------------------------------------------";
@@ -1152,12 +1152,22 @@ public class FlrCommand implements Disposable {
                         "[*]: the monitoring service is monitoring the asset changes, and then auto scan assets, specifies assets and generates \"r.g.dart\" ...\n" +
                                 "[*]: you can click menu \"Tools-Flr-Stop Monitor\" to terminate it\n";
                 flrLogConsole.println(indicatorMessage, FlrLogConsole.LogType.tips);
+                flrLogConsole.endRun();
 
                 contentTitle = "[!]: invoke Flr-Generate Action done !!!";
                 contentMessage = "[*]: you can get the details from Flr ToolWindow";
                 showSuccessMessage(contentTitle, contentMessage, false);
             }
         };
+        monitoredDirOwnerTrie = legalResourceDirOwnerTrie;
+        curGenerateScheduler = new FlrGenerateScheduler(curProject, FlrConstant.MONITOR_QUIET_WINDOW_MILLIS, generateCallback);
+        FlrGenerateScheduler generateScheduler = curGenerateScheduler;
+        FlrListener.AssetChangesEventCallback assetChangesEventCallback = new FlrListener.AssetChangesEventCallback() {
+            @Override
+            public void run(@NotNull List<? extends VFileEvent> events) {
+                generateScheduler.submit(events);
+            }
+        };
         List<String> legalRelativeResourceDirArray = FlrFileUtil.convertToRelativeResourceDirs(flutterMainProjectRootDir, legalResourceDirArray);
         curFlrListener = new FlrListener(curProject, legalRelativeResourceDirArray, assetChangesEventCallback);
         isMonitoringAssets = true;
@@ -1213,6 +1223,11 @@ public class FlrCommand implements Disposable {
             curFlrListener.dispose();
             curFlrListener = null;
         }
+        if(curGenerateScheduler != null) {
+            curGenerateScheduler.dispose();
+            curGenerateScheduler = null;
+        }
+        monitoredDirOwnerTrie = new FlrPathTrie<String>();
         isMonitoringAssets = false;
 
         indicatorMessage = "[√]: terminate the monitoring service done !!!";
@@ -0,0 +1,158 @@
+package com.flr.command;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/*
+* 资源变化监控服务的generate调度器，位于 FlrListener 和 FlrCommand 之间：
+* - 合并：收到资源变化事件后，等待一个静默期；静默期内的新事件会重新开始计时，最终合并为一次generate操作；
+* - 单飞：任一时刻最多只有一次generate操作在执行；
+* - 补跑：generate操作执行期间到达的事件，会在其执行完成后合并为（且只合并为）一次后续的generate操作。
+*
+* 提交事件只是把事件加入待处理队列，会立即返回，因此不会阻塞VFS事件的分发线程；
+* generate操作以可取消的后台任务（Task.Backgroundable）执行，调度器被销毁时会取消正在执行的generate操作
+* */
+public class FlrGenerateScheduler implements Disposable {
+
+    public interface GenerateCallback {
+        /*
+        * @param events 合并后的资源变化事件，按到达顺序排列
+        * @param indicator 后台任务的进度指示器，generate操作应在适当的时机检查其是否已被取消
+        * */
+        void run(@NotNull List<VFileEvent> events, @NotNull ProgressIndicator indicator);
+    }
+
+    private final Project curProject;
+    private final long quietWindowMillis;
+    private final GenerateCallback curGenerateCallback;
+    private final ScheduledExecutorService executor;
+
+    // 以下状态均由 this 保护
+    private List<VFileEvent> pendingEventArray = new ArrayList<VFileEvent>();
+    private ScheduledFuture<?> scheduledFuture;
+    private ProgressIndicator runningIndicator;
+    private boolean isGenerating = false;
+    private boolean isDisposed = false;
+
+    /*
+    * @param project
+    * @param quietWindowMillis 静默期（毫秒）；在最后一个事件到达后，经过该时长无新事件才会执行generate操作
+    * @param generateCallback 执行generate操作的回调
+    * */
+    public FlrGenerateScheduler(@NotNull Project project, long quietWindowMillis, @NotNull GenerateCallback generateCallback) {
+        this.curProject = project;
+        this.quietWindowMillis = Math.max(quietWindowMillis, 0L);
+        this.curGenerateCallback = generateCallback;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Flr-Generate-Scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /*
+    * 提交资源变化事件
+    * */
+    public synchronized void submit(@NotNull List<? extends VFileEvent> events) {
+        if(isDisposed || events.isEmpty()) {
+            return;
+        }
+
+        pendingEventArray.addAll(events);
+
+        // generate操作执行期间不重新计时，等其完成后再统一调度后续的generate操作
+        if(isGenerating) {
+            return;
+        }
+        scheduleFlush();
+    }
+
+    /*
+    * 销毁调度器：丢弃待处理的事件，并取消正在执行的generate操作
+    * */
+    @Override
+    public synchronized void dispose() {
+        isDisposed = true;
+        pendingEventArray.clear();
+        if(scheduledFuture != null) {
+            scheduledFuture.cancel(false);
+            scheduledFuture = null;
+        }
+        if(runningIndicator != null) {
+            runningIndicator.cancel();
+        }
+        executor.shutdown();
+    }
+
+    private void scheduleFlush() {
+        if(scheduledFuture != null) {
+            scheduledFuture.cancel(false);
+        }
+        scheduledFuture = executor.schedule(this::flush, quietWindowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        List<VFileEvent> eventArray;
+        synchronized (this) {
+            scheduledFuture = null;
+            if(isDisposed || isGenerating || pendingEventArray.isEmpty()) {
+                return;
+            }
+            eventArray = pendingEventArray;
+            pendingEventArray = new ArrayList<VFileEvent>();
+            isGenerating = true;
+        }
+
+        try {
+            ProgressManager.getInstance().run(new Task.Backgroundable(curProject, "Flr Monitor Generate", true) {
+                @Override
+                public void run(@NotNull ProgressIndicator indicator) {
+                    synchronized (FlrGenerateScheduler.this) {
+                        runningIndicator = indicator;
+                        if(isDisposed) {
+                            indicator.cancel();
+                        }
+                    }
+                    if(indicator.isCanceled()) {
+                        return;
+                    }
+                    curGenerateCallback.run(eventArray, indicator);
+                }
+
+                @Override
+                public void onFinished() {
+                    finishGenerating();
+                }
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+            finishGenerating();
+        }
+    }
+
+    /*
+    * generate操作完成（或被取消）后，若期间有新的事件到达，则调度一次后续的generate操作
+    * */
+    private synchronized void finishGenerating() {
+        if(isGenerating == false) {
+            return;
+        }
+        isGenerating = false;
+        runningIndicator = null;
+        if(isDisposed == false && pendingEventArray.isEmpty() == false) {
+            scheduleFlush();
+        }
+    }
+}
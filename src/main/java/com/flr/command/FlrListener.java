@@ -1,12 +1,18 @@
 package com.flr.command;
 
+import com.flr.command.util.FlrFileUtil;
+import com.flr.command.util.FlrPathTrie;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.VirtualFileManager;
 import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent;
 import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
 import com.intellij.util.messages.MessageBusConnection;
 import org.jetbrains.annotations.NotNull;
 
@@ -16,12 +22,16 @@ import java.util.List;
 public class FlrListener implements BulkFileListener, Disposable {
 
     public interface AssetChangesEventCallback {
-        void run();
+        /*
+        * @param events 发生在被监控的资源目录中的资源变化事件
+        * */
+        void run(@NotNull List<? extends VFileEvent> events);
     }
 
     private MessageBusConnection connection;
     private final Project curProject;
-    private List<String> curMonitoredAssetDirFullPaths = new ArrayList<String>();
+    // 被监控的资源目录（绝对路径）的前缀树，用于快速判断事件路径是否位于被监控的资源目录中
+    private final FlrPathTrie<String> curMonitoredAssetDirTrie = new FlrPathTrie<String>();
     private AssetChangesEventCallback curAssetChangesEventCallback;
 
     /*
@@ -37,7 +47,7 @@ public class FlrListener implements BulkFileListener, Disposable {
         String flutterProjectRootDir = curProject.getBasePath();
         for(String assetDir: monitoredAssetDirs) {
             String assetDirFullPath = flutterProjectRootDir + "/" + assetDir;
-            curMonitoredAssetDirFullPaths.add(assetDirFullPath);
+            curMonitoredAssetDirTrie.put(assetDirFullPath, assetDirFullPath);
         }
         curAssetChangesEventCallback = assetChangesEventCallback;
         connection = ApplicationManager.getApplication().getMessageBus().connect();
@@ -56,31 +66,78 @@ public class FlrListener implements BulkFileListener, Disposable {
 
     @Override
     public void after(@NotNull List<? extends VFileEvent> events) {
-        Boolean shouldCallback = false;
+        if(curMonitoredAssetDirTrie.isEmpty()) {
+            return;
+        }
 
-        System.out.println("\nFlr events"+ events);
+        List<VFileEvent> assetChangeEvents = new ArrayList<VFileEvent>();
 
         for (VFileEvent event: events) {
-            VirtualFile eventFile = event.getFile();
-            String fileFullPath = eventFile.getPath();
+            if(isAssetChangeEvent(event) == false) {
+                continue;
+            }
 
-            System.out.println("\nVFileEvent"+ "\ngetPath:"+event.getPath()+ "\ngetFile:"+event.getFile());
+            if(isInMonitoredAssetDir(event.getPath())) {
+                assetChangeEvents.add(event);
+                continue;
+            }
 
-            for(String monitoredAssetDirFullPath: curMonitoredAssetDirFullPaths) {
-                if(fileFullPath.contains(monitoredAssetDirFullPath)) {
-                    shouldCallback = true;
-                    break;
-                }
+            // 移动和重命名事件还需要检测其原路径，以便处理资源被移出被监控的资源目录的情况
+            String oldPath = null;
+            if(event instanceof VFileMoveEvent) {
+                oldPath = ((VFileMoveEvent) event).getOldPath();
+            } else if(event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename()) {
+                oldPath = ((VFilePropertyChangeEvent) event).getOldPath();
             }
+            if(oldPath != null && isInMonitoredAssetDir(oldPath)) {
+                assetChangeEvents.add(event);
+            }
+        }
 
-            if(shouldCallback) {
-                break;
+        if(assetChangeEvents.isEmpty() == false) {
+            curAssetChangesEventCallback.run(assetChangeEvents);
+        }
+    }
+
+    /*
+    * 判断事件是否可能影响资源的扫描结果：
+    * - 文件内容变化不影响 pubspec.yaml 和 r.g.dart，忽略；
+    * - 除重命名外的属性变化（如可写属性），忽略；
+    * - 目录的增/删/移动/复制/重命名可能涉及其中的任意资源，一律视为相关事件；
+    * - 文件的增/删/移动/复制/重命名，只有当其（原或新）文件名为资源文件类型时才视为相关事件，
+    *   从而过滤掉 .DS_Store、编辑器交换文件、.psd 设计源文件等非资源文件的变化。
+    * */
+    private boolean isAssetChangeEvent(@NotNull VFileEvent event) {
+        if(event instanceof VFileContentChangeEvent) {
+            return false;
+        }
+
+        if(event instanceof VFilePropertyChangeEvent) {
+            VFilePropertyChangeEvent propertyChangeEvent = (VFilePropertyChangeEvent) event;
+            if(propertyChangeEvent.isRename() == false) {
+                return false;
+            }
+            if(isDirectoryEvent(event)) {
+                return true;
             }
+            return FlrFileUtil.isResourceFilePath(propertyChangeEvent.getOldPath()) || FlrFileUtil.isResourceFilePath(propertyChangeEvent.getNewPath());
         }
 
-        if(shouldCallback) {
-            curAssetChangesEventCallback.run();
+        if(isDirectoryEvent(event)) {
+            return true;
         }
+        return FlrFileUtil.isResourceFilePath(event.getPath());
     }
-}
 
+    private boolean isDirectoryEvent(@NotNull VFileEvent event) {
+        if(event instanceof VFileCreateEvent) {
+            return ((VFileCreateEvent) event).isDirectory();
+        }
+        VirtualFile file = event.getFile();
+        return file != null && file.isDirectory();
+    }
+
+    private boolean isInMonitoredAssetDir(@NotNull String fileFullPath) {
+        return curMonitoredAssetDirTrie.containsPrefixOf(fileFullPath);
+    }
+}
@@ -3,6 +3,7 @@ package com.flr.command.util;
 
 import com.flr.FlrConstant;
 import com.flr.FlrException;
+import com.flr.logConsole.FlrLogConsole;
 import com.intellij.ide.plugins.PluginManager;
 import com.intellij.ide.plugins.PluginManagerCore;
 import com.intellij.openapi.actionSystem.AnAction;
@@ -11,13 +12,17 @@ import com.intellij.openapi.actionSystem.ActionManager;
 import com.intellij.openapi.actionSystem.IdeActions;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.extensions.PluginId;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.jetbrains.lang.dart.ide.actions.DartStyleAction;
 import com.sun.istack.NotNull;
 import io.flutter.actions.FlutterPackagesGetAction;
+import io.flutter.pub.PubRoot;
+import io.flutter.sdk.FlutterSdk;
 import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.Yaml;
 
@@ -125,7 +130,69 @@ public class FlrUtil {
         });
     }
 
+    /*
+    * 为指定的flutter工程获取依赖：在每个工程的根目录下执行 flutter pub get，而不是对整个IDE工程执行 flutter.pub.get action；
+    * 若无法获取Flutter SDK，或者所有工程都不是有效的pub工程，则回退为执行 flutter.pub.get action；
+    * 若只有部分工程不是有效的pub工程，则跳过这些工程，并在 flrLogConsole 中输出警告
+    * */
+    public static void runFlutterPubGet(AnActionEvent actionEvent, @NotNull FlrLogConsole flrLogConsole, @NotNull List<String> flutterProjectRootDirArray) {
+        Project project = actionEvent.getProject();
+        FlutterSdk flutterSdk = project != null ? FlutterSdk.getFlutterSdk(project) : null;
+        if(flutterSdk == null) {
+            runFlutterPubGet(actionEvent);
+            return;
+        }
+
+        List<String> flutterProjectRootDirArrayCopy = new ArrayList<String>(flutterProjectRootDirArray);
+        ApplicationManager.getApplication().invokeLater(() -> {
+            List<PubRoot> pubRootArray = new ArrayList<PubRoot>();
+            List<String> unresolvedDirArray = new ArrayList<String>();
+            for (String flutterProjectRootDir : flutterProjectRootDirArrayCopy) {
+                VirtualFile flutterProjectRootVirtualDir = LocalFileSystem.getInstance().findFileByPath(flutterProjectRootDir);
+                PubRoot pubRoot = flutterProjectRootVirtualDir != null ? PubRoot.forDirectory(flutterProjectRootVirtualDir) : null;
+                if(pubRoot == null) {
+                    unresolvedDirArray.add(flutterProjectRootDir);
+                    continue;
+                }
+                pubRootArray.add(pubRoot);
+            }
+
+            // 所有工程都不是有效的pub工程时，才回退为执行 flutter.pub.get action，避免对同一个工程重复执行 flutter pub get
+            if(pubRootArray.isEmpty()) {
+                runFlutterPubGet(actionEvent);
+                return;
+            }
+
+            if(unresolvedDirArray.isEmpty() == false) {
+                String warningText = "[!]: warning, skip running \"flutter pub get\" for the following flutter projects which are not valid pub projects: ";
+                for (String unresolvedDir : unresolvedDirArray) {
+                    warningText += "\n" + String.format("  - %s", unresolvedDir);
+                }
+                flrLogConsole.println(warningText, FlrLogConsole.LogType.warning);
+                flrLogConsole.println("[*]: please run \"flutter pub get\" for them manually", FlrLogConsole.LogType.tips);
+            }
+
+            for (PubRoot pubRoot : pubRootArray) {
+                flutterSdk.flutterPackagesGet(pubRoot).startInConsole(project);
+            }
+        });
+    }
+
     public static void formatDartFile(@NotNull Project project, @NotNull File dartFile) {
+        List<File> dartFileArray = new ArrayList<File>();
+        dartFileArray.add(dartFile);
+        formatDartFiles(project, dartFileArray);
+    }
+
+    /*
+    * 格式化多个dart文件：只切换一次UI线程、执行一次写操作，并通过一次 DartStyleAction.runDartfmt 调用格式化所有文件
+    * */
+    public static void formatDartFiles(@NotNull Project project, @NotNull List<File> dartFileArray) {
+        if(dartFileArray.isEmpty()) {
+            return;
+        }
+
+        List<File> dartFileArrayCopy = new ArrayList<File>(dartFileArray);
         ApplicationManager.getApplication().invokeLater(new Runnable() {
             @Override
             public void run() {
@@ -133,12 +200,16 @@ public class FlrUtil {
                     @Override
                     public void run() {
                         // 格式化方案一：Android Studio（non-IDEA JetBrains IDE）和 IDEA JetBrains IDE 上均可行
-                        VirtualFile dartVirtualFile = LocalFileSystem.getInstance().findFileByIoFile(dartFile);
-                        if (dartVirtualFile == null) {
+                        List<VirtualFile> dartFiles = new ArrayList<VirtualFile>();
+                        for (File dartFile : dartFileArrayCopy) {
+                            VirtualFile dartVirtualFile = LocalFileSystem.getInstance().findFileByIoFile(dartFile);
+                            if (dartVirtualFile != null) {
+                                dartFiles.add(dartVirtualFile);
+                            }
+                        }
+                        if (dartFiles.isEmpty()) {
                             return;
                         }
-                        List<VirtualFile> dartFiles = new ArrayList<VirtualFile>();
-                        dartFiles.add(dartVirtualFile);
                         DartStyleAction.runDartfmt(project, dartFiles);
 
                         // 格式化方案二：Android Studio（non-IDEA JetBrains IDE）上不成功；在IDEA JetBrains IDE 上可行
@@ -147,7 +218,17 @@ public class FlrUtil {
                         CodeStyleManager.getInstance(project).reformat(dartPsiFile);
                         */
 
-                        dartVirtualFile.refresh(false, false);
+                        // 保存格式化结果，并更新写入记录中的文件大小和修改时间，
+                        // 使下次generate时 FlrFileWriter.isFileContentUnchanged 能区分格式化导致的变化和其他方式的修改
+                        FileDocumentManager fileDocumentManager = FileDocumentManager.getInstance();
+                        for (VirtualFile dartVirtualFile : dartFiles) {
+                            Document dartDocument = fileDocumentManager.getCachedDocument(dartVirtualFile);
+                            if (dartDocument != null) {
+                                fileDocumentManager.saveDocument(dartDocument);
+                            }
+                            dartVirtualFile.refresh(false, false);
+                            FlrFileWriter.updateWrittenFileStamp(FlrVfsFileSystem.getInstance(), dartVirtualFile.getPath());
+                        }
                     }
                 });
             }
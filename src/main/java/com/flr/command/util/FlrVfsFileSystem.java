@@ -0,0 +1,123 @@
+package com.flr.command.util;
+
+import com.flr.engine.FlrFileSystem;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+* 基于IDE虚拟文件系统（VFS）的 FlrFileSystem 实现，供插件通过 FlrEngine 执行generate时使用
+*
+* 文件和目录的信息均从VFS中获取，与IDE中看到的工程结构保持一致；
+* 写文件时直接写入磁盘，然后刷新对应的虚拟文件，使IDE可以立即看到写入的内容
+* */
+public class FlrVfsFileSystem implements FlrFileSystem {
+
+    private static final FlrVfsFileSystem instance = new FlrVfsFileSystem();
+
+    public static FlrVfsFileSystem getInstance() {
+        return instance;
+    }
+
+    @Override
+    public boolean exists(@NotNull String path) {
+        return findFile(path) != null;
+    }
+
+    @Override
+    public boolean isDirectory(@NotNull String path) {
+        VirtualFile virtualFile = findFile(path);
+        return virtualFile != null && virtualFile.isDirectory();
+    }
+
+    @Override
+    public List<String> listChildNames(@NotNull String dirPath) throws IOException {
+        VirtualFile dirVirtualFile = findFile(dirPath);
+        if(dirVirtualFile == null || dirVirtualFile.isDirectory() == false) {
+            throw new FileNotFoundException(dirPath);
+        }
+
+        List<String> childNameArray = new ArrayList<String>();
+        for (VirtualFile child : dirVirtualFile.getChildren()) {
+            childNameArray.add(child.getName());
+        }
+        Collections.sort(childNameArray);
+        return childNameArray;
+    }
+
+    @Override
+    public String getRealPath(@NotNull String path) throws IOException {
+        VirtualFile virtualFile = findFile(path);
+        String realPath = (virtualFile != null) ? virtualFile.getCanonicalPath() : null;
+        if(realPath == null) {
+            throw new FileNotFoundException(path);
+        }
+        return realPath;
+    }
+
+    @Override
+    public long lastModified(@NotNull String path) {
+        VirtualFile virtualFile = findFile(path);
+        return (virtualFile != null) ? virtualFile.getTimeStamp() : 0L;
+    }
+
+    @Override
+    public long length(@NotNull String filePath) {
+        VirtualFile virtualFile = findFile(filePath);
+        return (virtualFile != null && virtualFile.isDirectory() == false) ? virtualFile.getLength() : 0L;
+    }
+
+    @Override
+    public String readText(@NotNull String filePath) throws IOException {
+        byte[] bytes = Files.readAllBytes(Paths.get(filePath));
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /*
+    * 写文件，并刷新文件
+    * 若文件不存在，则创建文件，并同步加载文件到工程
+    * */
+    @Override
+    public void writeText(@NotNull String filePath, @NotNull String content) throws IOException {
+        Path path = Paths.get(filePath);
+        Path parentDir = path.getParent();
+        if(parentDir != null) {
+            Files.createDirectories(parentDir);
+        }
+        boolean isNewFile = Files.exists(path) == false;
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+
+        File file = path.toFile();
+        if(isNewFile) {
+            List<File> ioFiles = new ArrayList<File>();
+            ioFiles.add(file);
+            LocalFileSystem.getInstance().refreshIoFiles(ioFiles);
+            return;
+        }
+
+        VirtualFile virtualFile = LocalFileSystem.getInstance().findFileByIoFile(file);
+        if(virtualFile == null) {
+            return;
+        }
+        virtualFile.refresh(false, false);
+    }
+
+    private static VirtualFile findFile(@NotNull String path) {
+        VirtualFile virtualFile = LocalFileSystem.getInstance().findFileByPath(path);
+        if(virtualFile == null || virtualFile.isValid() == false) {
+            return null;
+        }
+        return virtualFile;
+    }
+}
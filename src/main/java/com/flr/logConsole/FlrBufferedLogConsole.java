@@ -0,0 +1,52 @@
+package com.flr.logConsole;
+
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+* 先缓存日志、再统一输出的日志控制台
+*
+* 并行执行多个任务时，每个任务使用各自的 FlrBufferedLogConsole 记录日志，
+* 任务完成后再按顺序输出到真正的 FlrLogConsole，从而避免不同任务的日志交错在一起
+* */
+public class FlrBufferedLogConsole extends FlrLogConsole {
+
+    private static class Line {
+        final String text;
+        final LogType logType;
+
+        Line(@NotNull String text, @NotNull LogType logType) {
+            this.text = text;
+            this.logType = logType;
+        }
+    }
+
+    private final List<Line> lineArray = new ArrayList<Line>();
+
+    public FlrBufferedLogConsole(@NotNull Project project) {
+        super(project);
+    }
+
+    @Override
+    public synchronized void println(@NotNull String text, @NotNull LogType logType) {
+        lineArray.add(new Line(text, logType));
+    }
+
+    @Override
+    public synchronized void clear() {
+        lineArray.clear();
+    }
+
+    /*
+    * 把缓存的日志按记录顺序输出到指定的日志控制台，并清空缓存
+    * */
+    public synchronized void flushTo(@NotNull FlrLogConsole flrLogConsole) {
+        for (Line line : lineArray) {
+            flrLogConsole.println(line.text, line.logType);
+        }
+        lineArray.clear();
+    }
+}
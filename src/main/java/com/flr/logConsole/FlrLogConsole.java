@@ -1,13 +1,12 @@
 package com.flr.logConsole;
 
-import com.intellij.execution.impl.ConsoleViewImpl;
 import com.intellij.execution.ui.ConsoleView;
 import com.intellij.execution.ui.ConsoleViewContentType;
-import com.intellij.openapi.application.ApplicationManager;
-import com.intellij.openapi.command.WriteCommandAction;
 import com.intellij.openapi.project.Project;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
+
 public class FlrLogConsole {
     public enum LogType {
         normal,
@@ -24,42 +23,38 @@ public class FlrLogConsole {
         curConsoleView = consoleView;
     }
 
+    /*
+    * 供不直接输出到 ConsoleView 的子类使用
+    * */
+    protected FlrLogConsole(@NotNull Project project) {
+        curProject = project;
+    }
+
+    /*
+    * 输出一行日志；日志会先加入 FlrLogSink 的待输出队列，再批量输出到 ConsoleView，因此可以在任意线程中调用
+    * */
     public void println(@NotNull String text, @NotNull FlrLogConsole.LogType logType) {
         if(curConsoleView == null) {
             System.out.println("FlrLogConsole: curConsoleView is null !!!");
             return;
         }
 
-        ApplicationManager.getApplication().invokeLater(new Runnable() {
-            @Override
-            public void run() {
-                WriteCommandAction.runWriteCommandAction(curProject, new Runnable() {
-                    @Override
-                    public void run() {
-                        ConsoleViewContentType contentType = ConsoleViewContentType.SYSTEM_OUTPUT;
-                        switch (logType) {
-                            case normal:
-                                contentType = ConsoleViewContentType.SYSTEM_OUTPUT;
-                                break;
-                            case tips:
-                                contentType = ConsoleViewContentType.LOG_INFO_OUTPUT;
-                                break;
-                            case warning:
-                                contentType = ConsoleViewContentType.LOG_WARNING_OUTPUT;
-                                break;
-                            case error:
-                                contentType = ConsoleViewContentType.ERROR_OUTPUT;
-                                break;
-                        }
-                        curConsoleView.print( text + "\n", contentType);
-                        ConsoleViewImpl consoleViewImpl = (ConsoleViewImpl)curConsoleView;
-                        if(consoleViewImpl != null) {
-                            consoleViewImpl.scrollToEnd();
-                        }
-                    }
-                });
-            }
-        });
+        ConsoleViewContentType contentType = ConsoleViewContentType.SYSTEM_OUTPUT;
+        switch (logType) {
+            case normal:
+                contentType = ConsoleViewContentType.SYSTEM_OUTPUT;
+                break;
+            case tips:
+                contentType = ConsoleViewContentType.LOG_INFO_OUTPUT;
+                break;
+            case warning:
+                contentType = ConsoleViewContentType.LOG_WARNING_OUTPUT;
+                break;
+            case error:
+                contentType = ConsoleViewContentType.ERROR_OUTPUT;
+                break;
+        }
+        getLogSink().println(text, contentType);
     }
 
     public void println(@NotNull FlrColoredLogEntity coloredLogEntity) {
@@ -74,6 +69,30 @@ public class FlrLogConsole {
             System.out.println("FlrLogConsole: curConsoleView is null !!!");
             return;
         }
-        curConsoleView.clear();
+        getLogSink().clear();
+    }
+
+    /*
+    * 开始一次运行（如资源变化监控服务触发的一次generate），之后输出的日志都属于该运行，直到调用 endRun；
+    * Flr ToolWindow 中保留的日志超过上限时，最早的已结束的运行会被折叠为一行摘要，参见 FlrLogSink
+    * */
+    public void beginRun(@NotNull String title) {
+        if(curConsoleView == null) {
+            return;
+        }
+        getLogSink().beginRun(title);
+    }
+
+    public void endRun() {
+        if(curConsoleView == null) {
+            return;
+        }
+        getLogSink().endRun();
+    }
+
+    private FlrLogSink getLogSink() {
+        String projectBasePath = curProject.getBasePath();
+        File logFile = projectBasePath != null ? new File(projectBasePath + "/.dart_tool/flr/logs/flr.log") : null;
+        return FlrLogSink.getInstance(curProject, curConsoleView, logFile);
     }
 }
@@ -0,0 +1,24 @@
+package com.flr.logConsole;
+
+import com.flr.engine.FlrLogger;
+import org.jetbrains.annotations.NotNull;
+
+/*
+* 输出到 FlrLogConsole 的 FlrLogger 实现，供插件通过 FlrEngine 执行generate时使用
+*
+* === Examples
+* FlrLogger logger = new FlrLogConsoleLogger(flrLogConsole)
+* */
+public class FlrLogConsoleLogger implements FlrLogger {
+
+    private final FlrLogConsole curLogConsole;
+
+    public FlrLogConsoleLogger(@NotNull FlrLogConsole logConsole) {
+        this.curLogConsole = logConsole;
+    }
+
+    @Override
+    public void println(@NotNull String text, @NotNull LogType logType) {
+        curLogConsole.println(text, FlrLogConsole.LogType.valueOf(logType.name()));
+    }
+}
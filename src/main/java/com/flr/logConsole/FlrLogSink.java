@@ -0,0 +1,409 @@
+package com.flr.logConsole;
+
+import com.flr.FlrConstant;
+import com.intellij.execution.impl.ConsoleViewImpl;
+import com.intellij.execution.ui.ConsoleView;
+import com.intellij.execution.ui.ConsoleViewContentType;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+* 批量输出日志到 ConsoleView 的日志接收器
+*
+* 任意线程输出的日志先加入待输出队列，然后立即返回；队列非空时，每隔 LOG_FLUSH_INTERVAL_MILLIS 在UI线程中输出一批日志：
+* - 每批最多输出 LOG_FLUSH_MAX_LINES 行日志，剩余的日志留到下一批，避免单次占用UI线程过久；
+* - 同一批中连续的同类型日志合并为一次 ConsoleView.print 调用；
+* - 每批只滚动一次到末尾。
+*
+* 每个 ConsoleView 只有一个日志接收器（通过 getInstance 获取），
+* 因此同一个 ConsoleView 的多个 FlrLogConsole 输出的日志仍保持调用顺序。
+* 日志接收器注册为 ConsoleView 的子 Disposable，随 ConsoleView 一起销毁；销毁后不再输出任何日志。
+*
+* 日志保留策略：
+* - 日志可以按“运行”（如资源变化监控服务触发的一次generate）分组，参见 beginRun 和 endRun；
+* - ConsoleView 中保留的日志超过 LOG_RETENTION_MAX_LINES 行或者 LOG_RETENTION_MAX_CHARS 个字符时，
+*   最早的已结束的运行会被折叠为一行摘要，直到保留的日志不超过上限的一半，然后重新输出 ConsoleView 的内容；
+* - 摘要行最多保留 LOG_RETENTION_MAX_LINES / 10 行，更早的摘要行合并为一行“已省略”的提示；
+* - 若设置了日志文件，所有日志在输出到 ConsoleView 之前都会写入日志文件（在后台线程中写入），被折叠的运行的完整日志可以在其中查看。
+* */
+public class FlrLogSink implements Disposable {
+
+    private enum LineKind {
+        text,
+        clear,
+        beginRun,
+        endRun
+    }
+
+    private static class Line {
+        final LineKind kind;
+        // 日志内容；beginRun 时为运行的标题
+        final String text;
+        final ConsoleViewContentType contentType;
+
+        Line(@NotNull LineKind kind, String text, ConsoleViewContentType contentType) {
+            this.kind = kind;
+            this.text = text;
+            this.contentType = contentType;
+        }
+    }
+
+    /*
+    * ConsoleView 中保留的一组日志：一次运行，或者不属于任何运行的开头部分的日志
+    * */
+    private static class Run {
+        final String title;
+        final List<Line> lineArray = new ArrayList<Line>();
+        long charCount = 0;
+        int warningCount = 0;
+        boolean isEnded = false;
+
+        Run(String title) {
+            this.title = title;
+        }
+
+        void add(@NotNull Line line) {
+            lineArray.add(line);
+            charCount += line.text.length() + 1;
+            if(line.contentType == ConsoleViewContentType.LOG_WARNING_OUTPUT || line.contentType == ConsoleViewContentType.ERROR_OUTPUT) {
+                warningCount += 1;
+            }
+        }
+    }
+
+    private static final Line CLEAR_LINE = new Line(LineKind.clear, null, null);
+    private static final Line END_RUN_LINE = new Line(LineKind.endRun, null, null);
+
+    // 日志接收器强引用其 ConsoleView，因此不能依赖弱引用的键来回收，而是在日志接收器销毁时移除
+    private static final Map<ConsoleView, FlrLogSink> sinkDict = new HashMap<ConsoleView, FlrLogSink>();
+
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Flr-Log-Flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Project curProject;
+    private final ConsoleView curConsoleView;
+    private final FlrRotatingLogFile curLogFile;
+    private volatile boolean isDisposed = false;
+
+    // 以下状态均由 this 保护
+    private final ArrayDeque<Line> pendingLineQueue = new ArrayDeque<Line>();
+    private boolean isFlushScheduled = false;
+
+    // 以下状态只在UI线程中访问：ConsoleView 中当前保留的日志
+    private Run headRun = new Run(null);
+    private final ArrayDeque<Run> retainedRunQueue = new ArrayDeque<Run>();
+    private Run currentRun = null;
+    private final ArrayDeque<String> collapsedSummaryQueue = new ArrayDeque<String>();
+    private int omittedRunCount = 0;
+    private long retainedLineCount = 0;
+    private long retainedCharCount = 0;
+
+    private FlrLogSink(@NotNull Project project, @NotNull ConsoleView consoleView, FlrRotatingLogFile logFile) {
+        curProject = project;
+        curConsoleView = consoleView;
+        curLogFile = logFile;
+    }
+
+    /*
+    * 获取 consoleView 的日志接收器；若不存在，则创建，并注册为 consoleView 的子 Disposable
+    *
+    * @param logFile 写入所有日志的文件；为null时不写入文件。只在创建日志接收器时生效
+    * */
+    public static FlrLogSink getInstance(@NotNull Project project, @NotNull ConsoleView consoleView, File logFile) {
+        synchronized (sinkDict) {
+            FlrLogSink sink = sinkDict.get(consoleView);
+            if(sink != null) {
+                return sink;
+            }
+
+            FlrRotatingLogFile rotatingLogFile = null;
+            if(logFile != null && FlrConstant.LOG_FILE_ENABLED) {
+                rotatingLogFile = new FlrRotatingLogFile(logFile, FlrConstant.LOG_FILE_MAX_BYTES, FlrConstant.LOG_FILE_MAX_COUNT);
+            }
+            sink = new FlrLogSink(project, consoleView, rotatingLogFile);
+            sinkDict.put(consoleView, sink);
+            try {
+                Disposer.register(consoleView, sink);
+            } catch (Exception e) {
+                // consoleView 已经被销毁
+                e.printStackTrace();
+                sink.dispose();
+            }
+            return sink;
+        }
+    }
+
+    /*
+    * 销毁日志接收器：移除其在 sinkDict 中的记录，并丢弃还未输出的日志
+    * */
+    @Override
+    public void dispose() {
+        synchronized (sinkDict) {
+            if(sinkDict.get(curConsoleView) == this) {
+                sinkDict.remove(curConsoleView);
+            }
+        }
+        synchronized (this) {
+            isDisposed = true;
+            pendingLineQueue.clear();
+        }
+    }
+
+    /*
+    * 把一行日志加入待输出队列
+    * */
+    public synchronized void println(@NotNull String text, @NotNull ConsoleViewContentType contentType) {
+        enqueue(new Line(LineKind.text, text, contentType));
+    }
+
+    /*
+    * 清空 ConsoleView：丢弃还未输出的日志，并在UI线程中清空已输出的日志；
+    * 之后加入的日志会在清空之后输出
+    * */
+    public synchronized void clear() {
+        pendingLineQueue.clear();
+        enqueue(CLEAR_LINE);
+    }
+
+    /*
+    * 开始一次运行，之后输出的日志都属于该运行，直到调用 endRun；
+    * 若上一次运行还没有结束，则先结束它
+    *
+    * @param title 运行的标题，如“2021-01-01 12:00:00 detect some asset changes”；运行被折叠时，会显示在摘要行中
+    * */
+    public synchronized void beginRun(@NotNull String title) {
+        enqueue(new Line(LineKind.beginRun, title, null));
+    }
+
+    /*
+    * 结束当前运行，此后它可以被折叠
+    * */
+    public synchronized void endRun() {
+        enqueue(END_RUN_LINE);
+    }
+
+    private void enqueue(@NotNull Line line) {
+        if(isDisposed) {
+            return;
+        }
+        pendingLineQueue.add(line);
+        scheduleFlushIfNeed();
+    }
+
+    private void scheduleFlushIfNeed() {
+        if(isFlushScheduled) {
+            return;
+        }
+        isFlushScheduled = true;
+        executor.schedule(this::drain, FlrConstant.LOG_FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /*
+    * 在后台线程中取出一批日志，写入日志文件，再到UI线程中输出
+    * */
+    private void drain() {
+        List<Line> lineBatch = new ArrayList<Line>();
+        synchronized (this) {
+            if(isDisposed) {
+                return;
+            }
+            int textLineCount = 0;
+            while (textLineCount < FlrConstant.LOG_FLUSH_MAX_LINES && pendingLineQueue.isEmpty() == false) {
+                Line line = pendingLineQueue.poll();
+                lineBatch.add(line);
+                if(line.kind == LineKind.text) {
+                    textLineCount += 1;
+                }
+            }
+        }
+
+        if(curLogFile != null) {
+            List<String> fileLineArray = new ArrayList<String>();
+            for (Line line : lineBatch) {
+                if(line.kind == LineKind.text) {
+                    fileLineArray.add(line.text);
+                } else if(line.kind == LineKind.beginRun) {
+                    fileLineArray.add(String.format("=============== %s ===============", line.text));
+                }
+            }
+            curLogFile.appendLines(fileLineArray);
+        }
+
+        // ConsoleView 或者工程在输出之前被销毁时，跳过输出
+        ApplicationManager.getApplication().invokeLater(() -> render(lineBatch), expired -> isDisposed || curProject.isDisposed());
+    }
+
+    /*
+    * 在UI线程中输出一批日志，并在超过保留上限时折叠最早的运行；若还有剩余的日志，则调度下一批
+    * */
+    private void render(@NotNull List<Line> lineBatch) {
+        boolean didPrint = false;
+        StringBuilder text = new StringBuilder();
+        ConsoleViewContentType contentType = null;
+
+        for (Line line : lineBatch) {
+            switch (line.kind) {
+                case clear:
+                    text.setLength(0);
+                    contentType = null;
+                    didPrint = false;
+                    resetRetainedRuns();
+                    curConsoleView.clear();
+                    break;
+                case beginRun:
+                    if(currentRun != null) {
+                        currentRun.isEnded = true;
+                    }
+                    currentRun = new Run(line.text);
+                    retainedRunQueue.add(currentRun);
+                    break;
+                case endRun:
+                    if(currentRun != null) {
+                        currentRun.isEnded = true;
+                        currentRun = null;
+                    }
+                    break;
+                case text:
+                    // 不属于任何运行的日志，归入最近的一次运行；若还没有运行，则归入开头部分
+                    Run run = currentRun != null ? currentRun : retainedRunQueue.peekLast();
+                    (run != null ? run : headRun).add(line);
+                    retainedLineCount += 1;
+                    retainedCharCount += line.text.length() + 1;
+
+                    if(line.contentType != contentType && text.length() > 0) {
+                        curConsoleView.print(text.toString(), contentType);
+                        text.setLength(0);
+                    }
+                    contentType = line.contentType;
+                    text.append(line.text).append('\n');
+                    didPrint = true;
+                    break;
+            }
+        }
+
+        if(text.length() > 0) {
+            curConsoleView.print(text.toString(), contentType);
+        }
+
+        if(isOverRetentionLimit(1) && collapseRunsIfCan()) {
+            reprintRetainedRuns();
+            didPrint = true;
+        }
+
+        if(didPrint && curConsoleView instanceof ConsoleViewImpl) {
+            ((ConsoleViewImpl)curConsoleView).scrollToEnd();
+        }
+
+        synchronized (this) {
+            isFlushScheduled = false;
+            if(pendingLineQueue.isEmpty() == false) {
+                scheduleFlushIfNeed();
+            }
+        }
+    }
+
+    private boolean isOverRetentionLimit(int divisor) {
+        return retainedLineCount > FlrConstant.LOG_RETENTION_MAX_LINES / divisor
+                || retainedCharCount > FlrConstant.LOG_RETENTION_MAX_CHARS / divisor;
+    }
+
+    /*
+    * 把最早的已结束的运行折叠为摘要行，直到保留的日志不超过上限的一半；当前运行不会被折叠
+    *
+    * @return 是否折叠了运行
+    * */
+    private boolean collapseRunsIfCan() {
+        boolean didCollapse = false;
+        while (isOverRetentionLimit(2) && retainedRunQueue.isEmpty() == false && retainedRunQueue.peekFirst().isEnded) {
+            Run run = retainedRunQueue.pollFirst();
+            retainedLineCount -= run.lineArray.size();
+            retainedCharCount -= run.charCount;
+
+            String summary = String.format("[*]: %s (collapsed: %d %s, %d warning %s%s)",
+                    run.title,
+                    run.lineArray.size(),
+                    run.lineArray.size() == 1 ? "line" : "lines",
+                    run.warningCount,
+                    run.warningCount == 1 ? "message" : "messages",
+                    curLogFile != null ? ", see " + curLogFile.getFile().getPath() : "");
+            collapsedSummaryQueue.add(summary);
+            didCollapse = true;
+        }
+
+        int maxSummaryCount = Math.max(FlrConstant.LOG_RETENTION_MAX_LINES / 10, 1);
+        while (collapsedSummaryQueue.size() > maxSummaryCount) {
+            collapsedSummaryQueue.pollFirst();
+            omittedRunCount += 1;
+        }
+        return didCollapse;
+    }
+
+    /*
+    * 清空 ConsoleView，然后依次重新输出开头部分的日志、摘要行和保留的运行的日志
+    * */
+    private void reprintRetainedRuns() {
+        curConsoleView.clear();
+        printLines(headRun.lineArray);
+
+        StringBuilder summaryText = new StringBuilder();
+        if(omittedRunCount > 0) {
+            summaryText.append(String.format("[*]: %d earlier %s omitted", omittedRunCount, omittedRunCount > 1 ? "runs are" : "run is"));
+            if(curLogFile != null) {
+                summaryText.append(", see ").append(curLogFile.getFile().getPath());
+            }
+            summaryText.append('\n');
+        }
+        for (String summary : collapsedSummaryQueue) {
+            summaryText.append(summary).append('\n');
+        }
+        if(summaryText.length() > 0) {
+            curConsoleView.print(summaryText.toString(), ConsoleViewContentType.LOG_INFO_OUTPUT);
+        }
+
+        for (Run run : retainedRunQueue) {
+            printLines(run.lineArray);
+        }
+    }
+
+    private void printLines(@NotNull List<Line> lineArray) {
+        StringBuilder text = new StringBuilder();
+        ConsoleViewContentType contentType = null;
+        for (Line line : lineArray) {
+            if(line.contentType != contentType && text.length() > 0) {
+                curConsoleView.print(text.toString(), contentType);
+                text.setLength(0);
+            }
+            contentType = line.contentType;
+            text.append(line.text).append('\n');
+        }
+        if(text.length() > 0) {
+            curConsoleView.print(text.toString(), contentType);
+        }
+    }
+
+    private void resetRetainedRuns() {
+        headRun = new Run(null);
+        retainedRunQueue.clear();
+        currentRun = null;
+        collapsedSummaryQueue.clear();
+        omittedRunCount = 0;
+        retainedLineCount = 0;
+        retainedCharCount = 0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.flr.logConsole;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/*
+* 按大小滚动的日志文件
+*
+* 日志追加写入 logFile；写入前若 logFile 已达到 maxBytes，则滚动：
+* #{log_file}.#{max_count - 1} 被删除，#{log_file}.#{i} 重命名为 #{log_file}.#{i + 1}，logFile 重命名为 #{log_file}.1；
+* 因此最多保留 maxCount 个日志文件。
+*
+* === Examples
+* logFile = new FlrRotatingLogFile(new File("/path/to/flutter_demo/.dart_tool/flr/logs/flr.log"), 5 * 1024 * 1024, 3)
+* 保留的日志文件：flr.log、flr.log.1、flr.log.2
+* */
+public class FlrRotatingLogFile {
+
+    private final File logFile;
+    private final long maxBytes;
+    private final int maxCount;
+
+    public FlrRotatingLogFile(@NotNull File logFile, long maxBytes, int maxCount) {
+        this.logFile = logFile;
+        this.maxBytes = maxBytes;
+        this.maxCount = Math.max(maxCount, 1);
+    }
+
+    public File getFile() {
+        return logFile;
+    }
+
+    /*
+    * 追加写入多行日志；写入失败时只打印异常，不影响日志在 ConsoleView 中的输出
+    * */
+    public synchronized void appendLines(@NotNull List<String> lineArray) {
+        if(lineArray.isEmpty()) {
+            return;
+        }
+
+        try {
+            File logDir = logFile.getParentFile();
+            if(logDir != null) {
+                Files.createDirectories(logDir.toPath());
+            }
+            if(logFile.length() >= maxBytes) {
+                rotate();
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(logFile.toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (String line : lineArray) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void rotate() throws IOException {
+        if(maxCount <= 1) {
+            Files.deleteIfExists(logFile.toPath());
+            return;
+        }
+
+        Files.deleteIfExists(getRotatedFile(maxCount - 1).toPath());
+        for (int i = maxCount - 2; i >= 1; i--) {
+            File rotatedFile = getRotatedFile(i);
+            if(rotatedFile.exists()) {
+                Files.move(rotatedFile.toPath(), getRotatedFile(i + 1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(logFile.toPath(), getRotatedFile(1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private File getRotatedFile(int index) {
+        return new File(logFile.getPath() + "." + index);
+    }
+}
@@ -6,6 +6,7 @@ import com.intellij.execution.filters.TextConsoleBuilderFactory;
 import com.intellij.execution.ui.ConsoleView;
 import com.intellij.execution.ui.ConsoleViewContentType;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
 import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.openapi.wm.ToolWindowFactory;
 import com.intellij.openapi.wm.ToolWindowManager;
@@ -35,7 +36,9 @@ public class FlrToolWindowFactory implements ToolWindowFactory {
         flrPubspecFileTree.refreshContent();
 
         // 添加consoleView到flrToolWindowContainer-splitPane-right中
+        // consoleView 随 Flr ToolWindow 的内容一起销毁，其日志接收器（FlrLogSink）也随之销毁
         ConsoleView consoleView = TextConsoleBuilderFactory.getInstance().createBuilder(project).getConsole();
+        Disposer.register(content, consoleView);
         flrToolWindowProvider.consoleContainer.add(consoleView.getComponent(), BorderLayout.CENTER);
 
         String welcomeMessage = "Welcome to use Flr\nYou can get more details from https://github.com/Fly-Mix/flr-as-plugin";